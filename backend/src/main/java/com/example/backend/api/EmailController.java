@@ -0,0 +1,53 @@
+package com.example.backend.api;
+
+import com.example.backend.model.EmailType;
+import com.example.backend.model.OutboundEmail;
+import com.example.backend.service.EmailOutboxService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Delivery status of queued vendor emails (purchase orders and requisition inquiries)
+@RestController
+@RequestMapping("/api/emails")
+@CrossOrigin(origins = {"http://localhost:4200", "http://20.57.79.136", "http://20.57.79.136:80", "http://20.57.79.136:8080"})
+public class EmailController {
+
+    private static final Set<String> ALLOWED_ROLES = Set.of("FINANCE_MANAGER", "IT_MANAGER", "SUPERADMIN");
+
+    private final EmailOutboxService emailOutboxService;
+
+    public EmailController(EmailOutboxService emailOutboxService) {
+        this.emailOutboxService = emailOutboxService;
+    }
+
+    @GetMapping("/{id}")
+    public Map<String, Object> getEmail(@PathVariable Long id, @RequestAttribute("role") String role) {
+        if (!ALLOWED_ROLES.contains(role)) {
+            return Map.of("success", false, "message", "Access denied");
+        }
+        return emailOutboxService.getEmail(id)
+            .<Map<String, Object>>map(email -> Map.of("success", true, "email", email))
+            .orElseGet(() -> Map.of("success", false, "message", "Email not found"));
+    }
+
+    // Every email queued for one PO or requisition, newest first
+    @GetMapping
+    public Map<String, Object> getEmails(@RequestParam String type,
+                                         @RequestParam Long referenceId,
+                                         @RequestAttribute("role") String role) {
+        if (!ALLOWED_ROLES.contains(role)) {
+            return Map.of("success", false, "message", "Access denied");
+        }
+        EmailType emailType;
+        try {
+            emailType = EmailType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", "Invalid email type: " + type);
+        }
+        List<OutboundEmail> emails = emailOutboxService.getEmails(emailType, referenceId);
+        return Map.of("success", true, "emails", emails);
+    }
+}
@@ -5,7 +5,10 @@ import com.example.backend.repo.GrnRepository;
 import com.example.backend.repo.PurchaseOrderRepository;
 import com.example.backend.service.AuthService;
 import com.example.backend.service.GrnPdfService;
+import com.example.backend.service.PaginationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -29,6 +32,9 @@ public class GrnController {
     @Autowired
     private GrnPdfService grnPdfService;
 
+    @Autowired
+    private PaginationService paginationService;
+
     public static class ReceiveItemDto {
         public String description;
         public Integer orderedQty;
@@ -102,14 +108,25 @@ public class GrnController {
     }
 
     @GetMapping("/history")
-    public Map<String, Object> history(@RequestParam String sessionId, @RequestParam(required = false) Long poId) {
+    public Map<String, Object> history(@RequestParam String sessionId,
+                                       @RequestParam(required = false) Long poId,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size) {
         try {
             User currentUser = authService.getCurrentUser(sessionId);
             if (currentUser == null) {
                 return Map.of("success", false, "message", "Invalid session");
             }
-            List<Grn> list = (poId != null) ? grnRepository.findByPurchaseOrderId(poId) : grnRepository.findAll();
-            return Map.of("success", true, "grns", list);
+            // One PO's receipts are few: returned whole unless the caller pages through them
+            if (poId != null && cursor == null && size == null) {
+                return Map.of("success", true, "grns", grnRepository.findWithItemsByPurchaseOrderId(poId));
+            }
+            // Keyset slices, newest first; without a cursor this is the first page of the default size
+            Specification<Grn> filter = poId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("purchaseOrderId"), poId);
+            Slice<Grn> slice = paginationService.scroll(grnRepository, filter, "createdAt", cursor, size != null ? size : 0);
+            return paginationService.createCursorResponse("grns", slice,
+                paginationService.nextCursor(slice, Grn::getCreatedAt, Grn::getId));
         } catch (Exception e) {
             return Map.of("success", false, "message", "Failed to load GRN history: " + e.getMessage());
         }
@@ -2,12 +2,14 @@ package com.example.backend.api;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.*;
 import com.example.backend.service.PaginationService;
 import com.example.backend.service.CacheService;
 import com.example.backend.service.ProcureService;
 import com.example.backend.service.PdfService;
+import com.example.backend.service.DashboardStatsService;
 import com.example.backend.repo.RequisitionRepository;
 import com.example.backend.repo.VendorPdfRepository;
 import com.example.backend.model.RequisitionStatus;
@@ -41,6 +43,9 @@ public class OptimizedController {
     
     @Autowired
     private AuthService authService;
+    
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
 
     // Optimized dashboard data with caching
     @GetMapping("/dashboard")
@@ -60,11 +65,13 @@ public class OptimizedController {
             Map<String, Object> response = Map.of(
                 "success", true,
                 "stats", stats,
+                "roleStats", dashboardStatsService.getRoleStats(currentUser.getRole().name(), currentUser.getDepartment()),
                 "recentRequisitions", paginationService.createPaginatedResponse(
-                    requisitionRepository.findRecentRequisitions(pageable)
+                    requisitionRepository.findSummaries(pageable)
                 ),
+                // VendorPdf has no createdAt; the projection query orders by uploadedAt itself
                 "recentPdfs", paginationService.createPaginatedResponse(
-                    vendorPdfRepository.findRecentPdfs(pageable)
+                    vendorPdfRepository.findSummaries(PageRequest.of(0, pageable.getPageSize()))
                 )
             );
             
@@ -94,10 +101,10 @@ public class OptimizedController {
             
             if (authService.isEmployee(currentUser)) {
                 // Employee sees only their requisitions
-                requisitions = requisitionRepository.findByCreatedByOrderByCreatedAtDesc(currentUser.getUsername(), pageable);
+                requisitions = requisitionRepository.findSummariesByCreatedBy(currentUser.getUsername(), pageable);
             } else {
                 // Managers see all requisitions
-                requisitions = requisitionRepository.findRecentRequisitions(pageable);
+                requisitions = requisitionRepository.findSummaries(pageable);
             }
             
             return Map.of(
@@ -129,21 +136,21 @@ public class OptimizedController {
             
             if (authService.isEmployee(currentUser)) {
                 // Employee sees only their PDFs
-                pdfs = vendorPdfRepository.findByUploadedByOrderByUploadedAtDesc(currentUser.getUsername(), pageable);
+                pdfs = vendorPdfRepository.findSummariesByUploadedBy(currentUser.getUsername(), pageable);
             } else if ("DEPARTMENT_MANAGER".equals(currentUser.getRole().name())) {
                 // Department Managers see only PDFs from their department
-                pdfs = vendorPdfRepository.findByDepartmentOrderByUploadedAtDesc(currentUser.getDepartment(), pageable);
+                pdfs = vendorPdfRepository.findSummariesByDepartment(currentUser.getDepartment(), pageable);
             } else if ("IT_MANAGER".equals(currentUser.getRole().name())) {
                 // IT Managers see PDFs that have been approved by department managers
-                pdfs = vendorPdfRepository.findByApprovalStageInOrderByUploadedAtDesc(
+                pdfs = vendorPdfRepository.findSummariesByApprovalStageIn(
                     Arrays.asList("IT", "FINANCE", "APPROVED"), pageable);
             } else if ("FINANCE_MANAGER".equals(currentUser.getRole().name())) {
                 // Finance Managers see PDFs that have been approved by IT managers
-                pdfs = vendorPdfRepository.findByApprovalStageInOrderByUploadedAtDesc(
+                pdfs = vendorPdfRepository.findSummariesByApprovalStageIn(
                     Arrays.asList("FINANCE", "APPROVED"), pageable);
             } else {
                 // Super Admin sees all PDFs
-                pdfs = vendorPdfRepository.findAllByOrderByUploadedAtDesc(pageable);
+                pdfs = vendorPdfRepository.findSummaries(pageable);
             }
             
             return Map.of(
@@ -174,11 +181,11 @@ public class OptimizedController {
             if (currentUser.getRole() == UserRole.SUPERADMIN) {
                 // SUPERADMIN sees all pending approvals (both IT and Finance)
                 // For now, return IT approvals - the frontend will handle combining both
-                approvals = requisitionRepository.findByStatusOrderByCreatedAtDesc(RequisitionStatus.PENDING_IT_APPROVAL, pageable);
+                approvals = requisitionRepository.findSummariesByStatus(RequisitionStatus.PENDING_IT_APPROVAL, pageable);
             } else if (authService.hasRole(currentUser, "IT_MANAGER")) {
-                approvals = requisitionRepository.findByStatusOrderByCreatedAtDesc(RequisitionStatus.PENDING_IT_APPROVAL, pageable);
+                approvals = requisitionRepository.findSummariesByStatus(RequisitionStatus.PENDING_IT_APPROVAL, pageable);
             } else if (authService.hasRole(currentUser, "FINANCE_MANAGER")) {
-                approvals = requisitionRepository.findByStatusOrderByCreatedAtDesc(RequisitionStatus.PENDING_FINANCE_APPROVAL, pageable);
+                approvals = requisitionRepository.findSummariesByStatus(RequisitionStatus.PENDING_FINANCE_APPROVAL, pageable);
             } else {
                 return Map.of("success", false, "message", "Access denied");
             }
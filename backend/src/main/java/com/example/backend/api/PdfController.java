@@ -3,10 +3,12 @@ package com.example.backend.api;
 import com.example.backend.model.VendorPdf;
 import com.example.backend.service.PdfService;
 import com.example.backend.service.AuthService;
+import com.example.backend.service.PaginationService;
 import com.example.backend.model.User;
+import com.example.backend.model.UserRole;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +31,9 @@ public class PdfController {
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private PaginationService paginationService;
+    
     @PostMapping("/upload")
     public Map<String, Object> uploadPdf(@RequestParam String sessionId,
                                         @RequestParam("file") MultipartFile file,
@@ -62,13 +68,22 @@ public class PdfController {
     }
     
     @GetMapping("/list")
-    public Map<String, Object> getAllPdfs(@RequestParam String sessionId) {
+    public Map<String, Object> getAllPdfs(@RequestParam String sessionId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size) {
         try {
             User currentUser = authService.getCurrentUser(sessionId);
             if (currentUser == null) {
                 return Map.of("success", false, "message", "Invalid session");
             }
             
+            // Cursor mode: keyset slices instead of the full list
+            if (cursor != null || size != null) {
+                Slice<VendorPdf> slice = pdfService.scrollPdfsForUser(currentUser.getRole(), currentUser.getUsername(),
+                    currentUser.getDepartment(), cursor, size != null ? size : 0);
+                return paginationService.createCursorResponse("pdfs", slice, pdfService.getNextQueueCursor(slice));
+            }
+            
             List<VendorPdf> pdfs;
             if ("SUPERADMIN".equals(currentUser.getRole().name())) {
                 // Super Admins see all PDFs
@@ -107,20 +122,26 @@ public class PdfController {
                 return ResponseEntity.status(403).build();
             }
             
-            byte[] pdfContent = pdfService.getPdfContent(pdfId);
-            VendorPdf pdf = pdfService.getAllPdfs().stream()
-                .filter(p -> p.getId().equals(pdfId))
-                .findFirst()
-                .orElseThrow();
+            // Metadata by primary key, content streamed from disk
+            VendorPdf pdf = pdfService.getPdfById(pdfId);
+            if (pdf == null) {
+                return ResponseEntity.notFound().build();
+            }
             
-            ByteArrayResource resource = new ByteArrayResource(pdfContent);
+            Resource resource = pdfService.getPdfResource(pdf);
+            long lastModified = resource.lastModified();
             
+            // Stored files are never rewritten (unique names), so name + mtime identifies the content.
+            // Spring answers If-None-Match / If-Modified-Since with 304 and Range requests with 206.
             return ResponseEntity.ok()
+                .eTag(pdf.getFileName() + "-" + lastModified)
+                .lastModified(lastModified)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + pdf.getOriginalFileName() + "\"")
                 .contentType(MediaType.APPLICATION_PDF)
-                .contentLength(pdfContent.length)
                 .body(resource);
                 
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
@@ -338,6 +359,38 @@ public class PdfController {
         }
     }
     
+    @GetMapping("/queue")
+    public Map<String, Object> getWorkQueue(@RequestParam String sessionId,
+                                            @RequestParam(defaultValue = "pending") String scope,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size) {
+        try {
+            User currentUser = authService.getCurrentUser(sessionId);
+            if (currentUser == null) {
+                return Map.of("success", false, "message", "Invalid session");
+            }
+            
+            UserRole role = currentUser.getRole();
+            if (role != UserRole.IT_MANAGER && role != UserRole.FINANCE_MANAGER && role != UserRole.DEPARTMENT_MANAGER) {
+                return Map.of("success", false, "message", "Access denied. Only IT, Finance and Department Managers have PDF work queues.");
+            }
+            
+            // Department managers only see PDFs belonging to their department
+            List<String> stages = pdfService.getQueueStages(role, !"all".equalsIgnoreCase(scope));
+            String department = role == UserRole.DEPARTMENT_MANAGER ? currentUser.getDepartment() : null;
+            
+            Slice<VendorPdf> slice = pdfService.getStageQueue(stages, department, cursor, size);
+            Map<String, Object> response = paginationService.createCursorResponse("pdfs", slice, pdfService.getNextQueueCursor(slice));
+            response.put("counts", pdfService.getStageQueueCounts(stages, department));
+            return response;
+            
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
+        } catch (Exception e) {
+            return Map.of("success", false, "message", "An error occurred: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/finance-pending")
     public Map<String, Object> getFinancePendingPdfs(@RequestParam String sessionId) {
         try {
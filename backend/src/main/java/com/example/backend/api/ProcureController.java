@@ -1,7 +1,9 @@
 package com.example.backend.api;
 
 import com.example.backend.model.Budget;
+import com.example.backend.model.EmailType;
 import com.example.backend.model.Notification;
+import com.example.backend.model.OutboundEmail;
 import com.example.backend.model.Requisition;
 import com.example.backend.model.RequisitionStatus;
 import com.example.backend.model.User;
@@ -10,11 +12,28 @@ import com.example.backend.repo.NotificationRepository;
 import com.example.backend.repo.RequisitionRepository;
 import com.example.backend.service.ProcureService;
 import com.example.backend.service.AuthService;
-import com.example.backend.service.EmailService;
+import com.example.backend.service.BulkDecisionService;
+import com.example.backend.service.EmailOutboxService;
+import com.example.backend.service.NotificationService;
+import com.example.backend.service.NotificationStreamService;
+import com.example.backend.service.PaginationService;
+import com.example.backend.service.RequisitionImportService;
+import com.example.backend.dto.BulkDecisionResult;
 import com.example.backend.dto.CreateRequisitionRequest;
+import com.example.backend.dto.RequisitionImportReport;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -27,14 +46,27 @@ public class ProcureController {
     private final RequisitionRepository requisitionRepository;
     private final NotificationRepository notificationRepository;
     private final AuthService authService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final PaginationService paginationService;
+    private final NotificationStreamService notificationStreamService;
+    private final NotificationService notificationService;
+    private final BulkDecisionService bulkDecisionService;
+    private final RequisitionImportService requisitionImportService;
 
-    public ProcureController(ProcureService service, RequisitionRepository requisitionRepository, NotificationRepository notificationRepository, AuthService authService, EmailService emailService) {
+    // Upper bound of requisition.total_amount (NUMERIC(15,2))
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("9999999999999.99");
+
+    public ProcureController(ProcureService service, RequisitionRepository requisitionRepository, NotificationRepository notificationRepository, AuthService authService, EmailOutboxService emailOutboxService, PaginationService paginationService, NotificationStreamService notificationStreamService, NotificationService notificationService, BulkDecisionService bulkDecisionService, RequisitionImportService requisitionImportService) {
         this.service = service;
         this.requisitionRepository = requisitionRepository;
         this.notificationRepository = notificationRepository;
         this.authService = authService;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
+        this.paginationService = paginationService;
+        this.notificationStreamService = notificationStreamService;
+        this.notificationService = notificationService;
+        this.bulkDecisionService = bulkDecisionService;
+        this.requisitionImportService = requisitionImportService;
     }
 
     @PostMapping("/requisitions")
@@ -84,41 +116,44 @@ public class ProcureController {
         }
     }
 
+    // Streaming bulk import: text/csv (one item per row, rows sharing a ref form one requisition) or
+    // application/x-ndjson (one requisition per line). Valid requisitions are imported, invalid rows reported.
+    @PostMapping(value = "/requisitions/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    public Map<String, Object> importRequisitions(@RequestAttribute("username") String username,
+                                                  @RequestAttribute("department") String userDepartment,
+                                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                  InputStream body) {
+        try {
+            RequisitionImportReport report = requisitionImportService.importRequisitions(body,
+                RequisitionImportService.Format.fromContentType(contentType), username, userDepartment);
+            return Map.of("success", true, "imported", report.imported(), "failed", report.failed(),
+                "errors", report.errors(), "errorsTruncated", report.errorsTruncated());
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Requisition import read error: " + e.getMessage());
+            return Map.of("success", false, "message", "Failed to read import: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/requisitions")
     public Map<String, Object> getAllRequisitions(@RequestAttribute("username") String username,
                                                   @RequestAttribute("role") String role,
                                                   @RequestAttribute("department") String department,
-                                                  @RequestAttribute("userId") Long userId) {
+                                                  @RequestAttribute("userId") Long userId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
         System.out.println("DEBUG: Getting all requisitions for user: " + username);
         
         System.out.println("DEBUG: Current user: " + username + ", Role: " + role);
         
-        List<Requisition> requisitions;
-        
-        if (role.equals("SUPERADMIN")) {
-            // SUPERADMIN can see all requisitions
-            requisitions = requisitionRepository.findAll();
-        } else if (role.equals("DEPARTMENT_MANAGER")) {
-            // Department managers can see requisitions from their department only
-            requisitions = requisitionRepository.findByDepartmentOrderByCreatedAtDesc(department, org.springframework.data.domain.Pageable.unpaged()).getContent();
-        } else if (role.equals("IT_MANAGER")) {
-            // IT managers can only see requisitions that have been approved by department manager
-            requisitions = requisitionRepository.findTop10ByStatusInOrderByCreatedAtDesc(
-                Arrays.asList(RequisitionStatus.PENDING_IT_APPROVAL, RequisitionStatus.PENDING_FINANCE_APPROVAL, 
-                             RequisitionStatus.APPROVED, RequisitionStatus.REJECTED)
-            );
-        } else if (role.equals("FINANCE_MANAGER")) {
-            // Finance managers can only see requisitions that have been approved by both department and IT managers
-            requisitions = requisitionRepository.findTop10ByStatusInOrderByCreatedAtDesc(
-                Arrays.asList(RequisitionStatus.PENDING_FINANCE_APPROVAL, RequisitionStatus.APPROVED, RequisitionStatus.REJECTED)
-            );
-        } else {
-            // For employees, show only their own requisitions
-            requisitions = requisitionRepository.findByCreatedByOrderByCreatedAtDesc(username);
+        // Keyset slices, newest first; without a cursor this is the first page of the default size
+        try {
+            Slice<Requisition> slice = service.scrollRequisitionsForRole(role, username, department, cursor, size != null ? size : 0);
+            return paginationService.createCursorResponse("requisitions", slice, service.nextRequisitionCursor(slice));
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
         }
-        
-        System.out.println("DEBUG: Found " + requisitions.size() + " requisitions for role: " + role);
-        return Map.of("success", true, "requisitions", requisitions);
     }
 
     @GetMapping("/requisitions/pending/it")
@@ -180,11 +215,26 @@ public class ProcureController {
     public Map<String, Object> pendingFinance(@RequestAttribute("username") String username,
                                               @RequestAttribute("role") String role,
                                               @RequestAttribute("department") String department,
-                                              @RequestAttribute("userId") Long userId) {
+                                              @RequestAttribute("userId") Long userId,
+                                              @RequestParam(required = false) BigDecimal minAmount,
+                                              @RequestParam(required = false) BigDecimal maxAmount,
+                                              @RequestParam(required = false) String sortBy) {
         if (!role.equals("FINANCE_MANAGER") && !role.equals("SUPERADMIN")) {
             return Map.of("success", false, "message", "Access denied");
         }
-        List<Requisition> requisitions = requisitionRepository.findByStatus(RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        List<Requisition> requisitions;
+        if (minAmount != null || maxAmount != null || sortBy != null) {
+            // Filter and sort on the stored total amount in SQL
+            Sort sort = "amount".equalsIgnoreCase(sortBy)
+                ? Sort.by(Sort.Direction.DESC, "totalAmount").and(Sort.by(Sort.Direction.DESC, "id"))
+                : Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+            requisitions = requisitionRepository.findByStatusAndTotalAmountBetween(RequisitionStatus.PENDING_FINANCE_APPROVAL,
+                minAmount != null ? minAmount : BigDecimal.ZERO,
+                maxAmount != null ? maxAmount : MAX_AMOUNT,
+                sort);
+        } else {
+            requisitions = requisitionRepository.findByStatus(RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        }
         return Map.of("success", true, "requisitions", requisitions);
     }
 
@@ -386,22 +436,114 @@ public class ProcureController {
         }
     }
 
+    // Bulk decisions, body {"ids": [...], "decision": "APPROVE" | "REJECT" | "SEND_BACK", "comments": "..."}.
+    // One transaction per call; requisitions that cannot take the decision are reported per item and left unchanged.
+    @PostMapping("/requisitions/bulk/department-decision")
+    public Map<String, Object> bulkDepartmentDecision(@RequestAttribute("username") String username,
+                                                      @RequestAttribute("role") String role,
+                                                      @RequestBody Map<String, Object> body) {
+        if (!role.equals("DEPARTMENT_MANAGER") && !role.equals("SUPERADMIN")) {
+            return Map.of("success", false, "message", "Access denied");
+        }
+        return bulkDecision("Department", body,
+            (ids, decision, comments) -> bulkDecisionService.departmentDecisions(ids, username, decision, comments));
+    }
+
+    @PostMapping("/requisitions/bulk/it-decision")
+    public Map<String, Object> bulkItDecision(@RequestAttribute("username") String username,
+                                              @RequestAttribute("role") String role,
+                                              @RequestBody Map<String, Object> body) {
+        if (!role.equals("IT_MANAGER") && !role.equals("SUPERADMIN")) {
+            return Map.of("success", false, "message", "Access denied");
+        }
+        return bulkDecision("IT", body,
+            (ids, decision, comments) -> bulkDecisionService.itDecisions(ids, username, decision, comments));
+    }
+
+    @PostMapping("/requisitions/bulk/finance-decision")
+    public Map<String, Object> bulkFinanceDecision(@RequestAttribute("username") String username,
+                                                   @RequestAttribute("role") String role,
+                                                   @RequestBody Map<String, Object> body) {
+        if (!role.equals("FINANCE_MANAGER") && !role.equals("SUPERADMIN")) {
+            return Map.of("success", false, "message", "Access denied");
+        }
+        return bulkDecision("Finance", body,
+            (ids, decision, comments) -> bulkDecisionService.financeDecisions(ids, username, decision, comments));
+    }
+
+    private interface BulkDecision {
+        List<BulkDecisionResult> apply(List<Long> ids, String decision, String comments);
+    }
+
+    private Map<String, Object> bulkDecision(String stage, Map<String, Object> body, BulkDecision bulkDecision) {
+        try {
+            List<Long> ids = new ArrayList<>();
+            if (body.get("ids") instanceof List<?> rawIds) {
+                for (Object id : rawIds) {
+                    ids.add(id instanceof Number n ? n.longValue() : Long.valueOf(String.valueOf(id)));
+                }
+            }
+            Object d = body.get("decision");
+            String decision = d != null ? String.valueOf(d).trim().toUpperCase() : null;
+            if ("APPROVED".equals(decision) || "ACCEPT".equals(decision) || "ACCEPTED".equals(decision)) {
+                decision = "APPROVE";
+            } else if ("REJECTED".equals(decision) || "DECLINE".equals(decision) || "DECLINED".equals(decision)) {
+                decision = "REJECT";
+            }
+            Object c = body.get("comments");
+            String comments = c != null ? String.valueOf(c) : null;
+
+            List<BulkDecisionResult> results = bulkDecision.apply(ids, decision, comments);
+            long succeeded = results.stream().filter(BulkDecisionResult::success).count();
+            return Map.of("success", true, "results", results,
+                "succeeded", succeeded, "failed", results.size() - succeeded);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Bulk " + stage + " decision error: " + e.getMessage());
+            return Map.of("success", false, "message", e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Bulk " + stage + " decision error: " + e.getMessage());
+            e.printStackTrace();
+            return Map.of("success", false, "message", "Failed to process bulk " + stage + " decision: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/notifications")
     public Map<String, Object> unread(@RequestAttribute("username") String username,
                                       @RequestAttribute("role") String role,
                                       @RequestAttribute("department") String department,
-                                      @RequestAttribute("userId") Long userId) {
+                                      @RequestAttribute("userId") Long userId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer size) {
+        // Cursor mode: keyset slices of the user's unread notifications
+        if (cursor != null || size != null) {
+            try {
+                Slice<Notification> slice = paginationService.scroll(notificationRepository,
+                    (root, query, cb) -> cb.and(cb.equal(root.get("userId"), username), cb.isFalse(root.get("isRead"))),
+                    "timestamp", "notificationId", cursor, size != null ? size : 0);
+                return paginationService.createCursorResponse("notifications", slice,
+                    paginationService.nextCursor(slice, Notification::getTimestamp, Notification::getNotificationId));
+            } catch (IllegalArgumentException e) {
+                return Map.of("success", false, "message", e.getMessage());
+            }
+        }
+        
         List<Notification> notifications = notificationRepository.findByUserIdAndIsReadFalse(username);
         System.out.println("DEBUG: Fetching notifications for user: " + username + 
                           ", Found " + notifications.size() + " unread notifications");
         
-        // Also get all notifications for debugging
-        List<Notification> allNotifications = notificationRepository.findByUserIdOrderByTimestampDesc(username);
-        System.out.println("DEBUG: Total notifications for user: " + allNotifications.size());
-        
         return Map.of("success", true, "notifications", notifications);
     }
 
+    // Server-sent events: new notifications as they are created, plus a heartbeat comment.
+    // EventSource cannot set headers, so clients authenticate with the sessionId parameter; reconnects resume
+    // after Last-Event-ID.
+    @GetMapping(value = "/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Notification>> streamNotifications(
+            @RequestAttribute("username") String username,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationStreamService.subscribe(username, lastEventId);
+    }
+
     @DeleteMapping("/notifications/{notificationId}")
     public Map<String, Object> deleteNotification(@PathVariable Long notificationId,
                                                   @RequestAttribute("username") String username,
@@ -420,7 +562,7 @@ public class ProcureController {
             }
             
             // Delete the notification
-            notificationRepository.delete(notification);
+            notificationService.deleteByIds(username, List.of(notificationId));
             
             return Map.of("success", true, "message", "Notification deleted successfully");
             
@@ -431,6 +573,49 @@ public class ProcureController {
         }
     }
 
+    // Badge count, served from the in-memory unread counter
+    @GetMapping("/notifications/unread-count")
+    public Map<String, Object> unreadCount(@RequestAttribute("username") String username) {
+        return Map.of("success", true, "unreadCount", notificationService.getUnreadCount(username));
+    }
+
+    // Marks the given notifications read, or all of the user's notifications when no ids are given
+    @PostMapping("/notifications/read")
+    public Map<String, Object> markNotificationsRead(@RequestAttribute("username") String username,
+                                                     @RequestParam(required = false) List<Long> ids) {
+        try {
+            int updated = ids == null || ids.isEmpty()
+                ? notificationService.markAllRead(username)
+                : notificationService.markRead(username, ids);
+            return Map.of("success", true, "updated", updated, "unreadCount", notificationService.getUnreadCount(username));
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
+        }
+    }
+
+    // Deletes the given notifications; ids of other users' notifications are ignored
+    @DeleteMapping("/notifications")
+    public Map<String, Object> deleteNotifications(@RequestAttribute("username") String username,
+                                                   @RequestParam List<Long> ids) {
+        try {
+            int deleted = notificationService.deleteByIds(username, ids);
+            return Map.of("success", true, "deleted", deleted);
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/notifications/older-than")
+    public Map<String, Object> deleteOldNotifications(@RequestAttribute("username") String username,
+                                                      @RequestParam int days) {
+        try {
+            int deleted = notificationService.deleteOlderThan(username, Duration.ofDays(days));
+            return Map.of("success", true, "deleted", deleted);
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
+        }
+    }
+
     @GetMapping("/budgets")
     public Map<String, Object> budgets() {
         System.out.println("DEBUG: Getting budgets (no auth required)");
@@ -573,7 +758,7 @@ public class ProcureController {
             // Allow deletion of requisitions in any status
             
             // Delete the requisition (items will be deleted automatically due to cascade)
-            requisitionRepository.delete(requisition);
+            service.deleteRequisition(requisition);
             
             System.out.println("DEBUG: Requisition deleted successfully");
             return Map.of("success", true, "message", "Requisition deleted successfully");
@@ -605,21 +790,13 @@ public class ProcureController {
                 return Map.of("success", false, "message", "Requisition not found");
             }
             
-            // Send email - we need to pass the JWT token for the email service
-            // For now, we'll pass the username as sessionId since the email service expects it
-            boolean emailSent = emailService.sendRequisitionEmail(
-                vendorEmail, 
-                vendorName, 
-                requisition, 
-                username
-            );
-            
-            if (emailSent) {
-                return Map.of("success", true, "message", "Requisition inquiry sent to vendor successfully");
-            } else {
-                return Map.of("success", false, "message", "Failed to send email. Please check email configuration.");
-            }
+            // Queue the inquiry; the email outbox sends it and records the delivery status
+            OutboundEmail email = emailOutboxService.enqueue(EmailType.REQUISITION_INQUIRY, id, vendorEmail, vendorName, username);
+            return Map.of("success", true, "message", "Requisition inquiry queued for sending",
+                          "emailId", email.getId(), "status", email.getStatus());
             
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
         } catch (Exception e) {
             System.err.println("Error sending requisition email: " + e.getMessage());
             e.printStackTrace();
@@ -1,14 +1,19 @@
 package com.example.backend.api;
 
+import com.example.backend.model.EmailType;
+import com.example.backend.model.OutboundEmail;
 import com.example.backend.model.PurchaseOrder;
 import com.example.backend.model.POStatus;
 import com.example.backend.model.User;
 import com.example.backend.service.PurchaseOrderService;
 import com.example.backend.service.AuthService;
-import com.example.backend.service.PurchaseOrderPdfService;
-import com.example.backend.service.EmailService;
+import com.example.backend.service.PurchaseOrderDocumentService;
+import com.example.backend.service.EmailOutboxService;
+import com.example.backend.service.PaginationService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +21,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -32,10 +36,13 @@ public class PurchaseOrderController {
     private AuthService authService;
     
     @Autowired
-    private PurchaseOrderPdfService pdfService;
+    private PurchaseOrderDocumentService documentService;
     
     @Autowired
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+    
+    @Autowired
+    private PaginationService paginationService;
     
     @PostMapping("/create")
     public Map<String, Object> createPurchaseOrder(@RequestParam String sessionId,
@@ -91,23 +98,20 @@ public class PurchaseOrderController {
     }
     
     @GetMapping("/list")
-    public Map<String, Object> getAllPurchaseOrders(@RequestParam String sessionId) {
+    public Map<String, Object> getAllPurchaseOrders(@RequestParam String sessionId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
         try {
             User currentUser = authService.getCurrentUser(sessionId);
             if (currentUser == null) {
                 return Map.of("success", false, "message", "Invalid session");
             }
             
-            List<PurchaseOrder> pos;
-            if ("FINANCE_MANAGER".equals(currentUser.getRole().name())) {
-                // Finance Managers see all POs
-                pos = purchaseOrderService.getAllPurchaseOrders();
-            } else {
-                // Other users see only POs from their department
-                pos = purchaseOrderService.getPurchaseOrdersByDepartment(currentUser.getDepartment());
-            }
-            
-            return Map.of("success", true, "pos", pos);
+            // Keyset slices, newest first; without a cursor this is the first page of the default size.
+            // Finance Managers see all POs, other users only their department's
+            String department = "FINANCE_MANAGER".equals(currentUser.getRole().name()) ? null : currentUser.getDepartment();
+            Slice<PurchaseOrder> slice = purchaseOrderService.scrollPurchaseOrders(department, cursor, size != null ? size : 0);
+            return paginationService.createCursorResponse("pos", slice, purchaseOrderService.nextPurchaseOrderCursor(slice));
             
         } catch (Exception e) {
             return Map.of("success", false, "message", "An error occurred: " + e.getMessage());
@@ -221,7 +225,7 @@ public class PurchaseOrderController {
     }
     
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<ByteArrayResource> downloadPurchaseOrderPdf(@PathVariable Long id, @RequestParam String sessionId) {
+    public ResponseEntity<Resource> downloadPurchaseOrderPdf(@PathVariable Long id, @RequestParam String sessionId) {
         try {
             // Check if user has permission (FINANCE_MANAGER or SUPERADMIN)
             User currentUser = authService.getCurrentUser(sessionId);
@@ -235,14 +239,13 @@ public class PurchaseOrderController {
             }
             
             PurchaseOrder po = poOpt.get();
-            byte[] pdfBytes = pdfService.generatePurchaseOrderPdf(po);
-            
-            ByteArrayResource resource = new ByteArrayResource(pdfBytes);
+            // Served from the rendered-document cache; only a changed PO is re-rendered
+            FileSystemResource resource = new FileSystemResource(documentService.getRenderedPdf(po));
             
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"PO_" + po.getPoNumber() + ".pdf\"")
                     .contentType(MediaType.APPLICATION_PDF)
-                    .contentLength(pdfBytes.length)
+                    .contentLength(resource.contentLength())
                     .body(resource);
                     
         } catch (Exception e) {
@@ -270,21 +273,14 @@ public class PurchaseOrderController {
             
             PurchaseOrder po = poOpt.get();
             
-            boolean emailSent = emailService.sendPurchaseOrderEmail(
-                vendorEmail, 
-                po.getVendorName(), 
-                po, 
-                sessionId
-            );
-            
-            if (emailSent) {
-                // Update PO status to SENT_TO_VENDOR
-                purchaseOrderService.updatePOStatus(id, POStatus.SENT_TO_VENDOR);
-                return Map.of("success", true, "message", "Purchase Order sent to vendor successfully");
-            } else {
-                return Map.of("success", false, "message", "Failed to send email. Please check email configuration.");
-            }
+            // Queue the email; the outbox attaches the PDF, sends it and moves the PO to SENT_TO_VENDOR once delivered
+            OutboundEmail email = emailOutboxService.enqueue(EmailType.PURCHASE_ORDER, id, vendorEmail,
+                                                             po.getVendorName(), currentUser.getUsername());
+            return Map.of("success", true, "message", "Purchase Order queued for sending to vendor",
+                          "emailId", email.getId(), "status", email.getStatus());
             
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "message", e.getMessage());
         } catch (Exception e) {
             System.err.println("Error sending email: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,127 @@
+package com.example.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis cache value serializer: Jackson Smile (binary JSON, same type hints as the JSON serializer) with a
+ * one-byte header, deflating payloads at or above a size threshold.
+ *
+ * Header 0 = plain Smile, 1 = deflated Smile. Anything else is read as the previous JSON encoding, so entries
+ * written before a switch still deserialize until they expire.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+
+    private final RedisSerializer<Object> smile;
+    private final RedisSerializer<Object> legacyJson;
+    private final int compressionThreshold; // bytes; negative disables compression
+
+    public CompactRedisSerializer(int compressionThreshold) {
+        this.smile = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(configure(new SmileMapper()))
+                .defaultTyping(true)
+                .build();
+        this.legacyJson = json();
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    // The JSON encoding used so far, with java.time support (cached DTOs carry Instants)
+    public static RedisSerializer<Object> json() {
+        return GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(configure(new ObjectMapper()))
+                .defaultTyping(true)
+                .build();
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] encoded = smile.serialize(value);
+        if (encoded == null) {
+            return null;
+        }
+        if (compressionThreshold >= 0 && encoded.length >= compressionThreshold) {
+            return withHeader(DEFLATED, deflate(encoded));
+        }
+        return withHeader(PLAIN, encoded);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        switch (bytes[0]) {
+            case PLAIN:
+                return smile.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+            case DEFLATED:
+                return smile.deserialize(inflate(bytes));
+            default:
+                return legacyJson.deserialize(bytes);
+        }
+    }
+
+    private static byte[] withHeader(byte header, byte[] payload) {
+        byte[] result = new byte[payload.length + 1];
+        result[0] = header;
+        System.arraycopy(payload, 0, result, 1, payload.length);
+        return result;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Skips the header byte
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, 1, input.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
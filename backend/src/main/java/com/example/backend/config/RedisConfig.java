@@ -1,15 +1,26 @@
 package com.example.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -35,26 +46,88 @@ public class RedisConfig {
         return template;
     }
 
+    @Autowired
+    private Environment environment;
+
+    @Value("${cache.l2.enabled:false}")
+    private boolean remoteCacheEnabled;
+
+    @Value("${cache.l1.ttl-ms:10000}")
+    private long localTtlMillis;
+
+    @Value("${cache.l1.max-size:1000}")
+    private long localMaxSize;
+
+    // Near cache: bounded in-process L1 over Redis L2; L1-only when Redis is disabled
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, StringRedisTemplate stringRedisTemplate,
+                                             MeterRegistry meterRegistry) {
+        CacheManager remote = remoteCacheEnabled ? redisCacheManager(connectionFactory) : null;
+        return new TwoLevelCacheManager(remote, remoteCacheEnabled ? stringRedisTemplate : null, meterRegistry,
+                Duration.ofMillis(localTtlMillis), localMaxSize);
+    }
+
+    // Delivers other nodes' L1 invalidations
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    @ConditionalOnProperty(name = "cache.l2.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10)) // Default TTL of 10 minutes
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer(null)))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        // Prefix evictions (CacheInvalidationService) walk keys with SCAN instead of a blocking KEYS
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000));
+
+        RedisCacheManager manager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
                 .withCacheConfiguration("userRequisitions", 
-                    config.entryTtl(Duration.ofMinutes(5)))
+                    withValueSerializer(config, "userRequisitions").entryTtl(Duration.ofMinutes(5)))
+                .withCacheConfiguration("departmentRequisitions", 
+                    withValueSerializer(config, "departmentRequisitions"))
+                .withCacheConfiguration("statusRequisitions", 
+                    withValueSerializer(config, "statusRequisitions"))
                 .withCacheConfiguration("dashboardStats", 
-                    config.entryTtl(Duration.ofMinutes(2)))
+                    withValueSerializer(config, "dashboardStats").entryTtl(Duration.ofMinutes(2)))
                 .withCacheConfiguration("userPdfs", 
-                    config.entryTtl(Duration.ofMinutes(5)))
+                    withValueSerializer(config, "userPdfs").entryTtl(Duration.ofMinutes(5)))
                 .withCacheConfiguration("budgets", 
-                    config.entryTtl(Duration.ofMinutes(10)))
+                    withValueSerializer(config, "budgets").entryTtl(Duration.ofMinutes(10)))
                 .withCacheConfiguration("departments", 
-                    config.entryTtl(Duration.ofMinutes(30)))
+                    withValueSerializer(config, "departments").entryTtl(Duration.ofMinutes(30)))
                 .build();
+        manager.afterPropertiesSet();
+        return manager;
+    }
+
+    private RedisCacheConfiguration withValueSerializer(RedisCacheConfiguration config, String cacheName) {
+        return config.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer(cacheName)));
+    }
+
+    /**
+     * Value encoding per cache: cache.redis.caches.<name>.serializer (json|smile) and
+     * cache.redis.caches.<name>.compression-threshold override cache.redis.serializer and
+     * cache.redis.compression-threshold (bytes, -1 = never compress).
+     */
+    private RedisSerializer<Object> valueSerializer(String cacheName) {
+        String serializer = environment.getProperty("cache.redis.serializer", "smile");
+        int compressionThreshold = environment.getProperty("cache.redis.compression-threshold", Integer.class, 2048);
+        if (cacheName != null) {
+            serializer = environment.getProperty("cache.redis.caches." + cacheName + ".serializer", serializer);
+            compressionThreshold = environment.getProperty("cache.redis.caches." + cacheName + ".compression-threshold",
+                    Integer.class, compressionThreshold);
+        }
+        return "json".equalsIgnoreCase(serializer)
+                ? CompactRedisSerializer.json()
+                : new CompactRedisSerializer(compressionThreshold);
     }
 }
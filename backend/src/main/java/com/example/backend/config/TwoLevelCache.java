@@ -0,0 +1,171 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * One named cache with an in-process L1 (Caffeine) in front of a shared L2 (Redis).
+ *
+ * Reads try L1 first and fill it from L2 on an L1 miss. Writes and evictions go to both tiers and are
+ * broadcast so other nodes drop their L1 copy. L1 holds the cached instance itself, so callers must not
+ * mutate values they get from a cache. Keys are compared by their string form, as Redis does.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote; // null when L2 is disabled
+    private final TwoLevelCacheManager manager;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteInvalidations;
+
+    TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote,
+                  TwoLevelCacheManager manager, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+        this.remoteHits = Counter.builder("cache.l2.gets").tag("cache", name).tag("result", "hit").register(meterRegistry);
+        this.remoteMisses = Counter.builder("cache.l2.gets").tag("cache", name).tag("result", "miss").register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("cache.l1.remote.invalidations").tag("cache", name).register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = String.valueOf(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        if (remote == null) {
+            return null;
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            local.put(localKey, wrapper.get());
+            return wrapper;
+        }
+        remoteMisses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // Null results are not cached in either tier
+        if (value == null) {
+            return;
+        }
+        if (remote != null) {
+            remote.put(key, value);
+        }
+        local.put(String.valueOf(key), value);
+        manager.publish(name, TwoLevelCacheManager.EVICT, String.valueOf(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (remote != null) {
+            remote.evict(key);
+        }
+        local.invalidate(String.valueOf(key));
+        manager.publish(name, TwoLevelCacheManager.EVICT, String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        if (remote != null) {
+            remote.clear();
+        }
+        local.invalidateAll();
+        manager.publish(name, TwoLevelCacheManager.CLEAR, "");
+    }
+
+    // Drop every entry whose key starts with the prefix, in both tiers and on every node
+    public void evictByPrefix(String prefix) {
+        if (remote instanceof RedisCache redisCache) {
+            String pattern = redisCache.getCacheConfiguration().getKeyPrefixFor(name) + escapeGlob(prefix) + "*";
+            redisCache.getNativeCache().clean(name, pattern.getBytes(StandardCharsets.UTF_8));
+        } else if (remote != null) {
+            remote.clear();
+        }
+        evictLocalByPrefix(prefix);
+        manager.publish(name, TwoLevelCacheManager.EVICT_PREFIX, prefix);
+    }
+
+    // Invalidation broadcast by another node: only the local tier is stale here
+    void applyRemoteInvalidation(String operation, String key) {
+        remoteInvalidations.increment();
+        switch (operation) {
+            case TwoLevelCacheManager.EVICT:
+                local.invalidate(key);
+                break;
+            case TwoLevelCacheManager.EVICT_PREFIX:
+                evictLocalByPrefix(key);
+                break;
+            default:
+                local.invalidateAll();
+        }
+    }
+
+    private void evictLocalByPrefix(String prefix) {
+        local.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String escapeGlob(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
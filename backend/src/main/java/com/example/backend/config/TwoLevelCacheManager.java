@@ -0,0 +1,99 @@
+package com.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager that layers a bounded, short-lived Caffeine cache over the Redis cache of the same name.
+ * L1 invalidations are broadcast on a Redis pub/sub channel; each node ignores its own messages.
+ * Without Redis (l2 disabled) it degrades to an L1-only cache.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:l1-invalidation";
+
+    static final String EVICT = "EVICT";
+    static final String EVICT_PREFIX = "EVICT_PREFIX";
+    static final String CLEAR = "CLEAR";
+
+    private static final String SEPARATOR = "\n";
+
+    private final CacheManager remoteCacheManager; // null when L2 is disabled
+    private final StringRedisTemplate redisTemplate; // null when L2 is disabled
+    private final MeterRegistry meterRegistry;
+    private final Duration localTtl;
+    private final long localMaxSize;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry, Duration localTtl, long localMaxSize) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.localTtl = localTtl;
+        this.localMaxSize = localMaxSize;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .expireAfterWrite(localTtl)
+            .maximumSize(localMaxSize)
+            .recordStats()
+            .build();
+        // Hit/miss/eviction/size per cache name, tagged as the in-process tier
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, Tags.of("tier", "l1"));
+        Cache remote = remoteCacheManager != null ? remoteCacheManager.getCache(name) : null;
+        return new TwoLevelCache(name, local, remote, this, meterRegistry);
+    }
+
+    void publish(String cacheName, String operation, String key) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join(SEPARATOR, nodeId, cacheName, operation, key));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to their short L1 TTL
+            System.err.println("Failed to publish cache invalidation for " + cacheName + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.applyRemoteInvalidation(parts[2], parts[3]);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.RequisitionStatus;
+
+// Outcome of one requisition in a bulk approval call; status is the status after the call
+public record BulkDecisionResult(
+        Long requisitionId,
+        boolean success,
+        RequisitionStatus status,
+        String message) {
+
+    public static BulkDecisionResult succeeded(Long requisitionId, RequisitionStatus status) {
+        return new BulkDecisionResult(requisitionId, true, status, null);
+    }
+
+    public static BulkDecisionResult failed(Long requisitionId, RequisitionStatus status, String message) {
+        return new BulkDecisionResult(requisitionId, false, status, message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializable page snapshot for cache values. PageImpl has no default constructor and drags its Pageable and
+ * Sort along, so cached list methods store this instead and callers rebuild a Page with toPage() if they need one.
+ */
+public record CachedPage<T>(List<T> content, int number, int size, long totalElements) {
+
+    // Plain ArrayList: typed cache serializers cannot recreate the JDK's immutable list classes
+    public static <T> CachedPage<T> of(Page<T> page) {
+        return new CachedPage<>(new ArrayList<>(page.getContent()), page.getNumber(), page.getSize(), page.getTotalElements());
+    }
+
+    public int totalPages() {
+        return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+
+    public Page<T> toPage() {
+        return new PageImpl<>(content, PageRequest.of(number, Math.max(size, 1)), totalElements);
+    }
+}
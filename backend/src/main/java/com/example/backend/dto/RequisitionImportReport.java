@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+// Outcome of a bulk requisition import: counts of requisitions and the rows that kept one from being imported.
+// errors stops growing at the configured limit; errorsTruncated tells the caller there were more.
+public record RequisitionImportReport(
+        int imported,
+        int failed,
+        List<RowError> errors,
+        boolean errorsTruncated) {
+
+    // line is the 1-based line of the input (the CSV header is line 1); ref is the row's requisition reference, if any
+    public record RowError(long line, String ref, String message) {
+    }
+}
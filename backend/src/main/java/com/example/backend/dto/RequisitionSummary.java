@@ -0,0 +1,29 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.RequisitionStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Lightweight list-view row for a requisition: header fields plus the stored item totals, no items.
+// Immutable and detached from the persistence context, so cached pages never hold managed entities.
+public record RequisitionSummary(
+        Long id,
+        String itemName,
+        String createdBy,
+        String department,
+        RequisitionStatus status,
+        String approvedByIt,
+        String approvedByFinance,
+        Instant createdAt,
+        BigDecimal totalAmount,
+        Integer totalQuantity,
+        Integer itemCount) {
+
+    // Used by JPQL constructor expressions; rows written before the totals columns existed may hold nulls
+    public RequisitionSummary {
+        totalAmount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+        totalQuantity = totalQuantity != null ? totalQuantity : 0;
+        itemCount = itemCount != null ? itemCount : 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import java.time.Instant;
+
+// Lightweight list-view row for a vendor PDF; leaves out the server-side file path
+public record VendorPdfSummary(
+        Long id,
+        String fileName,
+        String originalFileName,
+        String uploadedBy,
+        String description,
+        Long requisitionId,
+        Instant uploadedAt,
+        boolean processed,
+        boolean rejected,
+        String rejectionReason,
+        String approvalStage,
+        String department) {
+}
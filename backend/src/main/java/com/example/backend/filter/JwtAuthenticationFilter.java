@@ -1,6 +1,7 @@
 package com.example.backend.filter;
 
 import com.example.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -48,12 +49,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         try {
-            if (jwtUtil.validateToken(token)) {
+            // Verify the token once and read every claim from the same parsed result
+            Claims claims = jwtUtil.getValidClaims(token);
+            if (claims != null) {
                 // Add user information to request attributes for use in controllers
-                request.setAttribute("username", jwtUtil.extractUsername(token));
-                request.setAttribute("role", jwtUtil.extractRole(token));
-                request.setAttribute("department", jwtUtil.extractDepartment(token));
-                request.setAttribute("userId", jwtUtil.extractUserId(token));
+                request.setAttribute("username", claims.getSubject());
+                request.setAttribute("role", claims.get("role", String.class));
+                request.setAttribute("department", claims.get("department", String.class));
+                request.setAttribute("userId", claims.get("userId", Long.class));
                 
                 filterChain.doFilter(request, response);
             } else {
@@ -78,7 +81,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                path.startsWith("/api/auth/update-user-status") ||
                path.startsWith("/api/admin/") ||
                path.startsWith("/api/budgets") ||
-               path.startsWith("/api/notifications") ||
                path.startsWith("/api/users") ||
                path.startsWith("/api/departments") ||
                path.startsWith("/api/dashboard") ||
@@ -0,0 +1,7 @@
+package com.example.backend.model;
+
+public enum BudgetReservationStatus {
+    HELD,       // Amount deducted from remaining budget, decision not final yet
+    COMMITTED,  // Spend confirmed (requisition approved by Finance)
+    RELEASED    // Hold cancelled, amount returned to remaining budget
+}
@@ -0,0 +1,7 @@
+package com.example.backend.model;
+
+public enum EmailStatus {
+    PENDING,  // Waiting for its first or next delivery attempt
+    SENT,     // Accepted by the SMTP server
+    FAILED    // Gave up after the configured number of attempts
+}
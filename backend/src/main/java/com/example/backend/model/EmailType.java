@@ -0,0 +1,7 @@
+package com.example.backend.model;
+
+// What an outbox email is about; referenceId on the email points at the matching entity
+public enum EmailType {
+    PURCHASE_ORDER,       // Purchase order to vendor, PDF attached
+    REQUISITION_INQUIRY   // Quotation request to vendor for a requisition
+}
@@ -1,5 +1,6 @@
 package com.example.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.Instant;
 
@@ -18,14 +19,38 @@ public class Notification {
 
     private Instant timestamp = Instant.now();
 
+    // Structured de-duplication key (event type + entity id + recipient), unique when present
+    @Column(unique = true)
+    private String dedupKey;
+
+    // Outbox-dispatched notifications carry a template and its arguments instead of a message
+    @Column(length = 64)
+    private String eventType;
+
+    @Column(length = 1000)
+    private String eventArgs;
+
     public Long getNotificationId() { return notificationId; }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
-    public String getMessage() { return message; }
+    // Rendered on read for template-based notifications
+    public String getMessage() {
+        return message != null || eventType == null ? message : NotificationTemplate.render(eventType, eventArgs);
+    }
     public void setMessage(String message) { this.message = message; }
     public boolean isRead() { return isRead; }
     public void setRead(boolean read) { isRead = read; }
     public Instant getTimestamp() { return timestamp; }
+    public String getDedupKey() { return dedupKey; }
+    public void setDedupKey(String dedupKey) { this.dedupKey = dedupKey; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    @JsonIgnore
+    public String getEventArgs() { return eventArgs; }
+    public void setEventArgs(String eventArgs) { this.eventArgs = eventArgs; }
+
+    // Helper method to build the de-duplication key for an event delivered to a recipient
+    public static String dedupKey(String eventType, Object entityId, String recipient) {
+        return eventType + ":" + entityId + ":" + recipient;
+    }
 }
-
-
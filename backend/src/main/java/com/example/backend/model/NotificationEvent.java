@@ -0,0 +1,64 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Outbox row for a requisition workflow event. Appended inside the approval transaction; the notification
+ * dispatcher fans it out to the recipients' notifications and stamps dispatchedAt.
+ */
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventType; // NotificationTemplate name of the requester's notification
+
+    private Long requisitionId;
+
+    @Column(nullable = false)
+    private String requester; // Requisition creator
+
+    @Column(length = 1000)
+    private String args; // Template arguments as a JSON object
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    private Instant dispatchedAt; // Null while pending
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public NotificationEvent() {}
+
+    public NotificationEvent(NotificationTemplate eventType, Long requisitionId, String requester, String args) {
+        this.eventType = eventType.name();
+        this.requisitionId = requisitionId;
+        this.requester = requester;
+        this.args = args;
+    }
+
+    public Long getId() { return id; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    public Long getRequisitionId() { return requisitionId; }
+    public void setRequisitionId(Long requisitionId) { this.requisitionId = requisitionId; }
+    public String getRequester() { return requester; }
+    public void setRequester(String requester) { this.requester = requester; }
+    public String getArgs() { return args; }
+    public void setArgs(String args) { this.args = args; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getDispatchedAt() { return dispatchedAt; }
+    public void setDispatchedAt(Instant dispatchedAt) { this.dispatchedAt = dispatchedAt; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+/**
+ * Notification texts for requisition workflow events. Notifications written by the outbox dispatcher store only
+ * the template name and its arguments; the message is rendered when the notification is read.
+ */
+public enum NotificationTemplate {
+    // Manager notifications
+    IT_APPROVAL_NEEDED("PR #{requisitionId} from {createdBy} ({department}) for {items} has been approved by Department and needs IT approval"),
+    FINANCE_APPROVAL_NEEDED("PR #{requisitionId} from {createdBy} for {items} has been approved by IT and needs Finance approval"),
+    REQUISITIONS_IMPORTED("{count} new PRs imported by {createdBy} ({departments}), total ₹{amount}, need Department approval"),
+
+    // Requester notifications, one per decision
+    DEPARTMENT_APPROVED("Your PR #{requisitionId} for {items} has been approved by Department and sent to IT"),
+    DEPARTMENT_REJECTED("Your PR #{requisitionId} for {items} has been rejected by Department Manager"),
+    IT_APPROVED("Your PR #{requisitionId} for {items} has been approved by IT and sent to Finance"),
+    IT_REJECTED("Your PR #{requisitionId} for {items} has been rejected by IT Manager"),
+    IT_SENT_BACK("Your PR #{requisitionId} for {items} has been sent back by IT Manager for modifications"),
+    FINANCE_APPROVED("Your request for {items} (₹{amount}) has been approved by Finance. Remaining {department} Budget: ₹{remainingBudget}"),
+    FINANCE_REJECTED("Your PR #{requisitionId} for {items} has been rejected by Finance Manager"),
+    FINANCE_SENT_BACK("Your PR #{requisitionId} for {items} has been sent back by Finance Manager for modifications");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> ARGS_TYPE = new TypeReference<>() {};
+
+    private final String pattern;
+
+    NotificationTemplate(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public String render(Map<String, String> args) {
+        String message = pattern;
+        for (Map.Entry<String, String> arg : args.entrySet()) {
+            message = message.replace("{" + arg.getKey() + "}", arg.getValue() != null ? arg.getValue() : "");
+        }
+        return message;
+    }
+
+    // Renders a stored notification; unknown templates (e.g. after a rename) fall back to the raw name
+    public static String render(String templateName, String argsJson) {
+        try {
+            return valueOf(templateName).render(parseArgs(argsJson));
+        } catch (IllegalArgumentException e) {
+            return templateName;
+        }
+    }
+
+    public static String writeArgs(Map<String, String> args) {
+        try {
+            return MAPPER.writeValueAsString(args);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable notification arguments", e);
+        }
+    }
+
+    public static Map<String, String> parseArgs(String argsJson) {
+        if (argsJson == null || argsJson.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return MAPPER.readValue(argsJson, ARGS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Corrupt notification arguments", e);
+        }
+    }
+}
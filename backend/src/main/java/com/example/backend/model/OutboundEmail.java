@@ -0,0 +1,78 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Outbox row for a vendor email. Stores what to send, not the rendered message: the email worker composes it
+ * (including any PDF) when it delivers, so queuing an email is a single insert.
+ */
+@Entity
+@Table(name = "email_outbox")
+public class OutboundEmail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private EmailType emailType;
+
+    @Column(nullable = false)
+    private Long referenceId;
+
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
+    private String vendorName;
+
+    @Column(nullable = false)
+    private String requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailStatus status = EmailStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // Due time of the next attempt; while an attempt runs, the end of its lease
+    @Column(nullable = false)
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    private Instant sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OutboundEmail() {}
+
+    public OutboundEmail(EmailType emailType, Long referenceId, String recipient, String vendorName, String requestedBy) {
+        this.emailType = emailType;
+        this.referenceId = referenceId;
+        this.recipient = recipient;
+        this.vendorName = vendorName;
+        this.requestedBy = requestedBy;
+    }
+
+    public Long getId() { return id; }
+    public EmailType getEmailType() { return emailType; }
+    public Long getReferenceId() { return referenceId; }
+    public String getRecipient() { return recipient; }
+    public String getVendorName() { return vendorName; }
+    public String getRequestedBy() { return requestedBy; }
+    public EmailStatus getStatus() { return status; }
+    public void setStatus(EmailStatus status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getSentAt() { return sentAt; }
+    public void setSentAt(Instant sentAt) { this.sentAt = sentAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
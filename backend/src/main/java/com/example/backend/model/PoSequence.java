@@ -0,0 +1,18 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "po_sequence")
+public class PoSequence {
+    @Id
+    private String periodKey; // YYYY-MM, one counter per month
+
+    @Column(nullable = false)
+    private Long nextValue; // Next sequence number not yet handed out to any node
+
+    public String getPeriodKey() { return periodKey; }
+    public void setPeriodKey(String periodKey) { this.periodKey = periodKey; }
+    public Long getNextValue() { return nextValue; }
+    public void setNextValue(Long nextValue) { this.nextValue = nextValue; }
+}
@@ -2,12 +2,15 @@ package com.example.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = "Requisition.summary")
+@NamedEntityGraph(name = "Requisition.detail", attributeNodes = @NamedAttributeNode("items"))
 public class Requisition {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,10 +32,21 @@ public class Requisition {
 
     private Instant createdAt = Instant.now();
 
-    // New field for multiple items
-    @OneToMany(mappedBy = "requisition", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    // New field for multiple items; loaded on demand (detail graph), batched when touched from list views
+    @OneToMany(mappedBy = "requisition", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<RequisitionItem> items = new ArrayList<>();
 
+    // Item totals stored on the row, kept in step with items on every write so reads never load items
+    @Column(precision = 15, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private Integer totalQuantity = 0;
+    private Integer itemCount = 0;
+    @Column(length = ITEMS_SUMMARY_LENGTH)
+    private String itemsSummary = "";
+
+    private static final int ITEMS_SUMMARY_LENGTH = 1000;
+
     public Long getId() { return id; }
     public String getItemName() { return itemName; }
     public void setItemName(String itemName) { this.itemName = itemName; }
@@ -54,38 +68,133 @@ public class Requisition {
 
     // Items management
     public List<RequisitionItem> getItems() { return items; }
-    public void setItems(List<RequisitionItem> items) { this.items = items; }
+    public void setItems(List<RequisitionItem> items) {
+        this.items = items;
+        recalculateTotals();
+    }
 
     public void addItem(RequisitionItem item) {
         items.add(item);
         item.setRequisition(this);
+        if (getItemCount() == 0) {
+            // First item replaces the legacy price x quantity totals
+            totalAmount = BigDecimal.ZERO;
+            totalQuantity = 0;
+            itemsSummary = "";
+        }
+        // Incremental: one add per item instead of re-summing the whole list
+        totalAmount = getTotalAmount().add(item.getLineTotal());
+        totalQuantity = getTotalQuantity() + item.getQuantity();
+        itemCount = getItemCount() + 1;
+        itemsSummary = appendToSummary(getItemNames(), item.getItemName());
     }
 
     public void removeItem(RequisitionItem item) {
         items.remove(item);
         item.setRequisition(null);
+        recalculateTotals();
+    }
+
+    public void clearItems() {
+        items.clear();
+        recalculateTotals();
+    }
+
+    // Single linear pass over the items; used when items are removed or replaced wholesale
+    public void recalculateTotals() {
+        if (items.isEmpty()) {
+            recalculateLegacyTotals();
+            return;
+        }
+        BigDecimal amount = BigDecimal.ZERO;
+        int quantity = 0;
+        StringBuilder summary = new StringBuilder();
+        for (RequisitionItem item : items) {
+            amount = amount.add(item.getLineTotal());
+            quantity += item.getQuantity();
+            if (summary.length() < ITEMS_SUMMARY_LENGTH) {
+                if (summary.length() > 0) summary.append(", ");
+                summary.append(item.getItemName());
+            }
+        }
+        totalAmount = amount;
+        totalQuantity = quantity;
+        itemCount = items.size();
+        itemsSummary = truncateSummary(summary.toString());
+    }
+
+    // Items that were loaded may have been edited in place; re-derive before writing. Only loads the items
+    // of a row whose stored totals are missing.
+    @PrePersist
+    @PreUpdate
+    void syncTotals() {
+        if (org.hibernate.Hibernate.isInitialized(items)) {
+            recalculateTotals();
+        } else if (itemCount == null) {
+            resolveMissingTotals();
+        } else if (itemCount == 0) {
+            recalculateLegacyTotals();
+        }
+    }
+
+    // Legacy single-item requisition: no items, charged its own price x quantity. A row whose totals are missing
+    // (written before the columns existed, or by an older instance) is legacy only when it carries a price.
+    @JsonIgnore
+    public boolean isLegacySingleItem() {
+        return itemCount != null ? itemCount == 0 : price != null;
     }
 
-    // Helper method to calculate total amount
+    // NULL totals mean "unknown", not "no items": derive them once, from the items unless the row is legacy
+    private void resolveMissingTotals() {
+        if (itemCount != null) {
+            return;
+        }
+        if (price != null) {
+            recalculateLegacyTotals();
+        } else {
+            recalculateTotals();
+        }
+    }
+
+    // Legacy single-item requisition: the stored totals are its own price x quantity, so amount filters see it
+    private void recalculateLegacyTotals() {
+        totalAmount = price != null && quantity != null ? price.multiply(BigDecimal.valueOf(quantity)) : BigDecimal.ZERO;
+        totalQuantity = quantity != null ? quantity : 0;
+        itemCount = 0;
+        itemsSummary = "";
+    }
+
+    private static String appendToSummary(String summary, String itemName) {
+        if (summary.length() >= ITEMS_SUMMARY_LENGTH) {
+            return summary;
+        }
+        return truncateSummary(summary.isEmpty() ? itemName : summary + ", " + itemName);
+    }
+
+    private static String truncateSummary(String summary) {
+        return summary.length() <= ITEMS_SUMMARY_LENGTH ? summary : summary.substring(0, ITEMS_SUMMARY_LENGTH - 3) + "...";
+    }
+
+    // Stored item totals; missing ones are derived on first read
     public BigDecimal getTotalAmount() {
-        return items.stream()
-                .map(RequisitionItem::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        resolveMissingTotals();
+        return totalAmount != null ? totalAmount : BigDecimal.ZERO;
     }
 
-    // Helper method to get total quantity
     public Integer getTotalQuantity() {
-        return items.stream()
-                .mapToInt(RequisitionItem::getQuantity)
-                .sum();
+        resolveMissingTotals();
+        return totalQuantity != null ? totalQuantity : 0;
+    }
+
+    public Integer getItemCount() {
+        resolveMissingTotals();
+        return itemCount;
     }
 
-    // Helper method to get item names as comma-separated string (for backward compatibility)
+    // Item names as comma-separated string (for backward compatibility), truncated for very long lists
     public String getItemNames() {
-        return items.stream()
-                .map(RequisitionItem::getItemName)
-                .reduce((a, b) -> a + ", " + b)
-                .orElse("");
+        resolveMissingTotals();
+        return itemsSummary != null ? itemsSummary : "";
     }
 }
 
@@ -0,0 +1,43 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "status_counter")
+public class StatusCounter {
+    @Id
+    private String counterKey; // scope|department|bucket, e.g. REQUISITION|IT|PENDING_IT_APPROVAL
+
+    @Column(nullable = false)
+    private String scope; // REQUISITION (bucket = status) or VENDOR_PDF (bucket = approval stage)
+
+    @Column(nullable = false)
+    private String department; // Empty string when the row has no department
+
+    @Column(nullable = false)
+    private String bucket;
+
+    @Column(name = "counter_value", nullable = false)
+    private Long value = 0L;
+
+    public StatusCounter() {}
+
+    public StatusCounter(String counterKey, String scope, String department, String bucket, Long value) {
+        this.counterKey = counterKey;
+        this.scope = scope;
+        this.department = department;
+        this.bucket = bucket;
+        this.value = value;
+    }
+
+    public String getCounterKey() { return counterKey; }
+    public void setCounterKey(String counterKey) { this.counterKey = counterKey; }
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+    public String getBucket() { return bucket; }
+    public void setBucket(String bucket) { this.bucket = bucket; }
+    public Long getValue() { return value; }
+    public void setValue(Long value) { this.value = value; }
+}
@@ -2,9 +2,28 @@ package com.example.backend.repo;
 
 import com.example.backend.model.Budget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     Optional<Budget> findByDepartment(String department);
+
+    // Read the current remaining budget straight from the database
+    @Query("SELECT b.remainingBudget FROM Budget b WHERE b.department = :department")
+    Optional<BigDecimal> findRemainingBudgetByDepartment(@Param("department") String department);
+
+    // Conditional atomic decrement: updates 0 rows when the budget is missing or insufficient
+    @Modifying
+    @Query("UPDATE Budget b SET b.remainingBudget = b.remainingBudget - :amount " +
+           "WHERE b.department = :department AND b.remainingBudget >= :amount")
+    int deductIfAvailable(@Param("department") String department, @Param("amount") BigDecimal amount);
+
+    // Atomic increment used when a held reservation is released
+    @Modifying
+    @Query("UPDATE Budget b SET b.remainingBudget = b.remainingBudget + :amount WHERE b.department = :department")
+    int restore(@Param("department") String department, @Param("amount") BigDecimal amount);
 }
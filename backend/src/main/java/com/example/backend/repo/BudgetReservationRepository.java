@@ -0,0 +1,24 @@
+package com.example.backend.repo;
+
+import com.example.backend.model.BudgetReservation;
+import com.example.backend.model.BudgetReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BudgetReservationRepository extends JpaRepository<BudgetReservation, Long> {
+    List<BudgetReservation> findByRequisitionId(Long requisitionId);
+    List<BudgetReservation> findByDepartmentAndStatus(String department, BudgetReservationStatus status);
+
+    // Compare-and-set status change: updates 0 rows if another transaction got there first
+    @Modifying
+    @Query("UPDATE BudgetReservation r SET r.status = :to, r.updatedAt = :now WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") BudgetReservationStatus from,
+                   @Param("to") BudgetReservationStatus to,
+                   @Param("now") Instant now);
+}
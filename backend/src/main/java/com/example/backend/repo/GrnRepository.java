@@ -1,12 +1,23 @@
 package com.example.backend.repo;
 
 import com.example.backend.model.Grn;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface GrnRepository extends JpaRepository<Grn, Long> {
+public interface GrnRepository extends JpaRepository<Grn, Long>, JpaSpecificationExecutor<Grn> {
     List<Grn> findByPurchaseOrderId(Long purchaseOrderId);
+
+    // Loading profiles: "detail" fetches received items in the same query (GRN PDF, detail views)
+    @EntityGraph("Grn.detail")
+    Optional<Grn> findWithItemsById(Long id);
+
+    // History lists render the received items, so fetch them with the header rows
+    @EntityGraph("Grn.detail")
+    List<Grn> findWithItemsByPurchaseOrderId(Long purchaseOrderId);
 }
 
 
@@ -0,0 +1,32 @@
+package com.example.backend.repo;
+
+import com.example.backend.model.NotificationEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long> {
+
+    // Oldest pending events, locked; rows another node is dispatching are skipped (lock timeout -2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM NotificationEvent e WHERE e.dispatchedAt IS NULL AND e.attempts < :maxAttempts ORDER BY e.id")
+    List<NotificationEvent> lockPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE NotificationEvent e SET e.dispatchedAt = :dispatchedAt WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") List<Long> ids, @Param("dispatchedAt") Instant dispatchedAt);
+
+    @Modifying
+    @Query("UPDATE NotificationEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+}
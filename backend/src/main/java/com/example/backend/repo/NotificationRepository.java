@@ -2,10 +2,61 @@ package com.example.backend.repo;
 
 import com.example.backend.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, JpaSpecificationExecutor<Notification> {
     List<Notification> findByUserIdAndIsReadFalse(String userId);
     List<Notification> findByUserIdOrderByTimestampDesc(String userId);
+
+    // Notification stream: newest id at connect time, then everything after the last id pushed
+    Optional<Notification> findTopByUserIdOrderByNotificationIdDesc(String userId);
+    List<Notification> findByUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(String userId, Long notificationId);
+
+    long countByUserIdAndIsReadFalse(String userId);
+
+    // Set-based bulk operations, always scoped to the owner
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") String userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false AND n.notificationId IN :ids")
+    int markRead(@Param("userId") String userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.userId = :userId AND n.notificationId IN :ids")
+    int deleteByIds(@Param("userId") String userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.userId = :userId AND n.timestamp < :before")
+    int deleteOlderThan(@Param("userId") String userId, @Param("before") Instant before);
+
+    // De-duplication lookups (served by the unique index on dedup_key)
+    boolean existsByDedupKey(String dedupKey);
+
+    // Idempotent insert: a row whose dedup_key already exists is silently skipped
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification (user_id, message, is_read, timestamp, dedup_key) " +
+                   "VALUES (:userId, :message, false, :timestamp, :dedupKey) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") String userId,
+                       @Param("message") String message,
+                       @Param("timestamp") Instant timestamp,
+                       @Param("dedupKey") String dedupKey);
+
+    // Returns true when the notification was inserted, false when its dedup key was already taken
+    default boolean insertIfAbsent(Notification notification) {
+        return insertIfAbsent(notification.getUserId(), notification.getMessage(),
+                              notification.getTimestamp(), notification.getDedupKey()) > 0;
+    }
 }
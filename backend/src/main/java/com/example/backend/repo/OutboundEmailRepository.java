@@ -0,0 +1,42 @@
+package com.example.backend.repo;
+
+import com.example.backend.model.EmailStatus;
+import com.example.backend.model.EmailType;
+import com.example.backend.model.OutboundEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // Pending emails that are due, oldest first, locked; rows another node is claiming are skipped (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboundEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<OutboundEmail> lockDue(@Param("status") EmailStatus status, @Param("now") Instant now, Pageable pageable);
+
+    List<OutboundEmail> findByEmailTypeAndReferenceIdOrderByIdDesc(EmailType emailType, Long referenceId);
+
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.example.backend.model.EmailStatus.SENT, e.sentAt = :sentAt, e.lastError = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("status") EmailStatus status,
+                      @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    // The claim counted an attempt that never reached SMTP; give it back so delivery keeps all of its attempts
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.attempts = e.attempts - 1, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error WHERE e.id = :id")
+    int recordComposeFailure(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+}
@@ -0,0 +1,26 @@
+package com.example.backend.repo;
+
+import com.example.backend.model.PoSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface PoSequenceRepository extends JpaRepository<PoSequence, String> {
+
+    // Claim a block of numbers: the row lock is held only until the calling transaction commits
+    @Modifying
+    @Query("UPDATE PoSequence s SET s.nextValue = s.nextValue + :blockSize WHERE s.periodKey = :periodKey")
+    int advance(@Param("periodKey") String periodKey, @Param("blockSize") long blockSize);
+
+    @Query("SELECT s.nextValue FROM PoSequence s WHERE s.periodKey = :periodKey")
+    Optional<Long> findNextValue(@Param("periodKey") String periodKey);
+
+    // Create the counter for a new month; a concurrent node creating it first is not an error
+    @Modifying
+    @Query(value = "INSERT INTO po_sequence (period_key, next_value) VALUES (:periodKey, :startValue) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("periodKey") String periodKey, @Param("startValue") long startValue);
+}
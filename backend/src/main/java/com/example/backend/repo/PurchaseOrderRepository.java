@@ -3,16 +3,22 @@ package com.example.backend.repo;
 import com.example.backend.model.PurchaseOrder;
 import com.example.backend.model.POStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
+public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long>, JpaSpecificationExecutor<PurchaseOrder> {
     List<PurchaseOrder> findByCreatedByOrderByCreatedAtDesc(String createdBy);
-    List<PurchaseOrder> findAllByOrderByCreatedAtDesc();
     List<PurchaseOrder> findByStatusOrderByCreatedAtDesc(POStatus status);
     List<PurchaseOrder> findByDepartmentOrderByCreatedAtDesc(String department);
     Optional<PurchaseOrder> findByPoNumber(String poNumber);
+    
+    // PO numbers issued with a given prefix (used once per month to seed the PO sequence)
+    @Query("SELECT p.poNumber FROM PurchaseOrder p WHERE p.poNumber LIKE CONCAT(:prefix, '%')")
+    List<String> findPoNumbersStartingWith(@Param("prefix") String prefix);
 }
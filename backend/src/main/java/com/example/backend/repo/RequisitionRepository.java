@@ -1,17 +1,87 @@
 package com.example.backend.repo;
 
+import com.example.backend.dto.RequisitionSummary;
 import com.example.backend.model.Requisition;
 import com.example.backend.model.RequisitionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface RequisitionRepository extends JpaRepository<Requisition, Long> {
+public interface RequisitionRepository extends JpaRepository<Requisition, Long>, JpaSpecificationExecutor<Requisition> {
+    
+    // Row-locked read for decisions that must not run twice concurrently on the same requisition
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Requisition r WHERE r.id = :id")
+    Optional<Requisition> findByIdForUpdate(@Param("id") Long id);
+    
+    // Bulk decisions: rows locked in id order so overlapping batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Requisition r WHERE r.id IN :ids ORDER BY r.id")
+    List<Requisition> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Set-based status transitions; the status guard makes each one a no-op for rows already moved on
+    @Modifying
+    @Query("UPDATE Requisition r SET r.status = :to WHERE r.id IN :ids AND r.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("from") RequisitionStatus from, @Param("to") RequisitionStatus to);
+    
+    @Modifying
+    @Query("UPDATE Requisition r SET r.status = :to, r.approvedByIt = :approver WHERE r.id IN :ids AND r.status = :from")
+    int transitionStatusApprovedByIt(@Param("ids") Collection<Long> ids, @Param("from") RequisitionStatus from,
+                                     @Param("to") RequisitionStatus to, @Param("approver") String approver);
+    
+    @Modifying
+    @Query("UPDATE Requisition r SET r.status = :to, r.approvedByFinance = :approver WHERE r.id IN :ids AND r.status = :from")
+    int transitionStatusApprovedByFinance(@Param("ids") Collection<Long> ids, @Param("from") RequisitionStatus from,
+                                          @Param("to") RequisitionStatus to, @Param("approver") String approver);
+    
+    // Loading profiles: "detail" fetches items in the same query, for detail views and approval decisions
+    @EntityGraph("Requisition.detail")
+    Optional<Requisition> findWithItemsById(Long id);
+    
+    // List-view projections: header fields and the stored item totals, items never loaded
+    @Query(value = "SELECT new com.example.backend.dto.RequisitionSummary(r.id, r.itemName, r.createdBy, r.department, r.status, " +
+           "r.approvedByIt, r.approvedByFinance, r.createdAt, r.totalAmount, r.totalQuantity, r.itemCount) " +
+           "FROM Requisition r " +
+                   "WHERE r.createdBy = :createdBy",
+           countQuery = "SELECT COUNT(r) FROM Requisition r WHERE r.createdBy = :createdBy")
+    Page<RequisitionSummary> findSummariesByCreatedBy(@Param("createdBy") String createdBy, Pageable pageable);
+    
+    @Query(value = "SELECT new com.example.backend.dto.RequisitionSummary(r.id, r.itemName, r.createdBy, r.department, r.status, " +
+           "r.approvedByIt, r.approvedByFinance, r.createdAt, r.totalAmount, r.totalQuantity, r.itemCount) " +
+           "FROM Requisition r " +
+                   "WHERE r.department = :department",
+           countQuery = "SELECT COUNT(r) FROM Requisition r WHERE r.department = :department")
+    Page<RequisitionSummary> findSummariesByDepartment(@Param("department") String department, Pageable pageable);
+    
+    @Query(value = "SELECT new com.example.backend.dto.RequisitionSummary(r.id, r.itemName, r.createdBy, r.department, r.status, " +
+           "r.approvedByIt, r.approvedByFinance, r.createdAt, r.totalAmount, r.totalQuantity, r.itemCount) " +
+           "FROM Requisition r " +
+                   "WHERE r.status = :status",
+           countQuery = "SELECT COUNT(r) FROM Requisition r WHERE r.status = :status")
+    Page<RequisitionSummary> findSummariesByStatus(@Param("status") RequisitionStatus status, Pageable pageable);
+    
+    @Query(value = "SELECT new com.example.backend.dto.RequisitionSummary(r.id, r.itemName, r.createdBy, r.department, r.status, " +
+           "r.approvedByIt, r.approvedByFinance, r.createdAt, r.totalAmount, r.totalQuantity, r.itemCount) " +
+           "FROM Requisition r",
+           countQuery = "SELECT COUNT(r) FROM Requisition r")
+    Page<RequisitionSummary> findSummaries(Pageable pageable);
+    
+    // Amount-based filtering and sorting on the stored totals (finance review)
+    List<Requisition> findByStatusAndTotalAmountBetween(RequisitionStatus status, BigDecimal minAmount, BigDecimal maxAmount, Sort sort);
     
     // Basic queries with pagination
     Page<Requisition> findByStatus(RequisitionStatus status, Pageable pageable);
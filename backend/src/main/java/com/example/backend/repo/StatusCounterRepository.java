@@ -0,0 +1,39 @@
+package com.example.backend.repo;
+
+import com.example.backend.model.StatusCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface StatusCounterRepository extends JpaRepository<StatusCounter, String> {
+
+    // Relative update: concurrent transitions on the same tally serialize on the row lock, never lose a delta
+    @Modifying
+    @Query("UPDATE StatusCounter c SET c.value = c.value + :delta WHERE c.counterKey = :counterKey")
+    int increment(@Param("counterKey") String counterKey, @Param("delta") long delta);
+
+    // Create a tally the first time a (department, bucket) pair is seen; a concurrent creator winning is not an error
+    @Modifying
+    @Query(value = "INSERT INTO status_counter (counter_key, scope, department, bucket, counter_value) " +
+                   "VALUES (:counterKey, :scope, :department, :bucket, 0) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("counterKey") String counterKey, @Param("scope") String scope,
+                       @Param("department") String department, @Param("bucket") String bucket);
+
+    // Every tally, row-locked in key order (the order transitions update them in) for the reconcile pass
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM StatusCounter c ORDER BY c.counterKey")
+    List<StatusCounter> findAllForUpdate();
+
+    // Source-of-truth tallies used by the reconcile job
+    @Query("SELECT r.department, r.status, COUNT(r) FROM Requisition r GROUP BY r.department, r.status")
+    List<Object[]> countRequisitionsByDepartmentAndStatus();
+
+    @Query("SELECT v.department, v.approvalStage, COUNT(v) FROM VendorPdf v GROUP BY v.department, v.approvalStage")
+    List<Object[]> countVendorPdfsByDepartmentAndStage();
+}
@@ -1,17 +1,21 @@
 package com.example.backend.repo;
 
+import com.example.backend.dto.VendorPdfSummary;
 import com.example.backend.model.VendorPdf;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
-public interface VendorPdfRepository extends JpaRepository<VendorPdf, Long> {
+public interface VendorPdfRepository extends JpaRepository<VendorPdf, Long>, JpaSpecificationExecutor<VendorPdf> {
     
     // Basic queries with pagination
     Page<VendorPdf> findByUploadedByOrderByUploadedAtDesc(String uploadedBy, Pageable pageable);
@@ -35,6 +39,31 @@ public interface VendorPdfRepository extends JpaRepository<VendorPdf, Long> {
     @Query("SELECT v FROM VendorPdf v WHERE v.uploadedBy = :uploadedBy ORDER BY v.uploadedAt DESC")
     Page<VendorPdf> findRecentByUploader(@Param("uploadedBy") String uploadedBy, Pageable pageable);
     
+    // List-view projections: no entity instances, no dirty checking
+    @Query(value = "SELECT new com.example.backend.dto.VendorPdfSummary(v.id, v.fileName, v.originalFileName, v.uploadedBy, " +
+           "v.description, v.requisitionId, v.uploadedAt, v.isProcessed, v.isRejected, v.rejectionReason, v.approvalStage, v.department) " +
+           "FROM VendorPdf v WHERE v.uploadedBy = :uploadedBy ORDER BY v.uploadedAt DESC",
+           countQuery = "SELECT COUNT(v) FROM VendorPdf v WHERE v.uploadedBy = :uploadedBy")
+    Page<VendorPdfSummary> findSummariesByUploadedBy(@Param("uploadedBy") String uploadedBy, Pageable pageable);
+    
+    @Query(value = "SELECT new com.example.backend.dto.VendorPdfSummary(v.id, v.fileName, v.originalFileName, v.uploadedBy, " +
+           "v.description, v.requisitionId, v.uploadedAt, v.isProcessed, v.isRejected, v.rejectionReason, v.approvalStage, v.department) " +
+           "FROM VendorPdf v WHERE v.department = :department ORDER BY v.uploadedAt DESC",
+           countQuery = "SELECT COUNT(v) FROM VendorPdf v WHERE v.department = :department")
+    Page<VendorPdfSummary> findSummariesByDepartment(@Param("department") String department, Pageable pageable);
+    
+    @Query(value = "SELECT new com.example.backend.dto.VendorPdfSummary(v.id, v.fileName, v.originalFileName, v.uploadedBy, " +
+           "v.description, v.requisitionId, v.uploadedAt, v.isProcessed, v.isRejected, v.rejectionReason, v.approvalStage, v.department) " +
+           "FROM VendorPdf v WHERE v.approvalStage IN :approvalStages ORDER BY v.uploadedAt DESC",
+           countQuery = "SELECT COUNT(v) FROM VendorPdf v WHERE v.approvalStage IN :approvalStages")
+    Page<VendorPdfSummary> findSummariesByApprovalStageIn(@Param("approvalStages") List<String> approvalStages, Pageable pageable);
+    
+    @Query(value = "SELECT new com.example.backend.dto.VendorPdfSummary(v.id, v.fileName, v.originalFileName, v.uploadedBy, " +
+           "v.description, v.requisitionId, v.uploadedAt, v.isProcessed, v.isRejected, v.rejectionReason, v.approvalStage, v.department) " +
+           "FROM VendorPdf v ORDER BY v.uploadedAt DESC",
+           countQuery = "SELECT COUNT(v) FROM VendorPdf v")
+    Page<VendorPdfSummary> findSummaries(Pageable pageable);
+    
     // Count queries for statistics
     long countByUploadedBy(String uploadedBy);
     long countByIsProcessedTrue();
@@ -50,8 +79,8 @@ public interface VendorPdfRepository extends JpaRepository<VendorPdf, Long> {
     Page<VendorPdf> findByApprovalStageOrderByUploadedAtDesc(String approvalStage, Pageable pageable);
     
     // Multiple approval stage queries
-    List<VendorPdf> findByApprovalStageInOrderByUploadedAtDesc(java.util.List<String> approvalStages);
-    Page<VendorPdf> findByApprovalStageInOrderByUploadedAtDesc(java.util.List<String> approvalStages, Pageable pageable);
+    List<VendorPdf> findByApprovalStageInOrderByUploadedAtDesc(List<String> approvalStages);
+    Page<VendorPdf> findByApprovalStageInOrderByUploadedAtDesc(List<String> approvalStages, Pageable pageable);
     
     // Department queries
     List<VendorPdf> findByDepartmentOrderByUploadedAtDesc(String department);
@@ -61,6 +90,58 @@ public interface VendorPdfRepository extends JpaRepository<VendorPdf, Long> {
     List<VendorPdf> findByDepartmentAndApprovalStageOrderByUploadedAtDesc(String department, String approvalStage);
     Page<VendorPdf> findByDepartmentAndApprovalStageOrderByUploadedAtDesc(String department, String approvalStage, Pageable pageable);
     
+    // PDFs visible to a department: uploaded by the department or linked to one of its requisitions
+    @Query(value = "SELECT v FROM VendorPdf v LEFT JOIN Requisition r ON r.id = v.requisitionId " +
+                   "WHERE v.approvalStage IN :approvalStages " +
+                   "AND (v.department = :department OR r.department = :department) " +
+                   "ORDER BY v.uploadedAt DESC, v.id DESC",
+           countQuery = "SELECT COUNT(v) FROM VendorPdf v LEFT JOIN Requisition r ON r.id = v.requisitionId " +
+                        "WHERE v.approvalStage IN :approvalStages " +
+                        "AND (v.department = :department OR r.department = :department)")
+    Page<VendorPdf> findVisibleToDepartmentByApprovalStageIn(@Param("department") String department,
+                                                             @Param("approvalStages") List<String> approvalStages,
+                                                             Pageable pageable);
+    
+    // Keyset-paged stage queues: newest first, (uploadedAt, id) as the cursor
+    @Query("SELECT v FROM VendorPdf v WHERE v.approvalStage IN :approvalStages " +
+           "ORDER BY v.uploadedAt DESC, v.id DESC")
+    Slice<VendorPdf> findStageQueue(@Param("approvalStages") List<String> approvalStages, Pageable pageable);
+    
+    @Query("SELECT v FROM VendorPdf v WHERE v.approvalStage IN :approvalStages " +
+           "AND (v.uploadedAt < :uploadedAt OR (v.uploadedAt = :uploadedAt AND v.id < :id)) " +
+           "ORDER BY v.uploadedAt DESC, v.id DESC")
+    Slice<VendorPdf> findStageQueueAfter(@Param("approvalStages") List<String> approvalStages,
+                                         @Param("uploadedAt") Instant uploadedAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+    
+    @Query("SELECT v FROM VendorPdf v LEFT JOIN Requisition r ON r.id = v.requisitionId " +
+           "WHERE v.approvalStage IN :approvalStages " +
+           "AND (v.department = :department OR r.department = :department) " +
+           "ORDER BY v.uploadedAt DESC, v.id DESC")
+    Slice<VendorPdf> findDepartmentStageQueue(@Param("department") String department,
+                                              @Param("approvalStages") List<String> approvalStages,
+                                              Pageable pageable);
+    
+    @Query("SELECT v FROM VendorPdf v LEFT JOIN Requisition r ON r.id = v.requisitionId " +
+           "WHERE v.approvalStage IN :approvalStages " +
+           "AND (v.department = :department OR r.department = :department) " +
+           "AND (v.uploadedAt < :uploadedAt OR (v.uploadedAt = :uploadedAt AND v.id < :id)) " +
+           "ORDER BY v.uploadedAt DESC, v.id DESC")
+    Slice<VendorPdf> findDepartmentStageQueueAfter(@Param("department") String department,
+                                                   @Param("approvalStages") List<String> approvalStages,
+                                                   @Param("uploadedAt") Instant uploadedAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+    
+    // Per-stage counts of PDFs visible to a department
+    @Query("SELECT v.approvalStage, COUNT(v) FROM VendorPdf v LEFT JOIN Requisition r ON r.id = v.requisitionId " +
+           "WHERE v.approvalStage IN :approvalStages " +
+           "AND (v.department = :department OR r.department = :department) " +
+           "GROUP BY v.approvalStage")
+    List<Object[]> countDepartmentStageQueue(@Param("department") String department,
+                                             @Param("approvalStages") List<String> approvalStages);
+    
     // Count by approval stage
     long countByApprovalStage(String approvalStage);
     
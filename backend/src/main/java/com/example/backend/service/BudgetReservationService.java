@@ -0,0 +1,130 @@
+package com.example.backend.service;
+
+import com.example.backend.model.BudgetReservation;
+import com.example.backend.model.BudgetReservationStatus;
+import com.example.backend.repo.BudgetRepository;
+import com.example.backend.repo.BudgetReservationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Budget ledger for finance approvals.
+ *
+ * Every change to Budget.remainingBudget is a conditional UPDATE executed by the database,
+ * so concurrent approvals on the same department can neither overspend nor lose updates,
+ * on one node or many. A hold deducts the amount immediately; commit makes it final and
+ * release gives it back.
+ */
+@Service
+public class BudgetReservationService {
+    private final BudgetRepository budgetRepository;
+    private final BudgetReservationRepository reservationRepository;
+
+    public BudgetReservationService(BudgetRepository budgetRepository,
+                                    BudgetReservationRepository reservationRepository) {
+        this.budgetRepository = budgetRepository;
+        this.reservationRepository = reservationRepository;
+    }
+
+    @Transactional
+    public BudgetReservation hold(String department, Long requisitionId, BigDecimal amount) {
+        if (amount == null || amount.signum() < 0) {
+            throw new IllegalArgumentException("Reservation amount must be zero or positive");
+        }
+
+        if (budgetRepository.deductIfAvailable(department, amount) == 0) {
+            if (budgetRepository.findRemainingBudgetByDepartment(department).isEmpty()) {
+                throw new IllegalArgumentException("Budget not found for department: " + department);
+            }
+            throw new IllegalStateException("Insufficient budget");
+        }
+
+        BudgetReservation reservation = new BudgetReservation();
+        reservation.setDepartment(department);
+        reservation.setRequisitionId(requisitionId);
+        reservation.setAmount(amount);
+        reservation.setStatus(BudgetReservationStatus.HELD);
+        return reservationRepository.save(reservation);
+    }
+
+    @Transactional
+    public BudgetReservation commit(Long reservationId) {
+        BudgetReservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new IllegalArgumentException("Budget reservation not found: " + reservationId));
+
+        Instant now = Instant.now();
+        if (reservationRepository.transition(reservationId, BudgetReservationStatus.HELD, BudgetReservationStatus.COMMITTED, now) == 0) {
+            throw new IllegalStateException("Budget reservation " + reservationId + " is not held. Current status: " + reservation.getStatus());
+        }
+        reservation.setStatus(BudgetReservationStatus.COMMITTED);
+        reservation.setUpdatedAt(now);
+        return reservation;
+    }
+
+    @Transactional
+    public BudgetReservation release(Long reservationId) {
+        BudgetReservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new IllegalArgumentException("Budget reservation not found: " + reservationId));
+
+        Instant now = Instant.now();
+        if (reservationRepository.transition(reservationId, BudgetReservationStatus.HELD, BudgetReservationStatus.RELEASED, now) == 0) {
+            throw new IllegalStateException("Budget reservation " + reservationId + " is not held. Current status: " + reservation.getStatus());
+        }
+        budgetRepository.restore(reservation.getDepartment(), reservation.getAmount());
+        reservation.setStatus(BudgetReservationStatus.RELEASED);
+        reservation.setUpdatedAt(now);
+        return reservation;
+    }
+
+    // Hold and immediately commit, for decisions that are final on approval
+    @Transactional
+    public BudgetReservation reserveAndCommit(String department, Long requisitionId, BigDecimal amount) {
+        BudgetReservation reservation = hold(department, requisitionId, amount);
+        return commit(reservation.getId());
+    }
+
+    /**
+     * One conditional deduction for the total of several approvals of the same department, recorded as a
+     * committed reservation per requisition. Returns false, without touching anything, when the budget is
+     * missing or cannot cover the total; the caller decides what fails, and the transaction stays usable.
+     */
+    @Transactional
+    public boolean commitGroup(String department, Map<Long, BigDecimal> amountsByRequisition) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amountsByRequisition.values()) {
+            if (amount == null || amount.signum() < 0) {
+                throw new IllegalArgumentException("Reservation amount must be zero or positive");
+            }
+            total = total.add(amount);
+        }
+        if (amountsByRequisition.isEmpty() || budgetRepository.deductIfAvailable(department, total) == 0) {
+            return false;
+        }
+
+        Instant now = Instant.now();
+        List<BudgetReservation> reservations = new ArrayList<>(amountsByRequisition.size());
+        amountsByRequisition.forEach((requisitionId, amount) -> {
+            BudgetReservation reservation = new BudgetReservation();
+            reservation.setDepartment(department);
+            reservation.setRequisitionId(requisitionId);
+            reservation.setAmount(amount);
+            reservation.setStatus(BudgetReservationStatus.COMMITTED);
+            reservation.setUpdatedAt(now);
+            reservations.add(reservation);
+        });
+        reservationRepository.saveAll(reservations);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getRemainingBudget(String department) {
+        return budgetRepository.findRemainingBudgetByDepartment(department)
+                .orElseThrow(() -> new IllegalArgumentException("Budget not found for department: " + department));
+    }
+}
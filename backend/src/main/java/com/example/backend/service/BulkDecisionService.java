@@ -0,0 +1,310 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BulkDecisionResult;
+import com.example.backend.model.Approval;
+import com.example.backend.model.NotificationTemplate;
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.ApprovalRepository;
+import com.example.backend.repo.BudgetRepository;
+import com.example.backend.repo.RequisitionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Approval decisions on many requisitions at once, one transaction per call.
+ *
+ * The requisitions are row-locked in id order and checked one by one; those that fail validation are
+ * reported and left alone, the rest move with one guarded UPDATE per target status. Finance approvals are
+ * grouped by department and charged to the budget with a single conditional deduction per department.
+ * Counters and cache evictions are adjusted once per batch rather than once per requisition.
+ */
+@Service
+public class BulkDecisionService {
+
+    // Upper bound on requisitions per bulk call, keeps the IN list and the lock set reasonable
+    public static final int MAX_BULK_IDS = 1000;
+
+    private static final String APPROVE = "APPROVE";
+    private static final String REJECT = "REJECT";
+    private static final String SEND_BACK = "SEND_BACK";
+
+    private final RequisitionRepository requisitionRepository;
+    private final ApprovalRepository approvalRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetReservationService budgetReservationService;
+    private final StatusCounterService statusCounterService;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final NotificationOutboxService notificationOutboxService;
+
+    public BulkDecisionService(RequisitionRepository requisitionRepository,
+                               ApprovalRepository approvalRepository,
+                               BudgetRepository budgetRepository,
+                               BudgetReservationService budgetReservationService,
+                               StatusCounterService statusCounterService,
+                               CacheInvalidationService cacheInvalidationService,
+                               NotificationOutboxService notificationOutboxService) {
+        this.requisitionRepository = requisitionRepository;
+        this.approvalRepository = approvalRepository;
+        this.budgetRepository = budgetRepository;
+        this.budgetReservationService = budgetReservationService;
+        this.statusCounterService = statusCounterService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.notificationOutboxService = notificationOutboxService;
+    }
+
+    // decision: APPROVE or REJECT
+    @Transactional
+    public List<BulkDecisionResult> departmentDecisions(List<Long> requisitionIds, String departmentManager,
+                                                        String decision, String comments) {
+        String normalized = normalizeDecision(decision, false);
+        Set<Long> ids = validateIds(requisitionIds);
+        Map<Long, BulkDecisionResult> results = new HashMap<>();
+        RequisitionStatus from = RequisitionStatus.PENDING_DEPARTMENT_APPROVAL;
+        List<Requisition> pending = lockPending(ids, from, "department", results);
+
+        boolean approve = APPROVE.equals(normalized);
+        RequisitionStatus to = approve ? RequisitionStatus.PENDING_IT_APPROVAL : RequisitionStatus.REJECTED;
+        // On approval the requester and IT Manager are notified by the outbox dispatcher
+        NotificationTemplate template = approve ? NotificationTemplate.DEPARTMENT_APPROVED : NotificationTemplate.DEPARTMENT_REJECTED;
+        transition(pending, "DEPARTMENT", normalized, comments, from, to,
+                batch -> requisitionRepository.transitionStatus(batch, from, to),
+                r -> notificationOutboxService.append(template, r), results);
+
+        System.out.println("DEBUG: Bulk department decision " + normalized + " by " + departmentManager + ": "
+                + pending.size() + " of " + ids.size() + " requisitions moved");
+        return inRequestOrder(ids, results);
+    }
+
+    // decision: APPROVE, REJECT or SEND_BACK
+    @Transactional
+    public List<BulkDecisionResult> itDecisions(List<Long> requisitionIds, String itManager, String decision, String comments) {
+        String normalized = normalizeDecision(decision, true);
+        Set<Long> ids = validateIds(requisitionIds);
+        Map<Long, BulkDecisionResult> results = new HashMap<>();
+        RequisitionStatus from = RequisitionStatus.PENDING_IT_APPROVAL;
+        List<Requisition> pending = lockPending(ids, from, "IT", results);
+
+        if (APPROVE.equals(normalized)) {
+            // Requester and Finance Manager are notified by the outbox dispatcher
+            transition(pending, "IT", normalized, comments, from, RequisitionStatus.PENDING_FINANCE_APPROVAL,
+                    batch -> requisitionRepository.transitionStatusApprovedByIt(batch, from, RequisitionStatus.PENDING_FINANCE_APPROVAL, itManager),
+                    r -> notificationOutboxService.append(NotificationTemplate.IT_APPROVED, r), results);
+        } else {
+            boolean reject = REJECT.equals(normalized);
+            RequisitionStatus to = reject ? RequisitionStatus.REJECTED : RequisitionStatus.SENT_BACK;
+            NotificationTemplate template = reject ? NotificationTemplate.IT_REJECTED : NotificationTemplate.IT_SENT_BACK;
+            transition(pending, "IT", normalized, comments, from, to,
+                    batch -> requisitionRepository.transitionStatus(batch, from, to),
+                    r -> notificationOutboxService.append(template, r), results);
+        }
+
+        System.out.println("DEBUG: Bulk IT decision " + normalized + " by " + itManager + ": "
+                + pending.size() + " of " + ids.size() + " requisitions moved");
+        return inRequestOrder(ids, results);
+    }
+
+    /**
+     * decision: APPROVE, REJECT or SEND_BACK. Approvals are grouped by the requisition's department; within a
+     * department requisitions are taken in id order while the remaining budget covers them, the rest fail
+     * with "Insufficient budget". Each department is then charged once for the total of its approvals.
+     */
+    @Transactional
+    public List<BulkDecisionResult> financeDecisions(List<Long> requisitionIds, String financeManager, String decision, String comments) {
+        String normalized = normalizeDecision(decision, true);
+        Set<Long> ids = validateIds(requisitionIds);
+        Map<Long, BulkDecisionResult> results = new HashMap<>();
+        RequisitionStatus from = RequisitionStatus.PENDING_FINANCE_APPROVAL;
+        List<Requisition> pending = lockPending(ids, from, "finance", results);
+
+        if (!APPROVE.equals(normalized)) {
+            boolean reject = REJECT.equals(normalized);
+            RequisitionStatus to = reject ? RequisitionStatus.REJECTED : RequisitionStatus.SENT_BACK;
+            NotificationTemplate template = reject ? NotificationTemplate.FINANCE_REJECTED : NotificationTemplate.FINANCE_SENT_BACK;
+            transition(pending, "FINANCE", normalized, comments, from, to,
+                    batch -> requisitionRepository.transitionStatus(batch, from, to),
+                    r -> notificationOutboxService.append(template, r), results);
+            System.out.println("DEBUG: Bulk finance decision " + normalized + " by " + financeManager + ": "
+                    + pending.size() + " of " + ids.size() + " requisitions moved");
+            return inRequestOrder(ids, results);
+        }
+
+        // Departments in a fixed order, so concurrent bulk approvals update budget rows in the same order
+        Map<String, List<Requisition>> byDepartment = new TreeMap<>();
+        for (Requisition r : pending) {
+            if (r.getDepartment() == null || r.getDepartment().isBlank()) {
+                results.put(r.getId(), BulkDecisionResult.failed(r.getId(), r.getStatus(), "Requisition department is missing"));
+            } else if (r.isLegacySingleItem() && (r.getPrice() == null || r.getQuantity() == null)) {
+                results.put(r.getId(), BulkDecisionResult.failed(r.getId(), r.getStatus(), "Requisition amount is missing"));
+            } else {
+                byDepartment.computeIfAbsent(r.getDepartment(), d -> new ArrayList<>()).add(r);
+            }
+        }
+
+        List<Requisition> approved = new ArrayList<>();
+        Map<Long, Map<String, String>> notificationArgs = new HashMap<>();
+        for (Map.Entry<String, List<Requisition>> group : byDepartment.entrySet()) {
+            String department = group.getKey();
+            Map<Long, BigDecimal> amounts = fitBudget(department, group.getValue(), results);
+            if (amounts.isEmpty()) {
+                continue;
+            }
+            // The budget row is not locked, so a concurrent approval may have spent it since it was read
+            if (!budgetReservationService.commitGroup(department, amounts)) {
+                for (Requisition r : group.getValue()) {
+                    if (amounts.containsKey(r.getId())) {
+                        results.put(r.getId(), BulkDecisionResult.failed(r.getId(), r.getStatus(), "Insufficient budget"));
+                    }
+                }
+                continue;
+            }
+            String remainingBudget = budgetReservationService.getRemainingBudget(department).toPlainString();
+            cacheInvalidationService.budgetsChanged(department);
+            for (Requisition r : group.getValue()) {
+                BigDecimal amount = amounts.get(r.getId());
+                if (amount != null) {
+                    approved.add(r);
+                    notificationArgs.put(r.getId(), Map.of("amount", amount.toPlainString(), "remainingBudget", remainingBudget));
+                }
+            }
+        }
+
+        transition(approved, "FINANCE", normalized, comments, from, RequisitionStatus.APPROVED,
+                batch -> requisitionRepository.transitionStatusApprovedByFinance(batch, from, RequisitionStatus.APPROVED, financeManager),
+                r -> notificationOutboxService.append(NotificationTemplate.FINANCE_APPROVED, r, notificationArgs.get(r.getId())), results);
+
+        System.out.println("DEBUG: Bulk finance decision " + normalized + " by " + financeManager + ": "
+                + approved.size() + " of " + ids.size() + " requisitions approved across " + byDepartment.size() + " departments");
+        return inRequestOrder(ids, results);
+    }
+
+    // Amounts of the requisitions of one department that fit its remaining budget, in id order
+    private Map<Long, BigDecimal> fitBudget(String department, List<Requisition> requisitions, Map<Long, BulkDecisionResult> results) {
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        Optional<BigDecimal> remaining = budgetRepository.findRemainingBudgetByDepartment(department);
+        if (remaining.isEmpty()) {
+            for (Requisition r : requisitions) {
+                results.put(r.getId(), BulkDecisionResult.failed(r.getId(), r.getStatus(), "Budget not found for department: " + department));
+            }
+            return amounts;
+        }
+        BigDecimal available = remaining.get();
+        for (Requisition r : requisitions) {
+            BigDecimal amount = ProcureService.requestAmount(r);
+            if (amount.compareTo(available) > 0) {
+                results.put(r.getId(), BulkDecisionResult.failed(r.getId(), r.getStatus(), "Insufficient budget"));
+            } else {
+                amounts.put(r.getId(), amount);
+                available = available.subtract(amount);
+            }
+        }
+        return amounts;
+    }
+
+    // Locks the requested rows and splits off the ones that cannot take this decision
+    private List<Requisition> lockPending(Set<Long> ids, RequisitionStatus expected, String stage,
+                                          Map<Long, BulkDecisionResult> results) {
+        Map<Long, Requisition> locked = new HashMap<>();
+        for (Requisition r : requisitionRepository.findAllByIdInForUpdate(ids)) {
+            locked.put(r.getId(), r);
+        }
+        List<Requisition> pending = new ArrayList<>(locked.size());
+        for (Long id : ids) {
+            Requisition r = locked.get(id);
+            if (r == null) {
+                results.put(id, BulkDecisionResult.failed(id, null, "Requisition not found"));
+            } else if (r.getStatus() != expected) {
+                results.put(id, BulkDecisionResult.failed(id, r.getStatus(),
+                        "Requisition is not pending " + stage + " approval. Current status: " + r.getStatus()));
+            } else {
+                pending.add(r);
+            }
+        }
+        return pending;
+    }
+
+    // Moves validated requisitions with one UPDATE and records approvals, outbox events, counters and evictions
+    private void transition(List<Requisition> requisitions, String approverRole, String decision, String comments,
+                            RequisitionStatus from, RequisitionStatus to, ToIntFunction<Collection<Long>> update,
+                            Consumer<Requisition> notify, Map<Long, BulkDecisionResult> results) {
+        if (requisitions.isEmpty()) {
+            return;
+        }
+        List<Long> ids = requisitions.stream().map(Requisition::getId).toList();
+        int updated = update.applyAsInt(ids);
+        if (updated != ids.size()) {
+            // The rows are locked and were checked above, so only a write that bypassed the lock gets here
+            throw new IllegalStateException("Expected to move " + ids.size() + " requisitions to " + to + ", moved " + updated);
+        }
+
+        List<Approval> approvals = new ArrayList<>(requisitions.size());
+        Map<String, Long> movedByDepartment = new HashMap<>();
+        Set<String> creators = new LinkedHashSet<>();
+        Set<String> departments = new LinkedHashSet<>();
+        for (Requisition r : requisitions) {
+            Approval a = new Approval();
+            a.setRequisitionId(r.getId());
+            a.setApproverRole(approverRole);
+            a.setDecision(decision);
+            a.setComments(comments);
+            approvals.add(a);
+
+            notify.accept(r);
+            movedByDepartment.merge(r.getDepartment() != null ? r.getDepartment() : "", 1L, Long::sum);
+            creators.add(r.getCreatedBy());
+            departments.add(r.getDepartment());
+            results.put(r.getId(), BulkDecisionResult.succeeded(r.getId(), to));
+        }
+        approvalRepository.saveAll(approvals);
+
+        movedByDepartment.forEach((department, count) -> statusCounterService.requisitionsMoved(department, from, to, count));
+        cacheInvalidationService.requisitionsStatusChanged(creators, departments, from, to);
+    }
+
+    private static Set<Long> validateIds(List<Long> requisitionIds) {
+        if (requisitionIds == null || requisitionIds.isEmpty()) {
+            throw new IllegalArgumentException("No requisition ids given");
+        }
+        Set<Long> ids = new LinkedHashSet<>(requisitionIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Requisition ids must not be null");
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " requisition ids per request");
+        }
+        return ids;
+    }
+
+    private static String normalizeDecision(String decision, boolean allowSendBack) {
+        String normalized = decision != null ? decision.trim().toUpperCase() : "";
+        if (normalized.equals("SENT_BACK")) {
+            normalized = SEND_BACK;
+        }
+        if (normalized.equals(APPROVE) || normalized.equals(REJECT) || (allowSendBack && normalized.equals(SEND_BACK))) {
+            return normalized;
+        }
+        throw new IllegalArgumentException("Unsupported decision: " + decision);
+    }
+
+    private static List<BulkDecisionResult> inRequestOrder(Set<Long> ids, Map<Long, BulkDecisionResult> results) {
+        List<BulkDecisionResult> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ordered.add(results.get(id));
+        }
+        return ordered;
+    }
+}
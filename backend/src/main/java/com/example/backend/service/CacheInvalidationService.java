@@ -0,0 +1,193 @@
+package com.example.backend.service;
+
+import com.example.backend.config.TwoLevelCache;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.model.UserRole;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps domain events to the cache entries they make stale, instead of clearing whole caches.
+ *
+ * Key layout of the cached reads this covers:
+ *   userRequisitions       creator:recent, creator:page:size
+ *   userPdfs               uploader
+ *   departmentRequisitions department:page:size
+ *   statusRequisitions     status:page:size
+ *   dashboardStats         user:username, role:ROLE[:department] (see DashboardStatsService.roleStatsKey)
+ *   budgets                single entry
+ *
+ * Evictions run after the surrounding transaction commits, so a concurrent read cannot re-cache the
+ * pre-commit state. Paged entries are removed by key prefix (SCAN on Redis, and on every node's L1).
+ */
+@Service
+public class CacheInvalidationService {
+
+    private static final String USER_REQUISITIONS = "userRequisitions";
+    private static final String USER_PDFS = "userPdfs";
+    private static final String DEPARTMENT_REQUISITIONS = "departmentRequisitions";
+    private static final String STATUS_REQUISITIONS = "statusRequisitions";
+    private static final String DASHBOARD_STATS = "dashboardStats";
+    private static final String BUDGETS = "budgets";
+
+    private final CacheManager cacheManager;
+    private final DashboardStatsService dashboardStatsService;
+
+    public CacheInvalidationService(CacheManager cacheManager, DashboardStatsService dashboardStatsService) {
+        this.cacheManager = cacheManager;
+        this.dashboardStatsService = dashboardStatsService;
+    }
+
+    public void requisitionCreated(String createdBy, String department, RequisitionStatus status) {
+        requisitionChanged(createdBy, department, status, department, status);
+    }
+
+    public void requisitionDeleted(String createdBy, String department, RequisitionStatus status) {
+        requisitionChanged(createdBy, department, status, department, status);
+    }
+
+    public void requisitionStatusChanged(String createdBy, String department, RequisitionStatus from, RequisitionStatus to) {
+        requisitionChanged(createdBy, department, from, department, to);
+    }
+
+    // A requisition moved between (department, status) pairs; either side may equal the other
+    public void requisitionChanged(String createdBy, String fromDepartment, RequisitionStatus from,
+                                   String toDepartment, RequisitionStatus to) {
+        Set<Eviction> evictions = new LinkedHashSet<>();
+        addRequisitionChange(evictions, createdBy, fromDepartment, from, toDepartment, to);
+        afterCommit(evictions);
+    }
+
+    // Bulk decisions: requisitions of several creators and departments moved from one status to another,
+    // evicted once after commit instead of once per requisition
+    public void requisitionsStatusChanged(Collection<String> creators, Collection<String> departments,
+                                          RequisitionStatus from, RequisitionStatus to) {
+        Set<Eviction> evictions = new LinkedHashSet<>();
+        for (String createdBy : creators) {
+            addRequisitionChange(evictions, createdBy, null, from, null, to);
+        }
+        for (String department : departments) {
+            addRequisitionChange(evictions, null, department, from, department, to);
+        }
+        afterCommit(evictions);
+    }
+
+    // Bulk import: many requisitions of one creator across departments
+    public void requisitionsCreated(String createdBy, Collection<String> departments, RequisitionStatus status) {
+        requisitionsStatusChanged(List.of(createdBy), departments, null, status);
+    }
+
+    private void addRequisitionChange(Set<Eviction> evictions, String createdBy, String fromDepartment, RequisitionStatus from,
+                                      String toDepartment, RequisitionStatus to) {
+        if (createdBy != null) {
+            evictions.add(Eviction.prefix(USER_REQUISITIONS, createdBy + ":"));
+            evictions.add(Eviction.key(DASHBOARD_STATS, "user:" + createdBy));
+        }
+        for (String department : new String[] { fromDepartment, toDepartment }) {
+            if (department != null) {
+                evictions.add(Eviction.prefix(DEPARTMENT_REQUISITIONS, department + ":"));
+            }
+            addRoleStats(evictions, department);
+        }
+        for (RequisitionStatus status : new RequisitionStatus[] { from, to }) {
+            if (status != null) {
+                evictions.add(Eviction.prefix(STATUS_REQUISITIONS, status.name() + ":"));
+            }
+        }
+    }
+
+    // All per-user entries of one user
+    public void userChanged(String username) {
+        Set<Eviction> evictions = new LinkedHashSet<>();
+        evictions.add(Eviction.prefix(USER_REQUISITIONS, username + ":"));
+        evictions.add(Eviction.key(USER_PDFS, username));
+        evictions.add(Eviction.key(DASHBOARD_STATS, "user:" + username));
+        afterCommit(evictions);
+    }
+
+    // Upload, stage change or delete of a vendor PDF
+    public void pdfChanged(String uploadedBy, String department) {
+        Set<Eviction> evictions = new LinkedHashSet<>();
+        if (uploadedBy != null) {
+            evictions.add(Eviction.key(USER_PDFS, uploadedBy));
+            evictions.add(Eviction.key(DASHBOARD_STATS, "user:" + uploadedBy));
+        }
+        addRoleStats(evictions, department);
+        afterCommit(evictions);
+    }
+
+    public void budgetsChanged(String department) {
+        Set<Eviction> evictions = new LinkedHashSet<>();
+        evictions.add(Eviction.all(BUDGETS));
+        addRoleStats(evictions, department);
+        afterCommit(evictions);
+    }
+
+    // Every role-level dashboard that can see the department: the department-scoped views and the global ones
+    private void addRoleStats(Set<Eviction> evictions, String department) {
+        for (UserRole role : UserRole.values()) {
+            evictions.add(Eviction.key(DASHBOARD_STATS, DashboardStatsService.roleStatsKey(role.name(), department)));
+        }
+    }
+
+    private void afterCommit(Set<Eviction> evictions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(evictions);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(evictions);
+            }
+        });
+    }
+
+    private void apply(Set<Eviction> evictions) {
+        // Dashboard entries are rebuilt from the snapshot, so it must not outlive them
+        dashboardStatsService.markStale();
+        for (Eviction eviction : evictions) {
+            try {
+                Cache cache = cacheManager.getCache(eviction.cacheName());
+                if (cache == null) {
+                    continue;
+                }
+                if (eviction.all()) {
+                    cache.clear();
+                } else if (eviction.prefix()) {
+                    evictByPrefix(cache, eviction.key());
+                } else {
+                    cache.evict(eviction.key());
+                }
+            } catch (RuntimeException e) {
+                // The write is already committed; a missed eviction only lasts until the entry's TTL
+                System.err.println("Cache eviction failed for " + eviction.cacheName() + " " + eviction.key() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void evictByPrefix(Cache cache, String prefix) {
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictByPrefix(prefix);
+        } else if (cache instanceof ConcurrentMapCache mapCache) {
+            mapCache.getNativeCache().keySet().removeIf(key -> String.valueOf(key).startsWith(prefix));
+        } else {
+            cache.clear();
+        }
+    }
+
+    private record Eviction(String cacheName, String key, boolean prefix, boolean all) {
+        static Eviction key(String cacheName, String key) { return new Eviction(cacheName, key, false, false); }
+        static Eviction prefix(String cacheName, String prefix) { return new Eviction(cacheName, prefix, true, false); }
+        static Eviction all(String cacheName) { return new Eviction(cacheName, null, false, true); }
+    }
+}
@@ -2,15 +2,18 @@ package com.example.backend.service;
 
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.example.backend.repo.RequisitionRepository;
 import com.example.backend.repo.VendorPdfRepository;
 import com.example.backend.repo.BudgetRepository;
-import com.example.backend.model.RequisitionStatus;
 import com.example.backend.model.Budget;
+import com.example.backend.dto.RequisitionSummary;
+import com.example.backend.dto.VendorPdfSummary;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -26,18 +29,24 @@ public class CacheService {
     
     @Autowired
     private BudgetRepository budgetRepository;
+    
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
 
-    // Cache dashboard statistics
-    @Cacheable(value = "dashboardStats", key = "#userId")
+    // Dashboard statistics: global totals from the counters, per-user counts from the per-user cache entry
     public Map<String, Object> getDashboardStats(String userId) {
         Map<String, Object> stats = new HashMap<>();
         
-        // Get counts for different statuses
-        stats.put("pendingItApprovals", requisitionRepository.countByStatus(RequisitionStatus.PENDING_IT_APPROVAL));
-        stats.put("pendingFinanceApprovals", requisitionRepository.countByStatus(RequisitionStatus.PENDING_FINANCE_APPROVAL));
-        stats.put("approvedThisMonth", requisitionRepository.countByStatus(RequisitionStatus.APPROVED));
-        stats.put("myRequisitions", requisitionRepository.countByCreatedBy(userId));
-        stats.put("myPdfs", vendorPdfRepository.countByUploadedBy(userId));
+        Map<String, Object> totals = dashboardStatsService.getStatusTotals();
+        Map<String, Object> userCounts = dashboardStatsService.getUserCounts(userId);
+        stats.put("pendingItApprovals", totals.get("pendingItApprovals"));
+        stats.put("pendingFinanceApprovals", totals.get("pendingFinanceApprovals"));
+        stats.put("approvedThisMonth", totals.get("approvedRequisitions"));
+        stats.put("myRequisitions", userCounts.get("myRequisitions"));
+        stats.put("myPdfs", userCounts.get("myPdfs"));
         
         return stats;
     }
@@ -48,54 +57,38 @@ public class CacheService {
         return budgetRepository.findAll();
     }
 
-    // Cache user-specific requisitions
-    @Cacheable(value = "userRequisitions", key = "#userId")
-    public List<Map<String, Object>> getUserRequisitions(String userId) {
-        return requisitionRepository.findByCreatedByOrderByCreatedAtDesc(userId)
-                .stream()
-                .limit(10) // Limit to recent 10 for performance
-                .map(req -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", req.getId());
-                    map.put("itemName", req.getItemName());
-                    map.put("status", req.getStatus());
-                    map.put("createdAt", req.getCreatedAt());
-                    return map;
-                })
-                .toList();
+    // Cache user-specific requisitions (latest 10 as record projections)
+    @Cacheable(value = "userRequisitions", key = "#userId + ':recent'")
+    public List<RequisitionSummary> getUserRequisitions(String userId) {
+        return new ArrayList<>(requisitionRepository.findSummariesByCreatedBy(userId, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))
+                .getContent());
     }
 
-    // Cache user-specific PDFs
+    // Cache user-specific PDFs; only the recent 10 rows are read
     @Cacheable(value = "userPdfs", key = "#userId")
-    public List<Map<String, Object>> getUserPdfs(String userId) {
-        return vendorPdfRepository.findByUploadedByOrderByUploadedAtDesc(userId)
-                .stream()
-                .limit(10) // Limit to recent 10 for performance
-                .map(pdf -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", pdf.getId());
-                    map.put("originalFileName", pdf.getOriginalFileName());
-                    map.put("processed", pdf.isProcessed());
-                    map.put("uploadedAt", pdf.getUploadedAt());
-                    return map;
-                })
-                .toList();
+    public List<VendorPdfSummary> getUserPdfs(String userId) {
+        return new ArrayList<>(vendorPdfRepository.findSummariesByUploadedBy(userId, PageRequest.of(0, 10)).getContent());
     }
 
-    // Evict cache when data changes
+    // Clear every user's entries (admin clear-cache); regular writes go through CacheInvalidationService
     @CacheEvict(value = {"dashboardStats", "userRequisitions", "userPdfs"}, allEntries = true)
     public void evictUserCache() {
         // This method will be called when user data changes
     }
+    
+    // Drop one user's entries only
+    public void evictUserCache(String userId) {
+        cacheInvalidationService.userChanged(userId);
+    }
 
     @CacheEvict(value = "budgets", allEntries = true)
     public void evictBudgetCache() {
         // This method will be called when budget data changes
     }
 
-    // Update cache when new data is added
-    @CachePut(value = "dashboardStats", key = "#userId")
+    // Refresh a user's dashboard entry when new data is added
     public Map<String, Object> updateDashboardStats(String userId) {
+        cacheInvalidationService.userChanged(userId);
         return getDashboardStats(userId);
     }
 }
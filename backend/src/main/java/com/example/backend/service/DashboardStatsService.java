@@ -0,0 +1,216 @@
+package com.example.backend.service;
+
+import com.example.backend.model.RequisitionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Dashboard statistics from a single grouped query. Requisitions, vendor PDFs, budgets and departments are
+ * aggregated in one UNION ALL round trip (GROUP BY status/stage, department, owner with FILTER clauses).
+ * The resulting snapshot is memoized briefly and every dashboard view (per role, per user, department stats)
+ * is derived from it in memory.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final String SOURCE_REQUISITION = "REQUISITION";
+    private static final String SOURCE_VENDOR_PDF = "VENDOR_PDF";
+    private static final String SOURCE_BUDGET = "BUDGET";
+    private static final String SOURCE_DEPARTMENT = "DEPARTMENT";
+
+    private static final String SNAPSHOT_SQL =
+        "SELECT 'REQUISITION' AS source, r.status AS bucket, r.department AS department, r.created_by AS owner, " +
+        "       COUNT(*) AS total, COUNT(*) FILTER (WHERE r.created_at >= :monthStart) AS this_month, " +
+        "       COALESCE(SUM(r.total_amount), 0) AS amount, 0 AS remaining " +
+        "FROM requisition r GROUP BY r.status, r.department, r.created_by " +
+        "UNION ALL " +
+        "SELECT 'VENDOR_PDF', v.approval_stage, v.department, v.uploaded_by, " +
+        "       COUNT(*), COUNT(*) FILTER (WHERE v.uploaded_at >= :monthStart), 0, 0 " +
+        "FROM vendor_pdf v GROUP BY v.approval_stage, v.department, v.uploaded_by " +
+        "UNION ALL " +
+        "SELECT 'BUDGET', NULL, b.department, NULL, " +
+        "       COUNT(*), 0, COALESCE(SUM(b.total_budget), 0), COALESCE(SUM(b.remaining_budget), 0) " +
+        "FROM budget b GROUP BY b.department " +
+        "UNION ALL " +
+        "SELECT 'DEPARTMENT', NULL, NULL, NULL, " +
+        "       COUNT(*), 0, COALESCE(SUM(d.budget), 0), 0 " +
+        "FROM departments d WHERE d.is_active = true";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final StatusCounterService statusCounterService;
+
+    @Value("${dashboard.snapshot-ttl-ms:30000}")
+    private long snapshotTtlMillis;
+
+    private volatile Snapshot snapshot;
+
+    public DashboardStatsService(NamedParameterJdbcTemplate jdbcTemplate, StatusCounterService statusCounterService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statusCounterService = statusCounterService;
+    }
+
+    // One aggregated row: source table, status/stage bucket, department and owner (creator/uploader)
+    public record Row(String source, String bucket, String department, String owner,
+                      long total, long thisMonth, BigDecimal amount, BigDecimal remaining) {}
+
+    private record Snapshot(List<Row> rows, long loadedAt) {}
+
+    public List<Row> getSnapshotRows() {
+        Snapshot current = snapshot;
+        if (current == null || System.currentTimeMillis() - current.loadedAt() > snapshotTtlMillis) {
+            current = refresh(current);
+        }
+        return current.rows();
+    }
+
+    private synchronized Snapshot refresh(Snapshot seen) {
+        // Another thread may have refreshed while this one waited for the lock
+        if (snapshot != seen && snapshot != null) {
+            return snapshot;
+        }
+        Instant monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        MapSqlParameterSource params = new MapSqlParameterSource("monthStart", Timestamp.from(monthStart));
+        List<Row> rows = jdbcTemplate.query(SNAPSHOT_SQL, params, (rs, i) -> new Row(
+            rs.getString("source"),
+            rs.getString("bucket"),
+            rs.getString("department"),
+            rs.getString("owner"),
+            rs.getLong("total"),
+            rs.getLong("this_month"),
+            rs.getBigDecimal("amount"),
+            rs.getBigDecimal("remaining")));
+        snapshot = new Snapshot(rows, System.currentTimeMillis());
+        return snapshot;
+    }
+
+    @CacheEvict(value = "dashboardStats", allEntries = true)
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    // Force the next read to re-run the snapshot query; cached entries are evicted by CacheInvalidationService
+    public void markStale() {
+        snapshot = null;
+    }
+
+    // Department managers and employees see their own department; the other roles share one global entry
+    public static String roleStatsKey(String role, String department) {
+        boolean departmentScoped = "DEPARTMENT_MANAGER".equals(role) || "EMPLOYEE".equals(role);
+        return departmentScoped ? "role:" + role + ":" + department : "role:" + role;
+    }
+
+    /**
+     * Role-level dashboard: counts and amounts per requisition status, vendor PDFs per approval stage and
+     * budget totals. Department managers and employees are scoped to their department.
+     */
+    @Cacheable(value = "dashboardStats", key = "T(com.example.backend.service.DashboardStatsService).roleStatsKey(#role, #department)")
+    public Map<String, Object> getRoleStats(String role, String department) {
+        boolean departmentScoped = "DEPARTMENT_MANAGER".equals(role) || "EMPLOYEE".equals(role);
+        Predicate<Row> inScope = row -> !departmentScoped || Objects.equals(department, row.department());
+        List<Row> rows = getSnapshotRows();
+
+        Map<String, Long> requisitionsByStatus = new LinkedHashMap<>();
+        Map<String, BigDecimal> amountByStatus = new LinkedHashMap<>();
+        Map<String, Long> pdfsByStage = new LinkedHashMap<>();
+        long requisitionsThisMonth = 0;
+        BigDecimal totalBudget = BigDecimal.ZERO;
+        BigDecimal remainingBudget = BigDecimal.ZERO;
+
+        for (Row row : rows) {
+            if (!inScope.test(row)) continue;
+            switch (row.source()) {
+                case SOURCE_REQUISITION:
+                    requisitionsByStatus.merge(String.valueOf(row.bucket()), row.total(), Long::sum);
+                    amountByStatus.merge(String.valueOf(row.bucket()), row.amount(), BigDecimal::add);
+                    requisitionsThisMonth += row.thisMonth();
+                    break;
+                case SOURCE_VENDOR_PDF:
+                    pdfsByStage.merge(String.valueOf(row.bucket()), row.total(), Long::sum);
+                    break;
+                case SOURCE_BUDGET:
+                    totalBudget = totalBudget.add(row.amount());
+                    remainingBudget = remainingBudget.add(row.remaining());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requisitionsByStatus", requisitionsByStatus);
+        stats.put("requisitionAmountByStatus", amountByStatus);
+        stats.put("requisitionsThisMonth", requisitionsThisMonth);
+        stats.put("pdfsByStage", pdfsByStage);
+        stats.put("totalBudget", totalBudget);
+        stats.put("remainingBudget", remainingBudget);
+        return stats;
+    }
+
+    // Global status totals, read from the materialized counters on every call
+    public Map<String, Object> getStatusTotals() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingDepartmentApprovals", statusCounterService.countRequisitions(RequisitionStatus.PENDING_DEPARTMENT_APPROVAL));
+        stats.put("pendingItApprovals", statusCounterService.countRequisitions(RequisitionStatus.PENDING_IT_APPROVAL));
+        stats.put("pendingFinanceApprovals", statusCounterService.countRequisitions(RequisitionStatus.PENDING_FINANCE_APPROVAL));
+        stats.put("approvedRequisitions", statusCounterService.countRequisitions(RequisitionStatus.APPROVED));
+        stats.put("rejectedRequisitions", statusCounterService.countRequisitions(RequisitionStatus.REJECTED));
+        return stats;
+    }
+
+    // Per-user counts from the snapshot; cached per user and evicted when that user's requisitions or PDFs change
+    @Cacheable(value = "dashboardStats", key = "'user:' + #username")
+    public Map<String, Object> getUserCounts(String username) {
+        long myRequisitions = 0, myPendingRequisitions = 0, myPdfs = 0;
+
+        for (Row row : getSnapshotRows()) {
+            if (SOURCE_REQUISITION.equals(row.source())) {
+                String status = String.valueOf(row.bucket());
+                if (Objects.equals(username, row.owner())) {
+                    myRequisitions += row.total();
+                    if (!RequisitionStatus.APPROVED.name().equals(status) && !RequisitionStatus.REJECTED.name().equals(status)) {
+                        myPendingRequisitions += row.total();
+                    }
+                }
+            } else if (SOURCE_VENDOR_PDF.equals(row.source()) && Objects.equals(username, row.owner())) {
+                myPdfs += row.total();
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("myRequisitions", myRequisitions);
+        stats.put("myPendingRequisitions", myPendingRequisitions);
+        stats.put("myPdfs", myPdfs);
+        return stats;
+    }
+
+    // Active department count and budget sum (departments table)
+    public Map<String, Object> getDepartmentStats() {
+        long totalDepartments = 0;
+        BigDecimal totalBudget = BigDecimal.ZERO;
+        for (Row row : getSnapshotRows()) {
+            if (SOURCE_DEPARTMENT.equals(row.source())) {
+                totalDepartments += row.total();
+                totalBudget = totalBudget.add(row.amount());
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalDepartments", totalDepartments);
+        stats.put("totalBudget", totalBudget);
+        return stats;
+    }
+}
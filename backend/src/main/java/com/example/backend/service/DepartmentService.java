@@ -26,6 +26,9 @@ public class DepartmentService {
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
     public Map<String, Object> getAllDepartments(String token) {
         try {
             // Check if current user has permission (SUPERADMIN or DEPARTMENT_MANAGER)
@@ -232,12 +235,10 @@ public class DepartmentService {
                 return Map.of("success", false, "message", "Access denied. Only SUPERADMIN can view department statistics.");
             }
             
-            long totalDepartments = departmentRepository.countByIsActive(true);
-            List<Department> departments = departmentRepository.findByIsActiveTrueOrderByNameAsc();
-            
-            BigDecimal totalBudget = departments.stream()
-                .map(Department::getBudget)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Count and budget sum come from the aggregated dashboard query, not from loading every department
+            Map<String, Object> aggregated = dashboardStatsService.getDepartmentStats();
+            long totalDepartments = (Long) aggregated.get("totalDepartments");
+            BigDecimal totalBudget = (BigDecimal) aggregated.get("totalBudget");
             
             Map<String, Object> stats = new HashMap<>();
             stats.put("totalDepartments", totalDepartments);
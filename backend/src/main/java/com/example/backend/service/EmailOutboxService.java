@@ -0,0 +1,273 @@
+package com.example.backend.service;
+
+import com.example.backend.model.EmailStatus;
+import com.example.backend.model.EmailType;
+import com.example.backend.model.OutboundEmail;
+import com.example.backend.model.POStatus;
+import com.example.backend.model.PurchaseOrder;
+import com.example.backend.model.Requisition;
+import com.example.backend.repo.OutboundEmailRepository;
+import com.example.backend.repo.RequisitionRepository;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable outbox for vendor emails. Requests only insert a PENDING row; the email executor claims due rows,
+ * composes them and sends each batch over one SMTP connection. Failed deliveries are retried with exponential
+ * backoff until max-attempts. An email that cannot be composed (bad data, a rendering bug) never reached SMTP: it
+ * keeps its attempts and is retried every retry-max-ms. Delivery is at-least-once: a node that dies mid-send leaves
+ * its claim to expire.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final OutboundEmailRepository emailRepository;
+    private final EmailService emailService;
+    private final PurchaseOrderService purchaseOrderService;
+    private final RequisitionRepository requisitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor emailExecutor;
+
+    // One drain loop per node; wakes that arrive while it runs make it go round again
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    @Value("${email.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-base-ms:30000}")
+    private long retryBaseMs;
+
+    @Value("${email.outbox.retry-max-ms:3600000}")
+    private long retryMaxMs;
+
+    // How long a claimed email is hidden from other drainers while it is being sent
+    @Value("${email.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    public EmailOutboxService(OutboundEmailRepository emailRepository,
+                              EmailService emailService,
+                              PurchaseOrderService purchaseOrderService,
+                              RequisitionRepository requisitionRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("emailExecutor") Executor emailExecutor) {
+        this.emailRepository = emailRepository;
+        this.emailService = emailService;
+        this.purchaseOrderService = purchaseOrderService;
+        this.requisitionRepository = requisitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailExecutor = emailExecutor;
+    }
+
+    // Queues an email; the drain starts once the caller's transaction commits
+    @Transactional
+    public OutboundEmail enqueue(EmailType type, Long referenceId, String recipient, String vendorName, String requestedBy) {
+        try {
+            new InternetAddress(recipient, true);
+        } catch (AddressException e) {
+            throw new IllegalArgumentException("Invalid email address: " + recipient);
+        }
+        OutboundEmail email = emailRepository.save(new OutboundEmail(type, referenceId, recipient.trim(), vendorName, requestedBy));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wake();
+            }
+        });
+        return email;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OutboundEmail> getEmail(Long id) {
+        return emailRepository.findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OutboundEmail> getEmails(EmailType type, Long referenceId) {
+        return emailRepository.findByEmailTypeAndReferenceIdOrderByIdDesc(type, referenceId);
+    }
+
+    // Picks up retries that have come due and anything queued by another node
+    @Scheduled(initialDelayString = "${email.outbox.initial-delay-ms:5000}",
+               fixedDelayString = "${email.outbox.interval-ms:5000}")
+    public void poll() {
+        wake();
+    }
+
+    public void wake() {
+        wakeRequested.set(true);
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Executor saturated or shutting down: the next poll tries again
+            draining.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            do {
+                wakeRequested.set(false);
+                while (drainBatch() == batchSize) {
+                    // Full batch: there may be more due
+                }
+            } while (wakeRequested.get());
+        } catch (RuntimeException e) {
+            System.err.println("Email outbox drain failed: " + e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+        // A wake that landed between the last check and releasing the flag
+        if (wakeRequested.get()) {
+            wake();
+        }
+    }
+
+    int drainBatch() {
+        List<OutboundEmail> claimed = transactionTemplate.execute(status -> claimDue());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Compose outside any transaction: PO PDFs come from the render cache but may need rendering
+        Map<Long, String> failures = new LinkedHashMap<>();
+        Map<Long, String> composeFailures = new LinkedHashMap<>();
+        Map<Long, String> permanentFailures = new LinkedHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(claimed.size());
+        List<OutboundEmail> composed = new ArrayList<>(claimed.size());
+        for (OutboundEmail email : claimed) {
+            try {
+                MimeMessage message = compose(email);
+                if (message == null) {
+                    permanentFailures.put(email.getId(), email.getEmailType() + " " + email.getReferenceId() + " not found");
+                } else {
+                    messages.add(message);
+                    composed.add(email);
+                }
+            } catch (Exception e) {
+                System.err.println("Email " + email.getId() + " could not be composed: " + e);
+                composeFailures.put(email.getId(), "Compose failed: " + e);
+            }
+        }
+
+        Map<MimeMessage, Exception> sendFailures = emailService.send(messages);
+        List<Long> sentIds = new ArrayList<>();
+        List<OutboundEmail> sent = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            OutboundEmail email = composed.get(i);
+            Exception cause = sendFailures.get(messages.get(i));
+            if (cause == null) {
+                sentIds.add(email.getId());
+                sent.add(email);
+            } else {
+                failures.put(email.getId(), "Send failed: " + cause.getMessage());
+            }
+        }
+
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailRepository.markSent(sentIds, now);
+            }
+            for (OutboundEmail email : claimed) {
+                if (permanentFailures.containsKey(email.getId())) {
+                    emailRepository.recordFailure(email.getId(), EmailStatus.FAILED, now, truncate(permanentFailures.get(email.getId())));
+                } else if (composeFailures.containsKey(email.getId())) {
+                    emailRepository.recordComposeFailure(email.getId(), now.plusMillis(retryMaxMs), truncate(composeFailures.get(email.getId())));
+                } else if (failures.containsKey(email.getId())) {
+                    boolean exhausted = email.getAttempts() >= maxAttempts;
+                    emailRepository.recordFailure(email.getId(),
+                        exhausted ? EmailStatus.FAILED : EmailStatus.PENDING,
+                        exhausted ? now : now.plusMillis(retryDelayMs(email.getAttempts())),
+                        truncate(failures.get(email.getId())));
+                }
+            }
+        });
+
+        for (OutboundEmail email : sent) {
+            if (email.getEmailType() == EmailType.PURCHASE_ORDER) {
+                try {
+                    purchaseOrderService.updatePOStatus(email.getReferenceId(), POStatus.SENT_TO_VENDOR);
+                } catch (RuntimeException e) {
+                    System.err.println("Email " + email.getId() + " sent but PO status update failed: " + e.getMessage());
+                }
+            }
+        }
+        return claimed.size();
+    }
+
+    // Locks due emails, counts the attempt and leases them so other drainers skip them until the lease runs out
+    private List<OutboundEmail> claimDue() {
+        Instant now = Instant.now();
+        List<OutboundEmail> due = emailRepository.lockDue(EmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+        for (OutboundEmail email : due) {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plusMillis(leaseMs));
+        }
+        return due;
+    }
+
+    // Null when the referenced PO or requisition no longer exists
+    private MimeMessage compose(OutboundEmail email) throws Exception {
+        switch (email.getEmailType()) {
+            case PURCHASE_ORDER: {
+                Optional<PurchaseOrder> po = purchaseOrderService.getPurchaseOrderById(email.getReferenceId());
+                if (po.isEmpty()) {
+                    return null;
+                }
+                String vendorName = email.getVendorName() != null ? email.getVendorName() : po.get().getVendorName();
+                return emailService.createPurchaseOrderMessage(email.getRecipient(), vendorName, po.get());
+            }
+            case REQUISITION_INQUIRY: {
+                // With its items: the body lists them and the requisition is used outside any session
+                Optional<Requisition> requisition = requisitionRepository.findWithItemsById(email.getReferenceId());
+                if (requisition.isEmpty()) {
+                    return null;
+                }
+                return emailService.createRequisitionMessage(email.getRecipient(), email.getVendorName(), requisition.get());
+            }
+            default:
+                return null;
+        }
+    }
+
+    // base, 2 x base, 4 x base, ... capped at retry-max-ms
+    long retryDelayMs(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(retryBaseMs << doublings, retryMaxMs);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
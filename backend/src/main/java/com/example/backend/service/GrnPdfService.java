@@ -21,7 +21,7 @@ public class GrnPdfService {
     private GrnRepository grnRepository;
 
     public byte[] generateGrnPdf(Long grnId) {
-        Grn grn = grnRepository.findById(grnId).orElseThrow();
+        Grn grn = grnRepository.findWithItemsById(grnId).orElseThrow();
 
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         PdfWriter writer = new PdfWriter(baos);
@@ -0,0 +1,176 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationEvent;
+import com.example.backend.model.NotificationTemplate;
+import com.example.backend.model.Requisition;
+import com.example.backend.repo.NotificationEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for requisition workflow notifications. Approval transactions append one compact event;
+ * a scheduled dispatcher fans events out to recipients and batch-inserts the notification rows, which store the
+ * template and arguments and render their message when read.
+ */
+@Service
+public class NotificationOutboxService {
+
+    static final String IT_MANAGER = "shambhu";
+    static final String FINANCE_MANAGER = "joshi";
+
+    private static final String INSERT_NOTIFICATION =
+        "INSERT INTO notification (user_id, is_read, timestamp, dedup_key, event_type, event_args) VALUES (?, false, ?, ?, ?, ?)";
+
+    private final NotificationEventRepository eventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationStreamService notificationStreamService;
+
+    @Value("${notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    public NotificationOutboxService(NotificationEventRepository eventRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     NotificationStreamService notificationStreamService) {
+        this.eventRepository = eventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationStreamService = notificationStreamService;
+    }
+
+    // Joins the caller's transaction: the event commits or rolls back with the decision
+    @Transactional(propagation = Propagation.MANDATORY)
+    public NotificationEvent append(NotificationTemplate eventType, Requisition requisition, Map<String, String> extraArgs) {
+        Map<String, String> args = new LinkedHashMap<>();
+        args.put("requisitionId", String.valueOf(requisition.getId()));
+        args.put("createdBy", requisition.getCreatedBy());
+        args.put("department", requisition.getDepartment());
+        args.put("items", itemDescription(requisition));
+        args.putAll(extraArgs);
+        return eventRepository.save(new NotificationEvent(eventType, requisition.getId(), requisition.getCreatedBy(),
+                NotificationTemplate.writeArgs(args)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public NotificationEvent append(NotificationTemplate eventType, Requisition requisition) {
+        return append(eventType, requisition, Map.of());
+    }
+
+    @Scheduled(initialDelayString = "${notifications.outbox.initial-delay-ms:1000}",
+               fixedDelayString = "${notifications.outbox.interval-ms:1000}")
+    public void dispatchPending() {
+        int dispatched;
+        do {
+            try {
+                dispatched = transactionTemplate.execute(status -> dispatchBatch(batchSize));
+            } catch (RuntimeException e) {
+                // One bad event must not hold up the rest: retry this batch event by event
+                System.err.println("Notification outbox batch failed, dispatching individually: " + e.getMessage());
+                dispatchIndividually();
+                return;
+            }
+        } while (dispatched == batchSize);
+    }
+
+    private int dispatchBatch(int limit) {
+        List<NotificationEvent> events = eventRepository.lockPending(maxAttempts, PageRequest.of(0, limit));
+        if (!events.isEmpty()) {
+            dispatch(events);
+        }
+        return events.size();
+    }
+
+    private void dispatch(List<NotificationEvent> events) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(events.size());
+        List<String> recipients = new ArrayList<>();
+        for (NotificationEvent event : events) {
+            for (String[] delivery : deliveries(event)) {
+                recipients.add(delivery[0]);
+                rows.add(new Object[] {
+                    delivery[0],
+                    Timestamp.from(event.getCreatedAt()),
+                    Notification.dedupKey(delivery[1], "outbox-" + event.getId(), delivery[0]),
+                    delivery[1],
+                    event.getArgs()
+                });
+            }
+            ids.add(event.getId());
+        }
+        // One JDBC batch for the whole fan-out; IDENTITY keys rule out Hibernate's insert batching here
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, rows);
+        eventRepository.markDispatched(ids, Instant.now());
+        notificationStreamService.notificationsAdded(recipients);
+    }
+
+    private void dispatchIndividually() {
+        for (int i = 0; i < batchSize; i++) {
+            Long[] current = new Long[1];
+            try {
+                Integer dispatched = transactionTemplate.execute(status -> {
+                    List<NotificationEvent> events = eventRepository.lockPending(maxAttempts, PageRequest.of(0, 1));
+                    if (events.isEmpty()) {
+                        return 0;
+                    }
+                    current[0] = events.get(0).getId();
+                    dispatch(events);
+                    return 1;
+                });
+                if (dispatched == null || dispatched == 0) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                if (current[0] == null) {
+                    return;
+                }
+                System.err.println("Notification event " + current[0] + " failed: " + e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> eventRepository.recordFailure(current[0], truncate(e.getMessage())));
+            }
+        }
+    }
+
+    // (recipient, template) pairs: the requester always hears about the decision, approvals also reach the next stage
+    private static List<String[]> deliveries(NotificationEvent event) {
+        List<String[]> deliveries = new ArrayList<>(2);
+        if (NotificationTemplate.DEPARTMENT_APPROVED.name().equals(event.getEventType())) {
+            deliveries.add(new String[] {IT_MANAGER, NotificationTemplate.IT_APPROVAL_NEEDED.name()});
+        } else if (NotificationTemplate.IT_APPROVED.name().equals(event.getEventType())) {
+            deliveries.add(new String[] {FINANCE_MANAGER, NotificationTemplate.FINANCE_APPROVAL_NEEDED.name()});
+        }
+        deliveries.add(new String[] {event.getRequester(), event.getEventType()});
+        return deliveries;
+    }
+
+    static String itemDescription(Requisition requisition) {
+        if (requisition.getItemCount() > 0) {
+            return requisition.getItemCount() + " items (" + requisition.getItemNames() + ")";
+        }
+        return requisition.getQuantity() + " " + requisition.getItemName();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.backend.service;
+
+import com.example.backend.repo.NotificationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Bulk read/delete operations on a user's notifications. Each is a single set-based statement scoped to the
+ * owner, so ids belonging to other users are silently ignored.
+ */
+@Service
+public class NotificationService {
+
+    // Upper bound on ids per bulk call, keeps the IN list reasonable
+    public static final int MAX_BULK_IDS = 1000;
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+
+    public NotificationService(NotificationRepository notificationRepository,
+                               UnreadNotificationCounter unreadNotificationCounter) {
+        this.notificationRepository = notificationRepository;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+    }
+
+    public long getUnreadCount(String userId) {
+        return unreadNotificationCounter.getUnreadCount(userId);
+    }
+
+    @Transactional
+    public int markAllRead(String userId) {
+        int updated = notificationRepository.markAllRead(userId);
+        unreadNotificationCounter.allRead(userId);
+        return updated;
+    }
+
+    @Transactional
+    public int markRead(String userId, Collection<Long> ids) {
+        checkIds(ids);
+        int updated = notificationRepository.markRead(userId, ids);
+        unreadNotificationCounter.markedRead(userId, updated);
+        return updated;
+    }
+
+    @Transactional
+    public int deleteByIds(String userId, Collection<Long> ids) {
+        checkIds(ids);
+        int deleted = notificationRepository.deleteByIds(userId, ids);
+        if (deleted > 0) {
+            unreadNotificationCounter.deleted(userId);
+        }
+        return deleted;
+    }
+
+    @Transactional
+    public int deleteOlderThan(String userId, Duration age) {
+        if (age.isNegative()) {
+            throw new IllegalArgumentException("Age must not be negative");
+        }
+        int deleted = notificationRepository.deleteOlderThan(userId, Instant.now().minus(age));
+        if (deleted > 0) {
+            unreadNotificationCounter.deleted(userId);
+        }
+        return deleted;
+    }
+
+    private static void checkIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No notification ids given");
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " notification ids per request");
+        }
+    }
+}
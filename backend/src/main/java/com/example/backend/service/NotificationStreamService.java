@@ -0,0 +1,168 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Notification;
+import com.example.backend.repo.NotificationRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent notification streams. Each user with an open stream has one in-memory sink shared by all of
+ * their connections. Notification writers call notificationsAdded after insert, which also keeps the unread
+ * counters current. Only users with an open stream then trigger a query, which picks up every notification
+ * newer than the last one pushed. Idle connections cost a heartbeat comment and no database work.
+ */
+@Service
+public class NotificationStreamService {
+
+    private final NotificationRepository notificationRepository;
+    private final Executor executor;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final ConcurrentMap<String, UserStream> streams = new ConcurrentHashMap<>();
+
+    @Value("${notifications.stream.heartbeat-ms:15000}")
+    private long heartbeatMillis;
+
+    public NotificationStreamService(NotificationRepository notificationRepository,
+                                     @Qualifier("taskExecutor") Executor executor,
+                                     UnreadNotificationCounter unreadNotificationCounter) {
+        this.notificationRepository = notificationRepository;
+        this.executor = executor;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+    }
+
+    private static final class UserStream {
+        final Sinks.Many<Notification> sink = Sinks.many().multicast().directBestEffort();
+        long lastPublishedId; // guarded by this
+        int subscribers; // guarded by the streams map
+
+        UserStream(long lastPublishedId) {
+            this.lastPublishedId = lastPublishedId;
+        }
+    }
+
+    /**
+     * Live notifications for a user. With lastEventId (the SSE Last-Event-ID of a reconnecting client) the
+     * stream first replays that user's notifications with a higher id.
+     */
+    public Flux<ServerSentEvent<Notification>> subscribe(String userId, Long lastEventId) {
+        return Flux.defer(() -> {
+            UserStream stream = register(userId);
+            AtomicLong lastSentId = new AtomicLong(lastEventId != null ? lastEventId : 0L);
+            Flux<Notification> replay = lastEventId != null
+                ? Flux.defer(() -> Flux.fromIterable(
+                      notificationRepository.findByUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(userId, lastEventId)))
+                : Flux.empty();
+            // Both sources are subscribed up front so nothing published during the replay query is lost;
+            // live items already covered by the replay are dropped by id
+            Flux<ServerSentEvent<Notification>> events = Flux.mergeSequential(replay, stream.sink.asFlux())
+                .filter(n -> n.getNotificationId() > lastSentId.get())
+                .doOnNext(n -> lastSentId.set(n.getNotificationId()))
+                .map(n -> ServerSentEvent.builder(n)
+                    .id(String.valueOf(n.getNotificationId()))
+                    .event("notification")
+                    .build());
+            Flux<ServerSentEvent<Notification>> heartbeats = Flux.interval(Duration.ofMillis(heartbeatMillis))
+                .map(tick -> ServerSentEvent.<Notification>builder().comment("heartbeat").build());
+            return Flux.merge(events, heartbeats)
+                .doFinally(signal -> release(userId));
+        });
+    }
+
+    public void notificationAdded(String userId) {
+        notificationsAdded(List.of(userId));
+    }
+
+    // Called by every notification writer, once per inserted row's recipient: updates the unread counters and
+    // pushes the new rows to open streams once the inserting transaction has committed
+    public void notificationsAdded(Collection<String> userIds) {
+        Map<String, Long> addedByUser = new HashMap<>();
+        Set<String> watched = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            addedByUser.merge(userId, 1L, Long::sum);
+            if (streams.containsKey(userId)) {
+                watched.add(userId);
+            }
+        }
+        unreadNotificationCounter.added(addedByUser);
+        if (watched.isEmpty()) {
+            return;
+        }
+        Runnable push = () -> executor.execute(() -> watched.forEach(this::publishNew));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push.run();
+                }
+            });
+        } else {
+            push.run();
+        }
+    }
+
+    public int getOpenStreamCount() {
+        return streams.size();
+    }
+
+    private UserStream register(String userId) {
+        UserStream stream = streams.computeIfPresent(userId, (key, existing) -> {
+            existing.subscribers++;
+            return existing;
+        });
+        if (stream != null) {
+            return stream;
+        }
+        // First connection for this user: start publishing after the newest notification already stored
+        UserStream fresh = new UserStream(notificationRepository.findTopByUserIdOrderByNotificationIdDesc(userId)
+            .map(Notification::getNotificationId).orElse(0L));
+        return streams.compute(userId, (key, existing) -> {
+            UserStream registered = existing != null ? existing : fresh;
+            registered.subscribers++;
+            return registered;
+        });
+    }
+
+    private void release(String userId) {
+        streams.computeIfPresent(userId, (key, stream) -> --stream.subscribers == 0 ? null : stream);
+    }
+
+    private void publishNew(String userId) {
+        UserStream stream = streams.get(userId);
+        if (stream == null) {
+            return;
+        }
+        try {
+            synchronized (stream) {
+                for (Notification notification : notificationRepository
+                        .findByUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(userId, stream.lastPublishedId)) {
+                    stream.sink.tryEmitNext(notification);
+                    stream.lastPublishedId = notification.getNotificationId();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Clients still get the notification on their next reconnect or list fetch
+            System.err.println("Failed to push notifications to " + userId + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.CachedPage;
+import com.example.backend.dto.RequisitionSummary;
 import com.example.backend.model.Requisition;
 import com.example.backend.model.RequisitionStatus;
 import com.example.backend.repo.RequisitionRepository;
@@ -24,35 +26,34 @@ public class OptimizedRequisitionService {
     @Autowired
     private RequisitionRepository requisitionRepository;
     
-    // Cached method for frequently accessed user requisitions
-    @Cacheable(value = "userRequisitions", key = "#userId + '_' + #page + '_' + #size")
-    public Page<Requisition> getUserRequisitions(String userId, int page, int size) {
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private StatusCounterService statusCounterService;
+    
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+    
+    // Cached method for frequently accessed user requisitions; pages are cached as record snapshots, not entities
+    @Cacheable(value = "userRequisitions", key = "#userId + ':' + #page + ':' + #size")
+    public CachedPage<RequisitionSummary> getUserRequisitions(String userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return requisitionRepository.findByCreatedByOrderByCreatedAtDesc(userId, pageable);
+        return CachedPage.of(requisitionRepository.findSummariesByCreatedBy(userId, pageable));
     }
     
-    // Cached method for dashboard statistics
-    @Cacheable(value = "dashboardStats", key = "#userId")
+    // Dashboard statistics: per-user counts are cached per user, global totals come from the counters
     public Map<String, Object> getDashboardStats(String userId) {
         Map<String, Object> stats = new HashMap<>();
         
-        // Get pending requisitions count
-        long pendingCount = requisitionRepository.countByCreatedBy(userId) - 
-                           requisitionRepository.countByStatus(RequisitionStatus.APPROVED) -
-                           requisitionRepository.countByStatus(RequisitionStatus.REJECTED);
-        stats.put("pendingRequisitions", pendingCount);
-        
-        // Get total requisitions count
-        long totalCount = requisitionRepository.countByCreatedBy(userId);
-        stats.put("totalRequisitions", totalCount);
-        
-        // Get approved requisitions count
-        long approvedCount = requisitionRepository.countByStatus(RequisitionStatus.APPROVED);
-        stats.put("approvedRequisitions", approvedCount);
+        Map<String, Object> userCounts = dashboardStatsService.getUserCounts(userId);
+        stats.put("pendingRequisitions", userCounts.get("myPendingRequisitions"));
+        stats.put("totalRequisitions", userCounts.get("myRequisitions"));
+        stats.put("approvedRequisitions", dashboardStatsService.getStatusTotals().get("approvedRequisitions"));
         
         // Get recent activity (last 5 requisitions)
         Pageable recentPageable = PageRequest.of(0, 5, Sort.by("createdAt").descending());
-        Page<Requisition> recentRequisitions = requisitionRepository.findByCreatedByOrderByCreatedAtDesc(
+        Page<RequisitionSummary> recentRequisitions = requisitionRepository.findSummariesByCreatedBy(
             userId, recentPageable);
         stats.put("recentActivity", recentRequisitions.getContent());
         
@@ -60,41 +61,50 @@ public class OptimizedRequisitionService {
     }
     
     // Cached method for department requisitions
-    @Cacheable(value = "departmentRequisitions", key = "#department + '_' + #page + '_' + #size")
-    public Page<Requisition> getDepartmentRequisitions(String department, int page, int size) {
+    @Cacheable(value = "departmentRequisitions", key = "#department + ':' + #page + ':' + #size")
+    public CachedPage<RequisitionSummary> getDepartmentRequisitions(String department, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return requisitionRepository.findByDepartmentOrderByCreatedAtDesc(department, pageable);
+        return CachedPage.of(requisitionRepository.findSummariesByDepartment(department, pageable));
     }
     
     // Cached method for status-based requisitions
-    @Cacheable(value = "statusRequisitions", key = "#status + '_' + #page + '_' + #size")
-    public Page<Requisition> getRequisitionsByStatus(RequisitionStatus status, int page, int size) {
+    @Cacheable(value = "statusRequisitions", key = "#status + ':' + #page + ':' + #size")
+    public CachedPage<RequisitionSummary> getRequisitionsByStatus(RequisitionStatus status, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return requisitionRepository.findByStatusOrderByCreatedAtDesc(status, pageable);
+        return CachedPage.of(requisitionRepository.findSummariesByStatus(status, pageable));
     }
     
-    // Clear cache when creating new requisition
-    @CacheEvict(value = {"userRequisitions", "dashboardStats", "departmentRequisitions", "statusRequisitions"}, allEntries = true)
+    // Evict only the entries the new requisition shows up in
     @Transactional
     public Requisition createRequisition(Requisition requisition) {
-        return requisitionRepository.save(requisition);
+        Requisition saved = requisitionRepository.save(requisition);
+        statusCounterService.requisitionCreated(saved.getDepartment(), saved.getStatus());
+        cacheInvalidationService.requisitionCreated(saved.getCreatedBy(), saved.getDepartment(), saved.getStatus());
+        return saved;
     }
     
-    // Clear cache when updating requisition
-    @CacheEvict(value = {"userRequisitions", "dashboardStats", "departmentRequisitions", "statusRequisitions"}, allEntries = true)
+    // Evict only the entries of the creator, the departments and the statuses involved
     @Transactional
     public Requisition updateRequisition(Requisition requisition) {
-        return requisitionRepository.save(requisition);
+        Requisition previous = requisition.getId() != null ? requisitionRepository.findById(requisition.getId()).orElse(null) : null;
+        String previousDepartment = previous != null ? previous.getDepartment() : null;
+        RequisitionStatus previousStatus = previous != null ? previous.getStatus() : null;
+        
+        Requisition saved = requisitionRepository.save(requisition);
+        statusCounterService.requisitionMoved(previousDepartment, previousStatus, saved.getDepartment(), saved.getStatus());
+        cacheInvalidationService.requisitionChanged(saved.getCreatedBy(), previousDepartment, previousStatus, saved.getDepartment(), saved.getStatus());
+        return saved;
     }
     
     // Batch operations for better performance
-    @CacheEvict(value = {"userRequisitions", "dashboardStats", "departmentRequisitions", "statusRequisitions"}, allEntries = true)
     @Transactional
     public void updateRequisitionStatusBatch(List<Long> requisitionIds, RequisitionStatus status) {
         // Update each requisition individually since batch update method doesn't exist
         for (Long id : requisitionIds) {
             Requisition requisition = requisitionRepository.findById(id).orElse(null);
             if (requisition != null) {
+                statusCounterService.requisitionMoved(requisition.getDepartment(), requisition.getStatus(), status);
+                cacheInvalidationService.requisitionStatusChanged(requisition.getCreatedBy(), requisition.getDepartment(), requisition.getStatus(), status);
                 requisition.setStatus(status);
                 requisitionRepository.save(requisition);
             }
@@ -102,20 +112,20 @@ public class OptimizedRequisitionService {
     }
     
     // Clear all caches (for admin operations)
-    @CacheEvict(value = {"userRequisitions", "dashboardStats", "departmentRequisitions", "statusRequisitions"}, allEntries = true)
+    @CacheEvict(value = {"userRequisitions", "userPdfs", "dashboardStats", "departmentRequisitions", "statusRequisitions"}, allEntries = true)
     public void clearAllCaches() {
         // This method will clear all caches when called
     }
     
-    // Get requisition by ID (no caching for individual records)
+    // Get requisition by ID (no caching for individual records); detail view, so items come along
     public Requisition getRequisitionById(Long id) {
-        return requisitionRepository.findById(id).orElse(null);
+        return requisitionRepository.findWithItemsById(id).orElse(null);
     }
     
     // Search requisitions with pagination
-    public Page<Requisition> searchRequisitions(String searchTerm, int page, int size) {
+    public Page<RequisitionSummary> searchRequisitions(String searchTerm, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         // Use a more general search since specific method doesn't exist
-        return requisitionRepository.findRecentRequisitions(pageable);
+        return requisitionRepository.findSummaries(pageable);
     }
 }
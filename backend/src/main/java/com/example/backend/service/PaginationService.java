@@ -3,9 +3,20 @@ package com.example.backend.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 @Service
 public class PaginationService {
 
@@ -38,6 +49,78 @@ public class PaginationService {
         return PageRequest.of(page, DEFAULT_PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
     }
 
+    // Keyset page request: always the first page, the cursor does the offsetting
+    public Pageable createKeysetPageable(int size) {
+        if (size <= 0) size = DEFAULT_PAGE_SIZE;
+        if (size > 100) size = 100; // Maximum page size limit
+        return PageRequest.of(0, size);
+    }
+
+    // Opaque cursor for (timestamp, id) keyset pagination
+    public String encodeCursor(Instant timestamp, Long id) {
+        String raw = timestamp.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(Instant.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public record Cursor(Instant timestamp, Long id) {}
+
+    /**
+     * Keyset scroll over (timestampField, id), newest first. The cursor replaces the offset, so every
+     * page costs the same index range scan however deep it is, and Slice skips the count query.
+     */
+    public <T> Slice<T> scroll(JpaSpecificationExecutor<T> repository, Specification<T> filter,
+                               String timestampField, String cursor, int size) {
+        return scroll(repository, filter, timestampField, "id", cursor, size);
+    }
+
+    public <T> Slice<T> scroll(JpaSpecificationExecutor<T> repository, Specification<T> filter,
+                               String timestampField, String idField, String cursor, int size) {
+        Specification<T> spec = filter != null ? filter : (root, query, cb) -> cb.conjunction();
+        Cursor after = decodeCursor(cursor);
+        if (after != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                cb.lessThan(root.get(timestampField), after.timestamp()),
+                cb.and(cb.equal(root.get(timestampField), after.timestamp()), cb.lessThan(root.get(idField), after.id()))));
+        }
+
+        Sort sort = Sort.by(Sort.Direction.DESC, timestampField).and(Sort.by(Sort.Direction.DESC, idField));
+        Pageable pageable = createKeysetPageable(size);
+        return repository.findBy(spec, query -> query.sortBy(sort).slice(PageRequest.of(0, pageable.getPageSize(), sort)));
+    }
+
+    // Cursor pointing just past the last element of the slice, or null when there is no next page
+    public <T> String nextCursor(Slice<T> slice, Function<T, Instant> timestamp, Function<T, Long> id) {
+        List<T> content = slice.getContent();
+        if (!slice.hasNext() || content.isEmpty()) {
+            return null;
+        }
+        T last = content.get(content.size() - 1);
+        return encodeCursor(timestamp.apply(last), id.apply(last));
+    }
+
+    // Controller response for a keyset slice; nextCursor is null on the last page
+    public <T> Map<String, Object> createCursorResponse(String contentKey, Slice<T> slice, String nextCursor) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put(contentKey, slice.getContent());
+        response.put("hasNext", slice.hasNext());
+        response.put("nextCursor", nextCursor);
+        return response;
+    }
+
     // Helper method to create response with pagination metadata
     public <T> Object createPaginatedResponse(Page<T> page) {
         return new Object() {
@@ -0,0 +1,129 @@
+package com.example.backend.service;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+import com.itextpdf.styledxmlparser.css.media.MediaDeviceDescription;
+import com.itextpdf.styledxmlparser.css.media.MediaType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTML-to-PDF conversion with the expensive iText setup done once. Font discovery (standard PDF fonts plus the
+ * fonts shipped with html2pdf) runs at construction into one shared FontSet; each conversion slot gets its own
+ * ConverterProperties and FontProvider over that set, because a FontProvider caches fonts for the document it
+ * is converting. Concurrent conversions are bounded by the number of slots (cores by default).
+ *
+ * Publishes pdf.render.duration, pdf.render.wait and pdf.render.bytes histograms, tagged by document type.
+ */
+@Service
+public class PdfRenderEngine {
+
+    private static final String WARM_UP_HTML = "<html><head><meta charset='UTF-8'><style>"
+        + "body { font-family: Arial, sans-serif; font-size: 12px; } td { border: 1px solid #000; padding: 4px; }"
+        + "</style></head><body><h1>Warm-up</h1><p><strong>Bold</strong> text ₹ 1,234.00</p>"
+        + "<table><tr><td>1</td><td>Item</td></tr></table></body></html>";
+
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+    // One ready-to-use context per permit
+    private final BlockingQueue<ConverterProperties> contexts;
+    private final int slots;
+
+    public PdfRenderEngine(MeterRegistry meterRegistry,
+                           @Value("${pdf.render.max-concurrent:0}") int maxConcurrent) {
+        this.meterRegistry = meterRegistry;
+        this.slots = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        this.permits = new Semaphore(slots, true);
+        this.contexts = new ArrayBlockingQueue<>(slots);
+
+        // Same fonts HtmlConverter discovers on every call when given no properties
+        FontProvider discovered = new DefaultFontProvider(true, true, false);
+        FontSet fonts = discovered.getFontSet();
+        MediaDeviceDescription media = new MediaDeviceDescription(MediaType.PRINT);
+        for (int i = 0; i < slots; i++) {
+            contexts.add(new ConverterProperties()
+                .setFontProvider(new FontProvider(fonts, discovered.getDefaultFontFamily()))
+                .setMediaDeviceDescription(media)
+                .setCharset(StandardCharsets.UTF_8.name()));
+        }
+    }
+
+    // First conversion loads the layout, CSS and font program classes; do it before the first user waits on it
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            render("warm-up", new ByteArrayInputStream(WARM_UP_HTML.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("PDF render engine warm-up failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converts UTF-8 HTML to PDF, waiting for a free slot when all are busy.
+     * document names the kind of document for the metrics (e.g. "purchase_order").
+     */
+    public byte[] render(String document, InputStream html) throws IOException {
+        long waitStart = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a PDF render slot", e);
+        }
+        ConverterProperties properties = contexts.poll();
+        long renderStart = System.nanoTime();
+        Timer.builder("pdf.render.wait")
+            .description("Time spent waiting for a free PDF render slot")
+            .tag("document", document)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(renderStart - waitStart, TimeUnit.NANOSECONDS);
+
+        String outcome = "error";
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+            HtmlConverter.convertToPdf(html, out, properties);
+            byte[] pdf = out.toByteArray();
+            DistributionSummary.builder("pdf.render.bytes")
+                .description("Size of rendered PDFs")
+                .baseUnit("bytes")
+                .tag("document", document)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(pdf.length);
+            outcome = "success";
+            return pdf;
+        } finally {
+            contexts.offer(properties);
+            permits.release();
+            Timer.builder("pdf.render.duration")
+                .description("HTML-to-PDF conversion time")
+                .tags("document", document, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - renderStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+}
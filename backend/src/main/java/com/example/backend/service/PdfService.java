@@ -3,21 +3,33 @@ package com.example.backend.service;
 import com.example.backend.model.Notification;
 import com.example.backend.model.VendorPdf;
 import com.example.backend.model.Requisition;
+import com.example.backend.model.UserRole;
 import com.example.backend.repo.NotificationRepository;
 import com.example.backend.repo.VendorPdfRepository;
 import com.example.backend.repo.RequisitionRepository;
 import com.example.backend.repo.DepartmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -35,8 +47,31 @@ public class PdfService {
     @Autowired
     private DepartmentRepository departmentRepository;
     
+    @Autowired
+    private PaginationService paginationService;
+    
+    @Autowired
+    private StatusCounterService statusCounterService;
+    
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+    
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
     private static final String UPLOAD_DIR = "uploads/pdfs/";
     
+    // Notification event type used for de-duplication keys
+    private static final String VENDOR_PDF_UPLOADED = "VENDOR_PDF_UPLOADED";
+    
+    // Approval stages shown on the department manager dashboards
+    private static final List<String> DEPARTMENT_PENDING_STAGES = List.of("DEPARTMENT");
+    private static final List<String> DEPARTMENT_VISIBLE_STAGES = List.of("DEPARTMENT", "IT", "FINANCE", "APPROVED");
+    private static final List<String> IT_VISIBLE_STAGES = List.of("IT", "FINANCE", "APPROVED");
+    private static final List<String> FINANCE_VISIBLE_STAGES = List.of("FINANCE", "APPROVED");
+    
+    // Stage transitions below commit the PDF row and its status counter delta together
+    @Transactional
     public VendorPdf uploadPdf(MultipartFile file, String uploadedBy, String description, Long requisitionId, String department) throws IOException {
         // Create upload directory if it doesn't exist
         Path uploadPath = Paths.get(UPLOAD_DIR);
@@ -84,6 +119,8 @@ public class PdfService {
         }
         
         VendorPdf savedPdf = vendorPdfRepository.save(vendorPdf);
+        statusCounterService.pdfCreated(savedPdf.getDepartment(), savedPdf.getApprovalStage());
+        cacheInvalidationService.pdfChanged(savedPdf.getUploadedBy(), savedPdf.getDepartment());
         
         // Notify Department Manager first (employees upload PDFs to Department Manager for approval)
         System.out.println("DEBUG: ===== PDF UPLOAD: About to notify department manager ======");
@@ -97,49 +134,38 @@ public class PdfService {
         // Get the department manager based on the requisition's department
         String departmentManager = getDepartmentManagerForPdf(vendorPdf);
         
-        // Check if notification already exists for this requisition to prevent duplicates
-        String expectedMessageStart = "New vendor PDF uploaded by " + vendorPdf.getUploadedBy();
-        boolean notificationExists = false;
+        // De-duplicate per requisition for linked PDFs, per uploader for standalone PDFs
+        String dedupEntity = vendorPdf.getRequisitionId() != null
+            ? "requisition-" + vendorPdf.getRequisitionId()
+            : "uploader-" + vendorPdf.getUploadedBy();
+        
+        Notification notification = new Notification();
+        notification.setUserId(departmentManager);
+        
+        String message = "New vendor PDF uploaded by " + vendorPdf.getUploadedBy() + 
+                        ": " + vendorPdf.getOriginalFileName();
         
+        // Add requisition details if linked
         if (vendorPdf.getRequisitionId() != null) {
-            // For PDFs linked to requisitions, check if any notification exists for this requisition
-            notificationExists = notificationRepository.findAll().stream()
-                .anyMatch(n -> n.getUserId().equals(departmentManager) && 
-                              n.getMessage().contains("Requisition #" + vendorPdf.getRequisitionId()));
-        } else {
-            // For standalone PDFs, check if notification exists for this user
-            notificationExists = notificationRepository.findAll().stream()
-                .anyMatch(n -> n.getUserId().equals(departmentManager) && 
-                              n.getMessage().startsWith(expectedMessageStart));
+            Requisition requisition = requisitionRepository.findById(vendorPdf.getRequisitionId()).orElse(null);
+            if (requisition != null) {
+                message += " for Requisition #" + requisition.getId() + 
+                          " (" + requisition.getItemName() + " - " + requisition.getQuantity() + " units)";
+            }
         }
         
-        if (notificationExists) {
-            System.out.println("DEBUG: PDF notification already exists for requisition #" + vendorPdf.getRequisitionId() + ", skipping duplicate creation");
-        } else {
-            Notification notification = new Notification();
-            notification.setUserId(departmentManager);
-            
-            String message = "New vendor PDF uploaded by " + vendorPdf.getUploadedBy() + 
-                            ": " + vendorPdf.getOriginalFileName();
-            
-            // Add requisition details if linked
-            if (vendorPdf.getRequisitionId() != null) {
-                Requisition requisition = requisitionRepository.findById(vendorPdf.getRequisitionId()).orElse(null);
-                if (requisition != null) {
-                    message += " for Requisition #" + requisition.getId() + 
-                              " (" + requisition.getItemName() + " - " + requisition.getQuantity() + " units)";
-                }
-            }
-            
-            if (vendorPdf.getDescription() != null && !vendorPdf.getDescription().trim().isEmpty()) {
-                message += " - " + vendorPdf.getDescription();
-            }
-            
-            notification.setMessage(message);
-            notification.setRead(false);
-            notificationRepository.save(notification);
-            
+        if (vendorPdf.getDescription() != null && !vendorPdf.getDescription().trim().isEmpty()) {
+            message += " - " + vendorPdf.getDescription();
+        }
+        
+        notification.setMessage(message);
+        notification.setDedupKey(Notification.dedupKey(VENDOR_PDF_UPLOADED, dedupEntity, departmentManager));
+        
+        if (notificationRepository.insertIfAbsent(notification)) {
+            notificationStreamService.notificationAdded(departmentManager);
             System.out.println("DEBUG: Created PDF notification for Department Manager: " + departmentManager);
+        } else {
+            System.out.println("DEBUG: PDF notification already exists for requisition #" + vendorPdf.getRequisitionId() + ", skipping duplicate creation");
         }
     }
     
@@ -214,6 +240,7 @@ public class PdfService {
         notification.setMessage(message);
         notification.setRead(false);
         notificationRepository.save(notification);
+        notificationStreamService.notificationAdded(notification.getUserId());
         
         System.out.println("DEBUG: Created PDF notification for IT Manager: itmanager");
     }
@@ -241,6 +268,7 @@ public class PdfService {
         notification.setMessage(message);
         notification.setRead(false);
         notificationRepository.save(notification);
+        notificationStreamService.notificationAdded(notification.getUserId());
     }
     
     public List<VendorPdf> getAllPdfs() {
@@ -270,9 +298,6 @@ public class PdfService {
             // Try to get PDFs by approval stage
             List<VendorPdf> pdfs = vendorPdfRepository.findByApprovalStageOrderByUploadedAtDesc("DEPARTMENT");
             System.out.println("DEBUG: Found " + pdfs.size() + " department pending PDFs by approval stage");
-            for (VendorPdf pdf : pdfs) {
-                System.out.println("DEBUG: PDF ID: " + pdf.getId() + ", Stage: " + pdf.getApprovalStage() + ", File: " + pdf.getOriginalFileName());
-            }
             return pdfs;
         } catch (Exception e) {
             System.out.println("DEBUG: Error getting PDFs by approval stage, falling back to unprocessed: " + e.getMessage());
@@ -291,25 +316,9 @@ public class PdfService {
         System.out.println("DEBUG: Getting all IT PDFs");
 
         try {
-            // Get all PDFs that have been through IT approval (IT, FINANCE, APPROVED)
-            List<VendorPdf> allPdfs = vendorPdfRepository.findAllByOrderByUploadedAtDesc();
-            System.out.println("DEBUG: Found " + allPdfs.size() + " total PDFs");
-
-            // Filter PDFs that are relevant to IT managers
-            List<VendorPdf> itPdfs = allPdfs.stream()
-                .filter(pdf -> {
-                    String stage = pdf.getApprovalStage();
-                    return "IT".equals(stage) ||
-                           "FINANCE".equals(stage) ||
-                           "APPROVED".equals(stage);
-                })
-                .collect(java.util.stream.Collectors.toList());
-
-            System.out.println("DEBUG: Filtered to " + itPdfs.size() + " IT-relevant PDFs");
-            for (VendorPdf pdf : itPdfs) {
-                System.out.println("DEBUG: PDF ID: " + pdf.getId() + ", Stage: " + pdf.getApprovalStage() + ", File: " + pdf.getOriginalFileName());
-            }
-
+            // PDFs that have been through IT approval (IT, FINANCE, APPROVED), filtered in SQL
+            List<VendorPdf> itPdfs = vendorPdfRepository.findByApprovalStageInOrderByUploadedAtDesc(IT_VISIBLE_STAGES);
+            System.out.println("DEBUG: Found " + itPdfs.size() + " IT-relevant PDFs");
             return itPdfs;
         } catch (Exception e) {
             System.out.println("DEBUG: Error getting all IT PDFs, falling back to IT pending: " + e.getMessage());
@@ -326,24 +335,9 @@ public class PdfService {
         System.out.println("DEBUG: Getting all Finance PDFs");
         
         try {
-            // Get all PDFs that have been through Finance approval (FINANCE, APPROVED)
-            List<VendorPdf> allPdfs = vendorPdfRepository.findAllByOrderByUploadedAtDesc();
-            System.out.println("DEBUG: Found " + allPdfs.size() + " total PDFs");
-            
-            // Filter PDFs that are relevant to Finance managers
-            List<VendorPdf> financePdfs = allPdfs.stream()
-                .filter(pdf -> {
-                    String stage = pdf.getApprovalStage();
-                    return "FINANCE".equals(stage) || 
-                           "APPROVED".equals(stage);
-                })
-                .collect(java.util.stream.Collectors.toList());
-            
-            System.out.println("DEBUG: Filtered to " + financePdfs.size() + " Finance-relevant PDFs");
-            for (VendorPdf pdf : financePdfs) {
-                System.out.println("DEBUG: PDF ID: " + pdf.getId() + ", Stage: " + pdf.getApprovalStage() + ", File: " + pdf.getOriginalFileName());
-            }
-            
+            // PDFs that have been through Finance approval (FINANCE, APPROVED), filtered in SQL
+            List<VendorPdf> financePdfs = vendorPdfRepository.findByApprovalStageInOrderByUploadedAtDesc(FINANCE_VISIBLE_STAGES);
+            System.out.println("DEBUG: Found " + financePdfs.size() + " Finance-relevant PDFs");
             return financePdfs;
         } catch (Exception e) {
             System.out.println("DEBUG: Error getting all Finance PDFs, falling back to Finance pending: " + e.getMessage());
@@ -356,26 +350,9 @@ public class PdfService {
         System.out.println("DEBUG: Getting all department PDFs");
         
         try {
-            // Get all PDFs that have been through department approval (DEPARTMENT, IT, FINANCE, APPROVED)
-            List<VendorPdf> allPdfs = vendorPdfRepository.findAllByOrderByUploadedAtDesc();
-            System.out.println("DEBUG: Found " + allPdfs.size() + " total PDFs");
-            
-            // Filter PDFs that are relevant to department managers
-            List<VendorPdf> departmentPdfs = allPdfs.stream()
-                .filter(pdf -> {
-                    String stage = pdf.getApprovalStage();
-                    return "DEPARTMENT".equals(stage) || 
-                           "IT".equals(stage) || 
-                           "FINANCE".equals(stage) || 
-                           "APPROVED".equals(stage);
-                })
-                .collect(java.util.stream.Collectors.toList());
-            
-            System.out.println("DEBUG: Filtered to " + departmentPdfs.size() + " department-relevant PDFs");
-            for (VendorPdf pdf : departmentPdfs) {
-                System.out.println("DEBUG: PDF ID: " + pdf.getId() + ", Stage: " + pdf.getApprovalStage() + ", File: " + pdf.getOriginalFileName());
-            }
-            
+            // PDFs that have been through department approval (DEPARTMENT, IT, FINANCE, APPROVED), filtered in SQL
+            List<VendorPdf> departmentPdfs = vendorPdfRepository.findByApprovalStageInOrderByUploadedAtDesc(DEPARTMENT_VISIBLE_STAGES);
+            System.out.println("DEBUG: Found " + departmentPdfs.size() + " department-relevant PDFs");
             return departmentPdfs;
         } catch (Exception e) {
             System.out.println("DEBUG: Error getting all department PDFs, falling back to department pending: " + e.getMessage());
@@ -384,27 +361,93 @@ public class PdfService {
         }
     }
     
+    /**
+     * Approval stages making up a role's work queue. The pending queue is the stage the role acts on,
+     * the full queue adds everything that has already moved past it.
+     */
+    public List<String> getQueueStages(UserRole role, boolean pendingOnly) {
+        switch (role) {
+            case IT_MANAGER:
+                return pendingOnly ? List.of("IT") : IT_VISIBLE_STAGES;
+            case FINANCE_MANAGER:
+                return pendingOnly ? List.of("FINANCE") : FINANCE_VISIBLE_STAGES;
+            case DEPARTMENT_MANAGER:
+                return pendingOnly ? DEPARTMENT_PENDING_STAGES : DEPARTMENT_VISIBLE_STAGES;
+            default:
+                throw new IllegalArgumentException("No PDF work queue for role: " + role);
+        }
+    }
+    
+    /**
+     * One keyset page of a stage queue, newest first. A null department queries across departments;
+     * otherwise the queue is limited to PDFs visible to that department.
+     */
+    public Slice<VendorPdf> getStageQueue(List<String> approvalStages, String department, String cursor, int size) {
+        Pageable pageable = paginationService.createKeysetPageable(size);
+        PaginationService.Cursor after = paginationService.decodeCursor(cursor);
+        
+        if (department == null) {
+            return after == null
+                ? vendorPdfRepository.findStageQueue(approvalStages, pageable)
+                : vendorPdfRepository.findStageQueueAfter(approvalStages, after.timestamp(), after.id(), pageable);
+        }
+        return after == null
+            ? vendorPdfRepository.findDepartmentStageQueue(department, approvalStages, pageable)
+            : vendorPdfRepository.findDepartmentStageQueueAfter(department, approvalStages, after.timestamp(), after.id(), pageable);
+    }
+    
+    public String getNextQueueCursor(Slice<VendorPdf> slice) {
+        return paginationService.nextCursor(slice, VendorPdf::getUploadedAt, VendorPdf::getId);
+    }
+    
+    // Keyset page of the PDFs a user may list, with the same role scoping as the full list
+    public Slice<VendorPdf> scrollPdfsForUser(UserRole role, String username, String department, String cursor, int size) {
+        Specification<VendorPdf> filter;
+        switch (role) {
+            case SUPERADMIN:
+                filter = null;
+                break;
+            case DEPARTMENT_MANAGER:
+                filter = (root, query, cb) -> cb.equal(root.get("department"), department);
+                break;
+            case IT_MANAGER:
+                filter = (root, query, cb) -> root.get("approvalStage").in(IT_VISIBLE_STAGES);
+                break;
+            case FINANCE_MANAGER:
+                filter = (root, query, cb) -> root.get("approvalStage").in(FINANCE_VISIBLE_STAGES);
+                break;
+            default:
+                filter = (root, query, cb) -> cb.equal(root.get("uploadedBy"), username);
+        }
+        return paginationService.scroll(vendorPdfRepository, filter, "uploadedAt", cursor, size);
+    }
+    
+    // Per-stage totals for a queue: global queues read the materialized counters, department queues
+    // (which also include PDFs linked to the department's requisitions) use an index-backed count
+    public Map<String, Long> getStageQueueCounts(List<String> approvalStages, String department) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (department == null) {
+            for (String stage : approvalStages) {
+                counts.put(stage, statusCounterService.countPdfs(stage));
+            }
+            return counts;
+        }
+        for (String stage : approvalStages) {
+            counts.put(stage, 0L);
+        }
+        for (Object[] row : vendorPdfRepository.countDepartmentStageQueue(department, approvalStages)) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+    
     public List<VendorPdf> getDepartmentPendingPdfsByDepartment(String department) {
         System.out.println("DEBUG: Getting department pending PDFs for department: " + department);
         
         try {
-            // Get PDFs by department and approval stage
-            List<VendorPdf> pdfs = vendorPdfRepository.findByDepartmentAndApprovalStageOrderByUploadedAtDesc(department, "DEPARTMENT");
-            System.out.println("DEBUG: Found " + pdfs.size() + " department pending PDFs for department: " + department);
-            
-            // Also get PDFs that are linked to requisitions from this department
-            List<VendorPdf> requisitionLinkedPdfs = getPdfsLinkedToRequisitionsInDepartment(department, "DEPARTMENT");
-            System.out.println("DEBUG: Found " + requisitionLinkedPdfs.size() + " requisition-linked PDFs for department: " + department);
-            
-            // Combine both lists and remove duplicates
-            java.util.Set<Long> existingIds = pdfs.stream().map(VendorPdf::getId).collect(java.util.stream.Collectors.toSet());
-            List<VendorPdf> additionalPdfs = requisitionLinkedPdfs.stream()
-                .filter(pdf -> !existingIds.contains(pdf.getId()))
-                .collect(java.util.stream.Collectors.toList());
-            
-            pdfs.addAll(additionalPdfs);
+            // PDFs of this department plus PDFs linked to its requisitions, resolved in one query
+            List<VendorPdf> pdfs = getDepartmentPdfsPage(department, DEPARTMENT_PENDING_STAGES, Pageable.unpaged()).getContent();
             System.out.println("DEBUG: Total department pending PDFs: " + pdfs.size());
-            
             return pdfs;
         } catch (Exception e) {
             System.out.println("DEBUG: Error getting department pending PDFs by department, falling back to all department pending: " + e.getMessage());
@@ -417,39 +460,10 @@ public class PdfService {
         System.out.println("DEBUG: Getting all department PDFs for department: " + department);
         
         try {
-            // Get all PDFs for the department that are relevant to department managers
-            List<VendorPdf> allPdfs = vendorPdfRepository.findByDepartmentOrderByUploadedAtDesc(department);
-            System.out.println("DEBUG: Found " + allPdfs.size() + " total PDFs for department: " + department);
-            
-            // Filter PDFs that are relevant to department managers
-            List<VendorPdf> departmentPdfs = allPdfs.stream()
-                .filter(pdf -> {
-                    String stage = pdf.getApprovalStage();
-                    return "DEPARTMENT".equals(stage) || 
-                           "IT".equals(stage) || 
-                           "FINANCE".equals(stage) || 
-                           "APPROVED".equals(stage);
-                })
-                .collect(java.util.stream.Collectors.toList());
-            
-            // Also get PDFs that are linked to requisitions from this department
-            List<VendorPdf> requisitionLinkedPdfs = getPdfsLinkedToRequisitionsInDepartment(department, "DEPARTMENT");
-            requisitionLinkedPdfs.addAll(getPdfsLinkedToRequisitionsInDepartment(department, "IT"));
-            requisitionLinkedPdfs.addAll(getPdfsLinkedToRequisitionsInDepartment(department, "FINANCE"));
-            requisitionLinkedPdfs.addAll(getPdfsLinkedToRequisitionsInDepartment(department, "APPROVED"));
-            
-            System.out.println("DEBUG: Found " + requisitionLinkedPdfs.size() + " requisition-linked PDFs for department: " + department);
-            
-            // Combine both lists and remove duplicates
-            java.util.Set<Long> existingIds = departmentPdfs.stream().map(VendorPdf::getId).collect(java.util.stream.Collectors.toSet());
-            List<VendorPdf> additionalPdfs = requisitionLinkedPdfs.stream()
-                .filter(pdf -> !existingIds.contains(pdf.getId()))
-                .collect(java.util.stream.Collectors.toList());
-            
-            departmentPdfs.addAll(additionalPdfs);
-            
-            System.out.println("DEBUG: Total department-relevant PDFs: " + departmentPdfs.size());
-            return departmentPdfs;
+            // All PDFs relevant to department managers, resolved in one query
+            List<VendorPdf> pdfs = getDepartmentPdfsPage(department, DEPARTMENT_VISIBLE_STAGES, Pageable.unpaged()).getContent();
+            System.out.println("DEBUG: Total department-relevant PDFs: " + pdfs.size());
+            return pdfs;
         } catch (Exception e) {
             System.out.println("DEBUG: Error getting all department PDFs by department, falling back to all department PDFs: " + e.getMessage());
             // Fallback: get all department PDFs
@@ -457,6 +471,10 @@ public class PdfService {
         }
     }
     
+    public Page<VendorPdf> getDepartmentPdfsPage(String department, List<String> approvalStages, Pageable pageable) {
+        return vendorPdfRepository.findVisibleToDepartmentByApprovalStageIn(department, approvalStages, pageable);
+    }
+    
     public VendorPdf markAsProcessed(Long pdfId) {
         VendorPdf pdf = vendorPdfRepository.findById(pdfId).orElseThrow();
         pdf.setProcessed(true);
@@ -469,15 +487,19 @@ public class PdfService {
         // Notify finance team about IT-approved PDF
         notifyFinanceTeam(pdf);
         
-        return vendorPdfRepository.save(pdf);
+        VendorPdf savedPdf = vendorPdfRepository.save(pdf);
+        cacheInvalidationService.pdfChanged(savedPdf.getUploadedBy(), savedPdf.getDepartment());
+        return savedPdf;
     }
     
+    @Transactional
     public VendorPdf departmentApprovePdf(Long pdfId) {
         System.out.println("DEBUG: departmentApprovePdf called with pdfId: " + pdfId);
         
         try {
             VendorPdf pdf = vendorPdfRepository.findById(pdfId).orElseThrow();
             System.out.println("DEBUG: Found PDF: " + pdf.getOriginalFileName() + ", current stage: " + pdf.getApprovalStage());
+            String previousStage = pdf.getApprovalStage();
             
             // Check if approval stage field exists, if not, use processed flag as fallback
             try {
@@ -501,6 +523,8 @@ public class PdfService {
             notifyDepartmentPdfApproval(pdf);
             
             VendorPdf savedPdf = vendorPdfRepository.save(pdf);
+            statusCounterService.pdfMoved(savedPdf.getDepartment(), previousStage, savedPdf.getApprovalStage());
+            cacheInvalidationService.pdfChanged(savedPdf.getUploadedBy(), savedPdf.getDepartment());
             System.out.println("DEBUG: PDF saved successfully, final stage: " + savedPdf.getApprovalStage());
             return savedPdf;
             
@@ -511,8 +535,10 @@ public class PdfService {
         }
     }
     
+    @Transactional
     public VendorPdf itApprovePdf(Long pdfId) {
         VendorPdf pdf = vendorPdfRepository.findById(pdfId).orElseThrow();
+        String previousStage = pdf.getApprovalStage();
         pdf.setApprovalStage("FINANCE");
         pdf.setRejected(false);
         pdf.setRejectionReason(null);
@@ -523,11 +549,16 @@ public class PdfService {
         // Notify the employee who uploaded the PDF about IT approval
         notifyItPdfApproval(pdf);
         
-        return vendorPdfRepository.save(pdf);
+        VendorPdf savedPdf = vendorPdfRepository.save(pdf);
+        statusCounterService.pdfMoved(savedPdf.getDepartment(), previousStage, savedPdf.getApprovalStage());
+        cacheInvalidationService.pdfChanged(savedPdf.getUploadedBy(), savedPdf.getDepartment());
+        return savedPdf;
     }
     
+    @Transactional
     public VendorPdf financeApprovePdf(Long pdfId) {
         VendorPdf pdf = vendorPdfRepository.findById(pdfId).orElseThrow();
+        String previousStage = pdf.getApprovalStage();
         pdf.setApprovalStage("APPROVED");
         pdf.setProcessed(true);
         pdf.setRejected(false);
@@ -536,7 +567,10 @@ public class PdfService {
         // Notify the employee who uploaded the PDF about final approval
         notifyFinalPdfApproval(pdf);
         
-        return vendorPdfRepository.save(pdf);
+        VendorPdf savedPdf = vendorPdfRepository.save(pdf);
+        statusCounterService.pdfMoved(savedPdf.getDepartment(), previousStage, savedPdf.getApprovalStage());
+        cacheInvalidationService.pdfChanged(savedPdf.getUploadedBy(), savedPdf.getDepartment());
+        return savedPdf;
     }
     
     public VendorPdf rejectPdf(Long pdfId, String rejectionReason) {
@@ -548,19 +582,32 @@ public class PdfService {
         // Notify the IT Manager about the rejection
         notifyPdfRejection(pdf);
         
-        return vendorPdfRepository.save(pdf);
+        VendorPdf savedPdf = vendorPdfRepository.save(pdf);
+        cacheInvalidationService.pdfChanged(savedPdf.getUploadedBy(), savedPdf.getDepartment());
+        return savedPdf;
     }
 
     public VendorPdf getPdfById(Long pdfId) {
         return vendorPdfRepository.findById(pdfId).orElse(null);
     }
 
+    @Transactional
     public boolean deletePdf(Long pdfId) {
         try {
-            vendorPdfRepository.deleteById(pdfId);
+            VendorPdf pdf = vendorPdfRepository.findById(pdfId).orElse(null);
+            if (pdf == null) {
+                return false;
+            }
+            vendorPdfRepository.delete(pdf);
+            // Flushed here so a failing delete lands in the catch below instead of at commit
+            vendorPdfRepository.flush();
+            statusCounterService.pdfDeleted(pdf.getDepartment(), pdf.getApprovalStage());
+            cacheInvalidationService.pdfChanged(pdf.getUploadedBy(), pdf.getDepartment());
             return true;
         } catch (Exception e) {
             System.err.println("Error deleting PDF: " + e.getMessage());
+            // Reported as false rather than thrown, so undo the delete and the counter change explicitly
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
     }
@@ -585,6 +632,7 @@ public class PdfService {
         notification.setMessage(message);
         notification.setRead(false);
         Notification savedNotification = notificationRepository.save(notification);
+        notificationStreamService.notificationAdded(notification.getUserId());
         System.out.println("DEBUG: Created PDF rejection notification for user: " + vendorPdf.getUploadedBy() + 
                           ", Message: " + message + ", Notification ID: " + savedNotification.getNotificationId());
     }
@@ -606,6 +654,7 @@ public class PdfService {
         notification.setMessage(message);
         notification.setRead(false);
         Notification savedNotification = notificationRepository.save(notification);
+        notificationStreamService.notificationAdded(notification.getUserId());
         System.out.println("DEBUG: Created PDF approval notification for user: " + vendorPdf.getUploadedBy() + 
                           ", Message: " + message + ", Notification ID: " + savedNotification.getNotificationId());
     }
@@ -627,6 +676,7 @@ public class PdfService {
         notification.setMessage(message);
         notification.setRead(false);
         Notification savedNotification = notificationRepository.save(notification);
+        notificationStreamService.notificationAdded(notification.getUserId());
         System.out.println("DEBUG: Created Department PDF approval notification for user: " + vendorPdf.getUploadedBy() + 
                           ", Message: " + message + ", Notification ID: " + savedNotification.getNotificationId());
     }
@@ -648,6 +698,7 @@ public class PdfService {
         notification.setMessage(message);
         notification.setRead(false);
         Notification savedNotification = notificationRepository.save(notification);
+        notificationStreamService.notificationAdded(notification.getUserId());
         System.out.println("DEBUG: Created IT PDF approval notification for user: " + vendorPdf.getUploadedBy() + 
                           ", Message: " + message + ", Notification ID: " + savedNotification.getNotificationId());
     }
@@ -669,6 +720,7 @@ public class PdfService {
         notification.setMessage(message);
         notification.setRead(false);
         Notification savedNotification = notificationRepository.save(notification);
+        notificationStreamService.notificationAdded(notification.getUserId());
         System.out.println("DEBUG: Created Final PDF approval notification for user: " + vendorPdf.getUploadedBy() + 
                           ", Message: " + message + ", Notification ID: " + savedNotification.getNotificationId());
     }
@@ -679,22 +731,12 @@ public class PdfService {
         return Files.readAllBytes(filePath);
     }
     
-    private List<VendorPdf> getPdfsLinkedToRequisitionsInDepartment(String department, String approvalStage) {
-        try {
-            // Get all PDFs that are linked to requisitions from the specified department
-            List<VendorPdf> allPdfs = vendorPdfRepository.findAllByOrderByUploadedAtDesc();
-            
-            return allPdfs.stream()
-                .filter(pdf -> pdf.getRequisitionId() != null && 
-                              approvalStage.equals(pdf.getApprovalStage()))
-                .filter(pdf -> {
-                    Requisition requisition = requisitionRepository.findById(pdf.getRequisitionId()).orElse(null);
-                    return requisition != null && department.equals(requisition.getDepartment());
-                })
-                .collect(java.util.stream.Collectors.toList());
-        } catch (Exception e) {
-            System.out.println("DEBUG: Error getting PDFs linked to requisitions in department: " + e.getMessage());
-            return new java.util.ArrayList<>();
+    // File-backed resource for streaming downloads; the content is never loaded into the heap
+    public Resource getPdfResource(VendorPdf pdf) throws IOException {
+        Path filePath = Paths.get(pdf.getFilePath());
+        if (!Files.isReadable(filePath)) {
+            throw new NoSuchFileException(pdf.getFilePath());
         }
+        return new FileSystemResource(filePath);
     }
 }
@@ -0,0 +1,100 @@
+package com.example.backend.service;
+
+import com.example.backend.repo.PoSequenceRepository;
+import com.example.backend.repo.PurchaseOrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues PO numbers in the format PO-YYYY-MM-XXXX, restarting at 0001 every month.
+ *
+ * Each month has one counter row in po_sequence. A node claims a block of numbers with a
+ * single UPDATE in its own short transaction and hands them out from memory, so concurrent
+ * creates never collide and bulk imports cost one round trip per block. Numbers left in a
+ * block when a node stops are skipped; set po.sequence.block-size=1 for gap-free numbering.
+ */
+@Service
+public class PoNumberSequenceService {
+    private final PoSequenceRepository poSequenceRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final TransactionTemplate allocationTransaction;
+
+    @Value("${po.sequence.block-size:20}")
+    private int blockSize;
+
+    // Numbers claimed by this node but not yet handed out, per month
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public PoNumberSequenceService(PoSequenceRepository poSequenceRepository,
+                                   PurchaseOrderRepository purchaseOrderRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.poSequenceRepository = poSequenceRepository;
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.allocationTransaction = new TransactionTemplate(transactionManager);
+        this.allocationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String nextPoNumber() {
+        YearMonth month = YearMonth.now(ZoneId.systemDefault());
+        String periodKey = month.toString();
+        long sequence = next(periodKey);
+        return String.format("PO-%d-%02d-%04d", month.getYear(), month.getMonthValue(), sequence);
+    }
+
+    private long next(String periodKey) {
+        Block block = blocks.get(periodKey);
+        if (block == null) {
+            // New month: drop blocks of earlier months before creating this one
+            blocks.keySet().removeIf(key -> !key.equals(periodKey));
+            block = blocks.computeIfAbsent(periodKey, key -> new Block());
+        }
+
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long end = allocateBlock(periodKey);
+                block.next = end - blockSize;
+                block.end = end;
+            }
+            return block.next++;
+        }
+    }
+
+    // Returns the exclusive upper bound of a freshly claimed block of blockSize numbers
+    private long allocateBlock(String periodKey) {
+        Long end = allocationTransaction.execute(status -> {
+            if (poSequenceRepository.advance(periodKey, blockSize) == 0) {
+                poSequenceRepository.insertIfAbsent(periodKey, firstUnusedSequence(periodKey));
+                poSequenceRepository.advance(periodKey, blockSize);
+            }
+            return poSequenceRepository.findNextValue(periodKey).orElseThrow();
+        });
+        return end;
+    }
+
+    // Continue after PO numbers already issued this month (before the counter existed)
+    private long firstUnusedSequence(String periodKey) {
+        String prefix = "PO-" + periodKey + "-";
+        long max = 0;
+        for (String poNumber : purchaseOrderRepository.findPoNumbersStartingWith(prefix)) {
+            try {
+                max = Math.max(max, Long.parseLong(poNumber.substring(prefix.length())));
+            } catch (NumberFormatException e) {
+                // Not issued by this generator, ignore
+            }
+        }
+        return max + 1;
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.backend.service;
 import com.example.backend.model.*;
 import com.example.backend.repo.*;
 import com.example.backend.dto.CreateRequisitionRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,22 +13,72 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ProcureService {
+    // Notification event type used for de-duplication keys
+    private static final String REQUISITION_CREATED = "REQUISITION_CREATED";
+
     private final RequisitionRepository requisitionRepository;
     private final BudgetRepository budgetRepository;
     private final ApprovalRepository approvalRepository;
     private final NotificationRepository notificationRepository;
+    private final BudgetReservationService budgetReservationService;
+    private final PaginationService paginationService;
+    private final StatusCounterService statusCounterService;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final NotificationStreamService notificationStreamService;
 
     public ProcureService(RequisitionRepository requisitionRepository,
                           BudgetRepository budgetRepository,
                           ApprovalRepository approvalRepository,
-                          NotificationRepository notificationRepository) {
+                          NotificationRepository notificationRepository,
+                          BudgetReservationService budgetReservationService,
+                          PaginationService paginationService,
+                          StatusCounterService statusCounterService,
+                          CacheInvalidationService cacheInvalidationService,
+                          NotificationOutboxService notificationOutboxService,
+                          NotificationStreamService notificationStreamService) {
         this.requisitionRepository = requisitionRepository;
         this.budgetRepository = budgetRepository;
         this.approvalRepository = approvalRepository;
         this.notificationRepository = notificationRepository;
+        this.budgetReservationService = budgetReservationService;
+        this.paginationService = paginationService;
+        this.statusCounterService = statusCounterService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.notificationStreamService = notificationStreamService;
+    }
+
+    // Keyset page of the requisitions a role may see, newest first
+    public Slice<Requisition> scrollRequisitionsForRole(String role, String username, String department, String cursor, int size) {
+        Specification<Requisition> filter;
+        switch (role) {
+            case "SUPERADMIN":
+                filter = null;
+                break;
+            case "DEPARTMENT_MANAGER":
+                filter = (root, query, cb) -> cb.equal(root.get("department"), department);
+                break;
+            case "IT_MANAGER":
+                filter = (root, query, cb) -> root.get("status").in(RequisitionStatus.PENDING_IT_APPROVAL,
+                    RequisitionStatus.PENDING_FINANCE_APPROVAL, RequisitionStatus.APPROVED, RequisitionStatus.REJECTED);
+                break;
+            case "FINANCE_MANAGER":
+                filter = (root, query, cb) -> root.get("status").in(RequisitionStatus.PENDING_FINANCE_APPROVAL,
+                    RequisitionStatus.APPROVED, RequisitionStatus.REJECTED);
+                break;
+            default:
+                filter = (root, query, cb) -> cb.equal(root.get("createdBy"), username);
+        }
+        return paginationService.scroll(requisitionRepository, filter, "createdAt", cursor, size);
+    }
+
+    public String nextRequisitionCursor(Slice<Requisition> slice) {
+        return paginationService.nextCursor(slice, Requisition::getCreatedAt, Requisition::getId);
     }
 
     public Requisition createRequisition(String createdBy, String itemName, Integer quantity, BigDecimal price, String department) {
@@ -38,30 +90,29 @@ public class ProcureService {
         r.setDepartment(department);
         r.setStatus(RequisitionStatus.PENDING_DEPARTMENT_APPROVAL); // First step: Department Manager
         Requisition savedRequisition = requisitionRepository.save(r);
+        statusCounterService.requisitionCreated(department, savedRequisition.getStatus());
+        cacheInvalidationService.requisitionCreated(createdBy, department, savedRequisition.getStatus());
         
         // Notify Department Manager about new PR
         String departmentManager = getDepartmentManager(department);
         
-        // Check if notification already exists for this requisition to prevent duplicates
-        String expectedMessageStart = "New PR #" + savedRequisition.getId() + " from " + createdBy;
-        boolean notificationExists = notificationRepository.findAll().stream()
-            .anyMatch(n -> n.getUserId().equals(departmentManager) && 
-                          n.getMessage().startsWith(expectedMessageStart));
+        // Idempotent insert keyed on (event, requisition, recipient) prevents duplicates
+        Notification deptNotification = new Notification();
+        deptNotification.setUserId(departmentManager);
+        deptNotification.setMessage("New PR #" + savedRequisition.getId() + " from " + createdBy + " (" + department + ") for " + quantity + " " + itemName + " (₹" + price + ") needs Department approval");
+        deptNotification.setDedupKey(Notification.dedupKey(REQUISITION_CREATED, savedRequisition.getId(), departmentManager));
         
-        if (notificationExists) {
-            System.out.println("DEBUG: Notification already exists for PR #" + savedRequisition.getId() + ", skipping duplicate creation");
+        if (notificationRepository.insertIfAbsent(deptNotification)) {
+            notificationStreamService.notificationAdded(departmentManager);
+            System.out.println("DEBUG: Created notification for Department Manager: " + departmentManager);
         } else {
-            Notification deptNotification = new Notification();
-            deptNotification.setUserId(departmentManager);
-            deptNotification.setMessage("New PR #" + savedRequisition.getId() + " from " + createdBy + " (" + department + ") for " + quantity + " " + itemName + " (₹" + price + ") needs Department approval");
-            Notification savedNotification = notificationRepository.save(deptNotification);
-            System.out.println("DEBUG: Created notification for Department Manager: " + savedNotification.getNotificationId());
+            System.out.println("DEBUG: Notification already exists for PR #" + savedRequisition.getId() + ", skipping duplicate creation");
         }
         
         return savedRequisition;
     }
     
-    private String getDepartmentManager(String department) {
+    static String getDepartmentManager(String department) {
         // Map departments to their managers
         switch (department.toLowerCase()) {
             case "sales":
@@ -83,52 +134,47 @@ public class ProcureService {
         requisition.setDepartment(department);
         requisition.setStatus(RequisitionStatus.PENDING_DEPARTMENT_APPROVAL); // First step: Department Manager
         
-        // Save the requisition first to get the ID
-        Requisition savedRequisition = requisitionRepository.save(requisition);
-        System.out.println("DEBUG: Saved requisition with ID: " + savedRequisition.getId());
-        
         // Add items to the requisition
         for (CreateRequisitionRequest.RequisitionItemDto itemDto : itemDtos) {
             RequisitionItem item = new RequisitionItem();
             item.setItemName(itemDto.getItemName());
             item.setQuantity(itemDto.getQuantity());
             item.setPrice(itemDto.getPrice());
-            savedRequisition.addItem(item);
+            requisition.addItem(item);
         }
         
-        // Save the requisition with items
-        savedRequisition = requisitionRepository.save(savedRequisition);
-        System.out.println("DEBUG: Saved requisition with items, final ID: " + savedRequisition.getId());
+        // Single save; items cascade with the requisition
+        Requisition savedRequisition = requisitionRepository.save(requisition);
+        System.out.println("DEBUG: Saved requisition with items, ID: " + savedRequisition.getId());
+        statusCounterService.requisitionCreated(department, savedRequisition.getStatus());
+        cacheInvalidationService.requisitionCreated(createdBy, department, savedRequisition.getStatus());
         
         // Create notification for Department Manager (first step in approval process)
         String departmentManager = getDepartmentManager(department);
         System.out.println("DEBUG: Department manager for " + department + " is: " + departmentManager);
         
-        // Check if notification already exists for this requisition to prevent duplicates
-        String expectedMessageStart = "New PR #" + savedRequisition.getId() + " from " + createdBy;
-        boolean notificationExists = notificationRepository.findAll().stream()
-            .anyMatch(n -> n.getUserId().equals(departmentManager) && 
-                          n.getMessage().startsWith(expectedMessageStart));
+        Notification deptNotification = new Notification();
+        deptNotification.setUserId(departmentManager);
         
-        if (notificationExists) {
-            System.out.println("DEBUG: Notification already exists for PR #" + savedRequisition.getId() + ", skipping duplicate creation");
+        // Build notification message with items summary
+        StringBuilder message = new StringBuilder("New PR #" + savedRequisition.getId() + " from " + createdBy + " (" + department + ") with " + itemDtos.size() + " items needs Department approval:\n");
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (CreateRequisitionRequest.RequisitionItemDto itemDto : itemDtos) {
+            BigDecimal lineTotal = itemDto.getPrice().multiply(BigDecimal.valueOf(itemDto.getQuantity()));
+            totalAmount = totalAmount.add(lineTotal);
+            message.append("- ").append(itemDto.getQuantity()).append("x ").append(itemDto.getItemName()).append(" @ ₹").append(itemDto.getPrice()).append(" = ₹").append(lineTotal).append("\n");
+        }
+        message.append("Total Amount: ₹").append(totalAmount);
+        
+        deptNotification.setMessage(message.toString());
+        deptNotification.setDedupKey(Notification.dedupKey(REQUISITION_CREATED, savedRequisition.getId(), departmentManager));
+        
+        // Idempotent insert keyed on (event, requisition, recipient) prevents duplicates
+        if (notificationRepository.insertIfAbsent(deptNotification)) {
+            notificationStreamService.notificationAdded(departmentManager);
+            System.out.println("DEBUG: Created SINGLE notification for Department Manager: " + departmentManager);
         } else {
-            Notification deptNotification = new Notification();
-            deptNotification.setUserId(departmentManager);
-            
-            // Build notification message with items summary
-            StringBuilder message = new StringBuilder("New PR #" + savedRequisition.getId() + " from " + createdBy + " (" + department + ") with " + itemDtos.size() + " items needs Department approval:\n");
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            for (CreateRequisitionRequest.RequisitionItemDto itemDto : itemDtos) {
-                BigDecimal lineTotal = itemDto.getPrice().multiply(BigDecimal.valueOf(itemDto.getQuantity()));
-                totalAmount = totalAmount.add(lineTotal);
-                message.append("- ").append(itemDto.getQuantity()).append("x ").append(itemDto.getItemName()).append(" @ ₹").append(itemDto.getPrice()).append(" = ₹").append(lineTotal).append("\n");
-            }
-            message.append("Total Amount: ₹").append(totalAmount);
-            
-            deptNotification.setMessage(message.toString());
-            Notification savedNotification = notificationRepository.save(deptNotification);
-            System.out.println("DEBUG: Created SINGLE notification for Department Manager: " + savedNotification.getNotificationId() + " for user: " + departmentManager);
+            System.out.println("DEBUG: Notification already exists for PR #" + savedRequisition.getId() + ", skipping duplicate creation");
         }
         
         return savedRequisition;
@@ -137,14 +183,17 @@ public class ProcureService {
     @Transactional
     public Requisition updateRequisitionWithItems(Long requisitionId, String department, List<CreateRequisitionRequest.RequisitionItemDto> itemDtos) {
         // Find the existing requisition
-        Requisition requisition = requisitionRepository.findById(requisitionId)
+        Requisition requisition = requisitionRepository.findWithItemsById(requisitionId)
             .orElseThrow(() -> new IllegalArgumentException("Requisition not found with ID: " + requisitionId));
         
+        String previousDepartment = requisition.getDepartment();
+        RequisitionStatus previousStatus = requisition.getStatus();
+        
         // Update department
         requisition.setDepartment(department);
         
         // Clear existing items (orphanRemoval = true will handle deletion)
-        requisition.getItems().clear();
+        requisition.clearItems();
         
         // Add new items
         for (CreateRequisitionRequest.RequisitionItemDto itemDto : itemDtos) {
@@ -160,6 +209,8 @@ public class ProcureService {
         
         // Save the updated requisition
         Requisition updatedRequisition = requisitionRepository.save(requisition);
+        statusCounterService.requisitionMoved(previousDepartment, previousStatus, department, updatedRequisition.getStatus());
+        cacheInvalidationService.requisitionChanged(updatedRequisition.getCreatedBy(), previousDepartment, previousStatus, department, updatedRequisition.getStatus());
         
         // Create notification for IT Manager about the update
         Notification itNotification = new Notification();
@@ -177,6 +228,7 @@ public class ProcureService {
         
         itNotification.setMessage(message.toString());
         Notification savedNotification = notificationRepository.save(itNotification);
+        notificationStreamService.notificationAdded(itNotification.getUserId());
         System.out.println("DEBUG: Created notification for IT Manager about update: " + savedNotification.getNotificationId());
         
         return updatedRequisition;
@@ -185,6 +237,7 @@ public class ProcureService {
     @Transactional
     public Requisition departmentDecision(Long requisitionId, String departmentManager, String decision, String comments) {
         Requisition r = requisitionRepository.findById(requisitionId).orElseThrow();
+        RequisitionStatus previousStatus = r.getStatus();
         Approval a = new Approval();
         a.setRequisitionId(requisitionId);
         a.setApproverRole("DEPARTMENT");
@@ -194,51 +247,22 @@ public class ProcureService {
 
         if ("APPROVE".equalsIgnoreCase(decision)) {
             r.setStatus(RequisitionStatus.PENDING_IT_APPROVAL);
-            
-            // Create description for notifications
-            String itemDescription;
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                itemDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                itemDescription = r.getQuantity() + " " + r.getItemName();
-            }
-            
-            // Notify IT Manager about Department approval
-            Notification itNotification = new Notification();
-            itNotification.setUserId("shambhu"); // IT Manager username
-            itNotification.setMessage("PR #" + requisitionId + " from " + r.getCreatedBy() + " (" + r.getDepartment() + ") for " + itemDescription + " has been approved by Department and needs IT approval");
-            notificationRepository.save(itNotification);
-            
-            // Notify requester about Department approval
-            Notification requesterNotification = new Notification();
-            requesterNotification.setUserId(r.getCreatedBy());
-            requesterNotification.setMessage("Your PR #" + requisitionId + " for " + itemDescription + " has been approved by Department and sent to IT");
-            notificationRepository.save(requesterNotification);
-            
+            // Requester and IT Manager are notified by the outbox dispatcher
+            notificationOutboxService.append(NotificationTemplate.DEPARTMENT_APPROVED, r);
         } else if ("REJECT".equalsIgnoreCase(decision)) {
             r.setStatus(RequisitionStatus.REJECTED);
-            
-            // Create description for rejection notification
-            String rejectionDescription;
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                rejectionDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                rejectionDescription = r.getQuantity() + " " + r.getItemName();
-            }
-            
-            // Notify requester about rejection
-            Notification rejectionNotification = new Notification();
-            rejectionNotification.setUserId(r.getCreatedBy());
-            rejectionNotification.setMessage("Your PR #" + requisitionId + " for " + rejectionDescription + " has been rejected by Department Manager");
-            notificationRepository.save(rejectionNotification);
+            notificationOutboxService.append(NotificationTemplate.DEPARTMENT_REJECTED, r);
         }
 
+        statusCounterService.requisitionMoved(r.getDepartment(), previousStatus, r.getStatus());
+        cacheInvalidationService.requisitionStatusChanged(r.getCreatedBy(), r.getDepartment(), previousStatus, r.getStatus());
         return requisitionRepository.save(r);
     }
 
     @Transactional
     public Requisition itDecision(Long requisitionId, String itManager, String decision, String comments) {
         Requisition r = requisitionRepository.findById(requisitionId).orElseThrow();
+        RequisitionStatus previousStatus = r.getStatus();
         Approval a = new Approval();
         a.setRequisitionId(requisitionId);
         a.setApproverRole("IT");
@@ -249,72 +273,30 @@ public class ProcureService {
         if ("APPROVE".equalsIgnoreCase(decision)) {
             r.setApprovedByIt(itManager);
             r.setStatus(RequisitionStatus.PENDING_FINANCE_APPROVAL);
-            
-            // Create description for notifications
-            String itemDescription;
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                itemDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                itemDescription = r.getQuantity() + " " + r.getItemName();
-            }
-            
-            // Notify Finance Manager about IT approval
-            Notification financeNotification = new Notification();
-            financeNotification.setUserId("joshi"); // Finance Manager username
-            financeNotification.setMessage("PR #" + requisitionId + " from " + r.getCreatedBy() + " for " + itemDescription + " has been approved by IT and needs Finance approval");
-            notificationRepository.save(financeNotification);
-            
-            // Notify requester about IT approval
-            Notification requesterNotification = new Notification();
-            requesterNotification.setUserId(r.getCreatedBy());
-            requesterNotification.setMessage("Your PR #" + requisitionId + " for " + itemDescription + " has been approved by IT and sent to Finance");
-            notificationRepository.save(requesterNotification);
-            
+            // Requester and Finance Manager are notified by the outbox dispatcher
+            notificationOutboxService.append(NotificationTemplate.IT_APPROVED, r);
         } else if ("REJECT".equalsIgnoreCase(decision)) {
             r.setStatus(RequisitionStatus.REJECTED);
-            
-            // Create description for rejection notification
-            String rejectionDescription;
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                rejectionDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                rejectionDescription = r.getQuantity() + " " + r.getItemName();
-            }
-            
-            // Notify requester about rejection
-            Notification rejectionNotification = new Notification();
-            rejectionNotification.setUserId(r.getCreatedBy());
-            rejectionNotification.setMessage("Your PR #" + requisitionId + " for " + rejectionDescription + " has been rejected by IT Manager");
-            notificationRepository.save(rejectionNotification);
-            
+            notificationOutboxService.append(NotificationTemplate.IT_REJECTED, r);
         } else {
             r.setStatus(RequisitionStatus.SENT_BACK);
-            
-            // Create description for sent back notification
-            String sentBackDescription;
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                sentBackDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                sentBackDescription = r.getQuantity() + " " + r.getItemName();
-            }
-            
-            // Notify requester about being sent back
-            Notification sentBackNotification = new Notification();
-            sentBackNotification.setUserId(r.getCreatedBy());
-            sentBackNotification.setMessage("Your PR #" + requisitionId + " for " + sentBackDescription + " has been sent back by IT Manager for modifications");
-            notificationRepository.save(sentBackNotification);
+            notificationOutboxService.append(NotificationTemplate.IT_SENT_BACK, r);
         }
+        statusCounterService.requisitionMoved(r.getDepartment(), previousStatus, r.getStatus());
+        cacheInvalidationService.requisitionStatusChanged(r.getCreatedBy(), r.getDepartment(), previousStatus, r.getStatus());
         return r;
     }
 
     @Transactional
     public Requisition financeDecision(Long requisitionId, String financeManager, String decision, String comments, String department) {
-        Requisition r = requisitionRepository.findById(requisitionId).orElseThrow();
+        // Lock the row so two concurrent decisions on the same requisition cannot both pass the status check
+        Requisition r = requisitionRepository.findByIdForUpdate(requisitionId).orElseThrow();
         
         // Check if requisition is in correct status for finance approval
         if (r.getStatus() != RequisitionStatus.PENDING_FINANCE_APPROVAL) {
             throw new IllegalStateException("Requisition is not pending finance approval. Current status: " + r.getStatus());
         }
+        RequisitionStatus previousStatus = r.getStatus();
 
         Approval a = new Approval();
         a.setRequisitionId(requisitionId);
@@ -330,73 +312,46 @@ public class ProcureService {
                 throw new IllegalArgumentException("Requisition department is missing");
             }
             
-            Budget budget = budgetRepository.findByDepartment(requisitionDepartment)
-                    .orElseThrow(() -> new IllegalArgumentException("Budget not found for department: " + requisitionDepartment));
-
-            // Calculate total amount - handle both legacy single-item and new multi-item requisitions
-            BigDecimal requestAmount;
-            String itemDescription;
-            
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                // Multi-item requisition
-                requestAmount = r.getTotalAmount();
-                itemDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                // Legacy single-item requisition
-                requestAmount = r.getPrice().multiply(BigDecimal.valueOf(r.getQuantity()));
-                itemDescription = r.getQuantity() + " " + r.getItemName();
-            }
+            BigDecimal requestAmount = requestAmount(r);
             
-            if (budget.getRemainingBudget().compareTo(requestAmount) < 0) {
-                throw new IllegalStateException("Insufficient budget");
-            }
-            budget.setRemainingBudget(budget.getRemainingBudget().subtract(requestAmount));
-            budgetRepository.save(budget);
+            // Atomic conditional deduction in the database (throws on missing or insufficient budget)
+            budgetReservationService.reserveAndCommit(requisitionDepartment, requisitionId, requestAmount);
+            BigDecimal remainingBudget = budgetReservationService.getRemainingBudget(requisitionDepartment);
+            cacheInvalidationService.budgetsChanged(requisitionDepartment);
 
             r.setApprovedByFinance(financeManager);
             r.setStatus(RequisitionStatus.APPROVED);
 
-            Notification n = new Notification();
-            n.setUserId(r.getCreatedBy());
-            n.setMessage("Your request for " + itemDescription + " (₹" + requestAmount + ") has been approved by Finance. Remaining " + requisitionDepartment + " Budget: ₹" + budget.getRemainingBudget());
-            notificationRepository.save(n);
+            notificationOutboxService.append(NotificationTemplate.FINANCE_APPROVED, r,
+                Map.of("amount", requestAmount.toPlainString(), "remainingBudget", remainingBudget.toPlainString()));
         } else if ("REJECT".equalsIgnoreCase(decision)) {
             r.setStatus(RequisitionStatus.REJECTED);
-            
-            // Notify requester about Finance rejection
-            Notification financeRejectionNotification = new Notification();
-            financeRejectionNotification.setUserId(r.getCreatedBy());
-            
-            String rejectionDescription;
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                rejectionDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                rejectionDescription = r.getQuantity() + " " + r.getItemName();
-            }
-            
-            financeRejectionNotification.setMessage("Your PR #" + requisitionId + " for " + rejectionDescription + " has been rejected by Finance Manager");
-            notificationRepository.save(financeRejectionNotification);
-            
+            notificationOutboxService.append(NotificationTemplate.FINANCE_REJECTED, r);
         } else {
             r.setStatus(RequisitionStatus.SENT_BACK);
-            
-            // Notify requester about being sent back by Finance
-            Notification financeSentBackNotification = new Notification();
-            financeSentBackNotification.setUserId(r.getCreatedBy());
-            
-            String sentBackDescription;
-            if (r.getItems() != null && !r.getItems().isEmpty()) {
-                sentBackDescription = r.getItems().size() + " items (" + r.getItemNames() + ")";
-            } else {
-                sentBackDescription = r.getQuantity() + " " + r.getItemName();
-            }
-            
-            financeSentBackNotification.setMessage("Your PR #" + requisitionId + " for " + sentBackDescription + " has been sent back by Finance Manager for modifications");
-            notificationRepository.save(financeSentBackNotification);
+            notificationOutboxService.append(NotificationTemplate.FINANCE_SENT_BACK, r);
         }
+        statusCounterService.requisitionMoved(r.getDepartment(), previousStatus, r.getStatus());
+        cacheInvalidationService.requisitionStatusChanged(r.getCreatedBy(), r.getDepartment(), previousStatus, r.getStatus());
         return r;
     }
 
+    // Amount charged to the budget - handles both legacy single-item and new multi-item requisitions
+    static BigDecimal requestAmount(Requisition r) {
+        if (r.isLegacySingleItem()) {
+            return r.getPrice().multiply(BigDecimal.valueOf(r.getQuantity()));
+        }
+        // Multi-item requisition
+        return r.getTotalAmount();
+    }
+
+    @Transactional
+    public void deleteRequisition(Requisition requisition) {
+        requisitionRepository.delete(requisition);
+        statusCounterService.requisitionDeleted(requisition.getDepartment(), requisition.getStatus());
+        cacheInvalidationService.requisitionDeleted(requisition.getCreatedBy(), requisition.getDepartment(), requisition.getStatus());
+    }
+
     public List<Budget> getAllBudgets() {
         return budgetRepository.findAll();
     }
@@ -0,0 +1,166 @@
+package com.example.backend.service;
+
+import com.example.backend.model.PurchaseOrder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Rendered purchase order PDFs, cached on disk.
+ *
+ * A rendered file is keyed by PO id plus updatedAt, so any change to the PO (including a
+ * status transition) produces a new key and the old file is deleted on the next render.
+ * Rendering runs on the pdfExecutor; concurrent requests for the same version share one render.
+ * When the executor is full, blocking callers render on their own thread and render-ahead is skipped.
+ */
+@Service
+public class PurchaseOrderDocumentService {
+    
+    private static final String RENDER_DIR = "uploads/po-pdfs/";
+    
+    private final PurchaseOrderPdfService pdfService;
+    private final Executor pdfExecutor;
+    
+    // Renders in progress, keyed like the files on disk
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    
+    public PurchaseOrderDocumentService(PurchaseOrderPdfService pdfService,
+                                        @Qualifier("pdfExecutor") Executor pdfExecutor) {
+        this.pdfService = pdfService;
+        this.pdfExecutor = pdfExecutor;
+    }
+    
+    // Returns the rendered PDF file, rendering it on the pdfExecutor if this version is not on disk yet.
+    // When the executor is saturated the future fails with RejectedExecutionException.
+    public CompletableFuture<Path> getOrRender(PurchaseOrder po) {
+        return getOrRender(po, false);
+    }
+    
+    private CompletableFuture<Path> getOrRender(PurchaseOrder po, boolean inlineWhenBusy) {
+        String key = cacheKey(po);
+        Path file = Paths.get(RENDER_DIR, key + ".pdf");
+        if (Files.exists(file)) {
+            return CompletableFuture.completedFuture(file);
+        }
+        CompletableFuture<Path> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Path> rendering = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, rendering);
+        if (existing != null) {
+            return existing;
+        }
+        // Attached outside any map operation: a fast failure may complete the future on this thread
+        rendering.whenComplete((path, error) -> inFlight.remove(key, rendering));
+        try {
+            pdfExecutor.execute(() -> complete(rendering, po, file));
+        } catch (RejectedExecutionException e) {
+            if (inlineWhenBusy) {
+                // The caller blocks on the result anyway: render on its thread instead of failing
+                complete(rendering, po, file);
+            } else {
+                rendering.completeExceptionally(e);
+            }
+        }
+        return rendering;
+    }
+    
+    private void complete(CompletableFuture<Path> rendering, PurchaseOrder po, Path file) {
+        try {
+            rendering.complete(render(po, file));
+        } catch (Throwable e) {
+            rendering.completeExceptionally(e);
+        }
+    }
+    
+    // Blocking variant for request threads; repeat calls for an unchanged PO only touch the disk
+    public Path getRenderedPdf(PurchaseOrder po) throws IOException {
+        try {
+            return getOrRender(po, true).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Failed to render Purchase Order PDF: " + cause.getMessage(), cause);
+        }
+    }
+    
+    public byte[] getRenderedPdfBytes(PurchaseOrder po) throws IOException {
+        return Files.readAllBytes(getRenderedPdf(po));
+    }
+    
+    // Render-ahead hook: warm the cache in the background, e.g. after a status transition
+    // Never throws: callers run it after saving the PO, and a render problem must not fail that request
+    public void renderAhead(PurchaseOrder po) {
+        try {
+            getOrRender(po).exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                // A busy executor just skips the render-ahead; the PDF is rendered when first requested
+                if (!(cause instanceof RejectedExecutionException)) {
+                    System.err.println("Render-ahead failed for PO " + po.getPoNumber() + ": " + cause.getMessage());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Render-ahead failed for PO " + po.getPoNumber() + ": " + e.getMessage());
+        }
+    }
+    
+    // Remove every rendered version of a PO (PO deleted or edited)
+    public void invalidate(Long poId) {
+        deleteVersions(poId, null);
+    }
+    
+    private Path render(PurchaseOrder po, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            byte[] pdfBytes = pdfService.generatePurchaseOrderPdf(po);
+            
+            // Write to a temp file and move into place so readers never see a partial PDF
+            Path tmp = Files.createTempFile(file.getParent(), "render-", ".tmp");
+            Files.write(tmp, pdfBytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            
+            deleteVersions(po.getId(), file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void deleteVersions(Long poId, Path keep) {
+        Path dir = Paths.get(RENDER_DIR);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "PO_" + poId + "_*.pdf")) {
+            for (Path path : stream) {
+                if (!path.equals(keep)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error removing rendered PDFs for PO " + poId + ": " + e.getMessage());
+        }
+    }
+    
+    private static String cacheKey(PurchaseOrder po) {
+        long version = po.getUpdatedAt() != null ? po.getUpdatedAt().toEpochMilli() : 0L;
+        return "PO_" + po.getId() + "_" + version;
+    }
+}
@@ -4,6 +4,8 @@ import com.example.backend.model.PurchaseOrder;
 import com.example.backend.model.POStatus;
 import com.example.backend.repo.PurchaseOrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -17,6 +19,15 @@ public class PurchaseOrderService {
     @Autowired
     private PurchaseOrderRepository purchaseOrderRepository;
     
+    @Autowired
+    private PoNumberSequenceService poNumberSequenceService;
+    
+    @Autowired
+    private PurchaseOrderDocumentService documentService;
+    
+    @Autowired
+    private PaginationService paginationService;
+    
     public PurchaseOrder createPurchaseOrder(String billToCompany, String billToAddress, String billToPAN, String billToGSTIN,
                                            String vendorName, String vendorAddress, String vendorContactPerson, String vendorMobileNo,
                                            String shipToAddress, String scopeOfOrder, String shippingMethod, String shippingTerms,
@@ -124,7 +135,9 @@ public class PurchaseOrderService {
         
         po.setUpdatedAt(Instant.now());
         
-        return purchaseOrderRepository.save(po);
+        PurchaseOrder saved = purchaseOrderRepository.save(po);
+        documentService.invalidate(saved.getId());
+        return saved;
     }
     
     public PurchaseOrder updatePOStatus(Long id, POStatus status) {
@@ -134,11 +147,22 @@ public class PurchaseOrderService {
         po.setStatus(status);
         po.setUpdatedAt(Instant.now());
         
-        return purchaseOrderRepository.save(po);
+        PurchaseOrder saved = purchaseOrderRepository.save(po);
+        
+        // Render the new version ahead of the next download / email
+        documentService.renderAhead(saved);
+        return saved;
+    }
+    
+    // Keyset page of purchase orders, newest first; a null department means all departments
+    public Slice<PurchaseOrder> scrollPurchaseOrders(String department, String cursor, int size) {
+        Specification<PurchaseOrder> filter = department == null ? null
+            : (root, query, cb) -> cb.equal(root.get("department"), department);
+        return paginationService.scroll(purchaseOrderRepository, filter, "createdAt", cursor, size);
     }
     
-    public List<PurchaseOrder> getAllPurchaseOrders() {
-        return purchaseOrderRepository.findAllByOrderByCreatedAtDesc();
+    public String nextPurchaseOrderCursor(Slice<PurchaseOrder> slice) {
+        return paginationService.nextCursor(slice, PurchaseOrder::getCreatedAt, PurchaseOrder::getId);
     }
     
     public List<PurchaseOrder> getPurchaseOrdersByCreator(String createdBy) {
@@ -168,20 +192,14 @@ public class PurchaseOrderService {
         // Only allow deletion of DRAFT status POs
         if (po.getStatus() == POStatus.DRAFT) {
             purchaseOrderRepository.delete(po);
+            documentService.invalidate(id);
         } else {
             throw new RuntimeException("Cannot delete Purchase Order that is not in DRAFT status");
         }
     }
     
     private String generatePONumber() {
-        // Generate PO number in format: PO-YYYY-MM-XXXX
-        String year = String.valueOf(Instant.now().atZone(java.time.ZoneId.systemDefault()).getYear());
-        String month = String.format("%02d", Instant.now().atZone(java.time.ZoneId.systemDefault()).getMonthValue());
-        
-        // Get count of POs created this month
-        long count = purchaseOrderRepository.count();
-        String sequence = String.format("%04d", count + 1);
-        
-        return "PO-" + year + "-" + month + "-" + sequence;
+        // PO-YYYY-MM-XXXX from the per-month sequence (block-allocated, safe across nodes)
+        return poNumberSequenceService.nextPoNumber();
     }
 }
@@ -0,0 +1,525 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.RequisitionImportReport;
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationTemplate;
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionItem;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.NotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Streaming bulk import of requisitions from CSV or NDJSON.
+ *
+ * The input is read line by line and never held in memory as a whole. Valid requisitions are collected into
+ * chunks of import.batch-size, and each chunk is written in its own transaction with two JDBC batches:
+ * the requisition rows with their stored totals, then all of their items. Counters and cache evictions are
+ * adjusted once per chunk. Once the input is exhausted, each department manager gets one summary
+ * notification for all of their new requisitions, instead of one per requisition.
+ *
+ * CSV has a header row and one item per row. Consecutive rows with the same ref form one requisition, and
+ * without a ref column every row is its own requisition. Columns are ref, department, itemName, quantity
+ * and price; department falls back to the uploader's. Quoted fields may contain commas and doubled quotes
+ * but not line breaks.
+ * NDJSON has one requisition per line: {"ref": ..., "department": ..., "items": [{"itemName", "quantity", "price"}]}.
+ */
+@Service
+public class RequisitionImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        // text/csv, application/x-ndjson or application/jsonl; parameters such as charset are ignored
+        public static Format fromContentType(String contentType) {
+            String type = contentType != null ? contentType.split(";")[0].trim().toLowerCase(Locale.ROOT) : "";
+            switch (type) {
+                case "text/csv":
+                    return CSV;
+                case "application/x-ndjson":
+                case "application/jsonl":
+                    return NDJSON;
+                default:
+                    throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+            }
+        }
+    }
+
+    private static final RequisitionStatus IMPORTED_STATUS = RequisitionStatus.PENDING_DEPARTMENT_APPROVAL;
+
+    // Upper bound of requisition.total_amount (NUMERIC(15,2)) and of the VARCHAR(255) text columns
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("9999999999999.99");
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT_REQUISITION =
+        "INSERT INTO requisition (created_by, department, status, created_at, total_amount, total_quantity, item_count, items_summary) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM =
+        "INSERT INTO requisition_items (requisition_id, item_name, quantity, price) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusCounterService statusCounterService;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final NotificationRepository notificationRepository;
+    private final NotificationStreamService notificationStreamService;
+    private final ObjectReader jsonReader;
+
+    @Value("${import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${import.max-errors:1000}")
+    private int maxErrors;
+
+    public RequisitionImportService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    StatusCounterService statusCounterService,
+                                    CacheInvalidationService cacheInvalidationService,
+                                    NotificationRepository notificationRepository,
+                                    NotificationStreamService notificationStreamService,
+                                    ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statusCounterService = statusCounterService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.notificationRepository = notificationRepository;
+        this.notificationStreamService = notificationStreamService;
+        // Prices keep their decimal digits exactly
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    /**
+     * Imports every valid requisition of the input. Chunks that were written stay written even if a later
+     * chunk fails; the rows of a failed chunk are reported like invalid rows.
+     */
+    public RequisitionImportReport importRequisitions(InputStream input, Format format, String createdBy,
+                                                      String defaultDepartment) throws IOException {
+        Import run = new Import(createdBy, defaultDepartment);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        }
+        run.flush();
+        notifyManagers(run);
+        return new RequisitionImportReport(run.imported, run.failed, run.errors, run.errorsTruncated);
+    }
+
+    private void readCsv(BufferedReader reader, Import run) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty CSV input");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : new String[] { "itemname", "quantity", "price" }) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+
+        Set<String> seenRefs = new HashSet<>();
+        Candidate current = null;
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = parseCsvLine(line);
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, null, e.getMessage());
+                continue;
+            }
+            String ref = field(fields, columns.get("ref"));
+            if (current != null && (ref == null || !ref.equals(current.ref))) {
+                run.accept(current);
+                current = null;
+            }
+            if (current == null) {
+                if (ref != null && !seenRefs.add(ref)) {
+                    run.reject(lineNumber, ref, "Rows of ref " + ref + " must be contiguous");
+                    continue;
+                }
+                current = run.newCandidate(ref, lineNumber, field(fields, columns.get("department")));
+            } else {
+                String department = field(fields, columns.get("department"));
+                if (department != null && !department.equals(current.requisition.getDepartment())) {
+                    current.invalid(lineNumber, "Department differs from the first row of ref " + ref);
+                }
+            }
+            try {
+                current.requisition.addItem(parseItem(field(fields, columns.get("itemname")),
+                        field(fields, columns.get("quantity")), field(fields, columns.get("price"))));
+            } catch (IllegalArgumentException e) {
+                current.invalid(lineNumber, e.getMessage());
+            }
+        }
+        if (current != null) {
+            run.accept(current);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = jsonReader.readTree(line);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                run.reject(lineNumber, null, "Expected a JSON object");
+                continue;
+            }
+            Candidate candidate = run.newCandidate(text(node, "ref"), lineNumber, text(node, "department"));
+            JsonNode items = node.get("items");
+            if (items == null || !items.isArray()) {
+                candidate.invalid(lineNumber, "Missing items array");
+            } else {
+                for (JsonNode item : items) {
+                    try {
+                        candidate.requisition.addItem(parseItem(text(item, "itemName"), text(item, "quantity"), text(item, "price")));
+                    } catch (IllegalArgumentException e) {
+                        candidate.invalid(lineNumber, e.getMessage());
+                    }
+                }
+            }
+            run.accept(candidate);
+        }
+    }
+
+    private static RequisitionItem parseItem(String itemName, String quantityText, String priceText) {
+        if (itemName == null) {
+            throw new IllegalArgumentException("Missing item name");
+        }
+        if (itemName.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Item name longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(quantityText);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid quantity: " + quantityText);
+        }
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(priceText);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid price: " + priceText);
+        }
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("Price must not be negative");
+        }
+        if (price.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Price must have at most 2 decimal places");
+        }
+        return new RequisitionItem(itemName, quantity, price);
+    }
+
+    // One chunk: requisition rows with generated ids, then their items, in the caller's transaction
+    private void write(List<Candidate> batch, String createdBy) {
+        Timestamp now = Timestamp.from(Instant.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_REQUISITION, new String[] { "id" }),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Requisition r = batch.get(i).requisition;
+                    ps.setString(1, createdBy);
+                    ps.setString(2, r.getDepartment());
+                    ps.setString(3, IMPORTED_STATUS.name());
+                    ps.setTimestamp(4, now);
+                    ps.setBigDecimal(5, r.getTotalAmount());
+                    ps.setInt(6, r.getTotalQuantity());
+                    ps.setInt(7, r.getItemCount());
+                    ps.setString(8, r.getItemNames());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated requisition ids, got " + generated.size());
+        }
+
+        List<Object[]> itemRows = new ArrayList<>();
+        Map<String, Long> createdByDepartment = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Requisition r = batch.get(i).requisition;
+            Number id = (Number) generated.get(i).values().iterator().next();
+            for (RequisitionItem item : r.getItems()) {
+                itemRows.add(new Object[] { id.longValue(), item.getItemName(), item.getQuantity(), item.getPrice() });
+            }
+            createdByDepartment.merge(r.getDepartment(), 1L, Long::sum);
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM, itemRows);
+
+        createdByDepartment.forEach((department, count) -> statusCounterService.requisitionsCreated(department, IMPORTED_STATUS, count));
+        cacheInvalidationService.requisitionsCreated(createdBy, createdByDepartment.keySet(), IMPORTED_STATUS);
+    }
+
+    // One summary per department manager; the requisitions are already committed, so a failure here only loses the notice
+    private void notifyManagers(Import run) {
+        if (run.summaries.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Notification> notifications = new ArrayList<>();
+                for (ManagerSummary summary : run.summaries.values()) {
+                    Map<String, String> args = new LinkedHashMap<>();
+                    args.put("count", String.valueOf(summary.count));
+                    args.put("createdBy", run.createdBy);
+                    args.put("departments", summary.departmentCounts());
+                    args.put("amount", summary.amount.toPlainString());
+                    Notification notification = new Notification();
+                    notification.setUserId(summary.manager);
+                    notification.setEventType(NotificationTemplate.REQUISITIONS_IMPORTED.name());
+                    notification.setEventArgs(NotificationTemplate.writeArgs(args));
+                    notifications.add(notification);
+                }
+                notificationRepository.saveAll(notifications);
+                notificationStreamService.notificationsAdded(new ArrayList<>(run.summaries.keySet()));
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Requisition import notifications failed: " + e.getMessage());
+        }
+    }
+
+    // RFC 4180 fields of a single line
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Trimmed value, null when the column is absent or the value blank
+    private static String field(List<String> fields, Integer column) {
+        if (column == null || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.isBigDecimal() ? value.decimalValue().toPlainString() : value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    // State of one import call
+    private final class Import {
+        private final String createdBy;
+        private final String defaultDepartment;
+        private final List<Candidate> chunk = new ArrayList<>();
+        private final List<RequisitionImportReport.RowError> errors = new ArrayList<>();
+        private final Map<String, ManagerSummary> summaries = new TreeMap<>();
+        private boolean errorsTruncated;
+        private int imported;
+        private int failed;
+
+        Import(String createdBy, String defaultDepartment) {
+            this.createdBy = createdBy;
+            this.defaultDepartment = defaultDepartment;
+        }
+
+        Candidate newCandidate(String ref, long line, String department) {
+            Candidate candidate = new Candidate(this, ref, line);
+            String effective = department != null ? department : defaultDepartment;
+            if (effective == null || effective.isBlank()) {
+                candidate.invalid(line, "Missing department");
+            } else if (effective.length() > MAX_TEXT_LENGTH) {
+                candidate.invalid(line, "Department longer than " + MAX_TEXT_LENGTH + " characters");
+            }
+            candidate.requisition.setDepartment(effective);
+            return candidate;
+        }
+
+        // A fully read requisition: queued for the next chunk if every row of it was valid
+        void accept(Candidate candidate) {
+            if (candidate.valid && candidate.requisition.getItemCount() == 0) {
+                candidate.invalid(candidate.line, "Requisition has no items");
+            }
+            if (candidate.valid && candidate.requisition.getTotalAmount().compareTo(MAX_AMOUNT) > 0) {
+                candidate.invalid(candidate.line, "Total amount exceeds " + MAX_AMOUNT.toPlainString());
+            }
+            if (!candidate.valid) {
+                failed++;
+                return;
+            }
+            chunk.add(candidate);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        // A line that could not be attributed to a requisition
+        void reject(long line, String ref, String message) {
+            error(line, ref, message);
+            failed++;
+        }
+
+        void error(long line, String ref, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RequisitionImportReport.RowError(line, ref, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Candidate> batch = new ArrayList<>(chunk);
+            chunk.clear();
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch, createdBy));
+            } catch (RuntimeException e) {
+                System.err.println("Requisition import chunk of " + batch.size() + " failed: " + e.getMessage());
+                for (Candidate candidate : batch) {
+                    reject(candidate.line, candidate.ref, "Not imported: database write failed");
+                }
+                return;
+            }
+            imported += batch.size();
+            for (Candidate candidate : batch) {
+                Requisition r = candidate.requisition;
+                summaries.computeIfAbsent(ProcureService.getDepartmentManager(r.getDepartment()), ManagerSummary::new).add(r);
+            }
+        }
+    }
+
+    // One requisition being read; invalid as soon as any of its rows is
+    private static final class Candidate {
+        private final Import run;
+        private final String ref;
+        private final long line;
+        // Transient entity, used for its item totals and summary; never persisted through JPA
+        private final Requisition requisition = new Requisition();
+        private boolean valid = true;
+
+        Candidate(Import run, String ref, long line) {
+            this.run = run;
+            this.ref = ref;
+            this.line = line;
+        }
+
+        void invalid(long errorLine, String message) {
+            valid = false;
+            run.error(errorLine, ref, message);
+        }
+    }
+
+    private static final class ManagerSummary {
+        private final String manager;
+        private final Map<String, Integer> byDepartment = new TreeMap<>();
+        private int count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        ManagerSummary(String manager) {
+            this.manager = manager;
+        }
+
+        void add(Requisition requisition) {
+            count++;
+            amount = amount.add(requisition.getTotalAmount());
+            byDepartment.merge(requisition.getDepartment(), 1, Integer::sum);
+        }
+
+        String departmentCounts() {
+            StringBuilder text = new StringBuilder();
+            byDepartment.forEach((department, n) -> {
+                if (text.length() > 0) text.append(", ");
+                text.append(department).append(": ").append(n);
+            });
+            return text.toString();
+        }
+    }
+}
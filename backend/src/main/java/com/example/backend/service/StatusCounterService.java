@@ -0,0 +1,245 @@
+package com.example.backend.service;
+
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.model.StatusCounter;
+import com.example.backend.repo.StatusCounterRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Materialized per-(department, status) requisition tallies and per-(department, stage) vendor PDF tallies.
+ *
+ * Every status transition adjusts the status_counter rows inside the caller's transaction, so the table
+ * is exactly as consistent as the data it counts. An in-memory LongAdder mirror is bumped after commit
+ * and serves reads without touching the database. The reconcile job recomputes the tallies from the
+ * source tables under row locks, repairing drift from writes that bypass this service (bulk SQL,
+ * other nodes) and reloading the mirror.
+ */
+@Service
+public class StatusCounterService {
+
+    public static final String SCOPE_REQUISITION = "REQUISITION";
+    public static final String SCOPE_VENDOR_PDF = "VENDOR_PDF";
+
+    private final StatusCounterRepository statusCounterRepository;
+    private final TransactionTemplate creationTransaction;
+
+    // counterKey -> committed value as seen by this node; swapped wholesale by reconcile
+    private volatile Map<String, LongAdder> mirror = new ConcurrentHashMap<>();
+
+    public StatusCounterService(StatusCounterRepository statusCounterRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.statusCounterRepository = statusCounterRepository;
+        this.creationTransaction = new TransactionTemplate(transactionManager);
+        this.creationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Requisition transitions; a null status means the requisition does not exist on that side (create/delete).
+    // Joins the caller's transaction when there is one.
+    @Transactional
+    public void requisitionCreated(String department, RequisitionStatus status) {
+        requisitionMoved(null, null, department, status);
+    }
+
+    @Transactional
+    public void requisitionDeleted(String department, RequisitionStatus status) {
+        requisitionMoved(department, status, null, null);
+    }
+
+    @Transactional
+    public void requisitionMoved(String department, RequisitionStatus from, RequisitionStatus to) {
+        requisitionMoved(department, from, department, to);
+    }
+
+    @Transactional
+    public void requisitionMoved(String fromDepartment, RequisitionStatus from, String toDepartment, RequisitionStatus to) {
+        move(SCOPE_REQUISITION,
+             from != null ? fromDepartment : null, from != null ? from.name() : null,
+             to != null ? toDepartment : null, to != null ? to.name() : null);
+    }
+
+    // count requisitions of one department created together (bulk import)
+    @Transactional
+    public void requisitionsCreated(String department, RequisitionStatus status, long count) {
+        move(SCOPE_REQUISITION, null, null, department, status.name(), count);
+    }
+
+    // A set-based transition of count requisitions of one department, as a single adjustment per side
+    @Transactional
+    public void requisitionsMoved(String department, RequisitionStatus from, RequisitionStatus to, long count) {
+        move(SCOPE_REQUISITION, department, from.name(), department, to.name(), count);
+    }
+
+    // Vendor PDF stage transitions, same conventions as above
+    @Transactional
+    public void pdfCreated(String department, String approvalStage) {
+        move(SCOPE_VENDOR_PDF, null, null, department, approvalStage);
+    }
+
+    @Transactional
+    public void pdfDeleted(String department, String approvalStage) {
+        move(SCOPE_VENDOR_PDF, department, approvalStage, null, null);
+    }
+
+    @Transactional
+    public void pdfMoved(String department, String fromStage, String toStage) {
+        move(SCOPE_VENDOR_PDF, department, fromStage, department, toStage);
+    }
+
+    private void move(String scope, String fromDepartment, String fromBucket, String toDepartment, String toBucket) {
+        move(scope, fromDepartment, fromBucket, toDepartment, toBucket, 1);
+    }
+
+    private void move(String scope, String fromDepartment, String fromBucket, String toDepartment, String toBucket, long count) {
+        boolean hasFrom = fromBucket != null;
+        boolean hasTo = toBucket != null;
+        if (count == 0 || hasFrom && hasTo && Objects.equals(fromDepartment, toDepartment) && fromBucket.equals(toBucket)) {
+            return;
+        }
+        // Rows are updated in key order, the order reconcile locks them in, so the two cannot deadlock
+        Map<String, Long> deltas = new TreeMap<>();
+        if (hasFrom) {
+            deltas.put(counterKey(scope, fromDepartment, fromBucket), -count);
+        }
+        if (hasTo) {
+            deltas.put(counterKey(scope, toDepartment, toBucket), count);
+        }
+        deltas.forEach((key, delta) -> adjust(scope, key, delta));
+        afterCommit(deltas);
+    }
+
+    private void adjust(String scope, String key, long delta) {
+        if (statusCounterRepository.increment(key, delta) == 0) {
+            // First time this pair is seen: create the row in its own transaction so the insert never conflicts later
+            String[] parts = key.split("\\|", -1);
+            creationTransaction.executeWithoutResult(status -> statusCounterRepository.insertIfAbsent(key, scope, parts[1], parts[2]));
+            statusCounterRepository.increment(key, delta);
+        }
+    }
+
+    // The mirror only reflects committed work; a rolled-back transition never shows up in reads
+    private void afterCommit(Map<String, Long> deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyToMirror(deltas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyToMirror(deltas);
+            }
+        });
+    }
+
+    private void applyToMirror(Map<String, Long> deltas) {
+        deltas.forEach((key, delta) -> mirror.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+    }
+
+    // O(1) reads from the mirror
+    public long countRequisitions(String department, RequisitionStatus status) {
+        return read(counterKey(SCOPE_REQUISITION, department != null ? department : "", status.name()));
+    }
+
+    public long countRequisitions(RequisitionStatus status) {
+        return sumBucket(SCOPE_REQUISITION, status.name());
+    }
+
+    public long countPdfs(String department, String approvalStage) {
+        return read(counterKey(SCOPE_VENDOR_PDF, department != null ? department : "", approvalStage));
+    }
+
+    public long countPdfs(String approvalStage) {
+        return sumBucket(SCOPE_VENDOR_PDF, approvalStage);
+    }
+
+    // Tallies of one scope keyed by bucket, optionally limited to a department
+    public Map<String, Long> getCounts(String scope, String department) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        String prefix = department != null ? counterKey(scope, department, "") : scope + "|";
+        mirror.forEach((key, adder) -> {
+            if (key.startsWith(prefix)) {
+                counts.merge(key.substring(key.lastIndexOf('|') + 1), adder.sum(), Long::sum);
+            }
+        });
+        return counts;
+    }
+
+    private long read(String key) {
+        LongAdder adder = mirror.get(key);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    // Sum across departments; the number of departments is small and fixed, so this stays constant-time in practice
+    private long sumBucket(String scope, String bucket) {
+        String prefix = scope + "|";
+        String suffix = "|" + bucket;
+        long total = 0;
+        for (Map.Entry<String, LongAdder> entry : mirror.entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getKey().endsWith(suffix)) {
+                total += entry.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Recompute every tally from the source tables and reload the mirror. Runs at startup and then on
+     * a fixed delay. The counter rows are locked before counting: transitions already in flight commit
+     * first and are counted, later ones wait and then apply their deltas on top of the repaired values,
+     * after the mirror has been rebuilt from them.
+     */
+    @Scheduled(initialDelayString = "${counters.reconcile-initial-delay-ms:0}",
+               fixedDelayString = "${counters.reconcile-interval-ms:300000}")
+    @Transactional
+    public void reconcile() {
+        List<StatusCounter> stored = statusCounterRepository.findAllForUpdate();
+
+        Map<String, Long> actual = new HashMap<>();
+        for (Object[] row : statusCounterRepository.countRequisitionsByDepartmentAndStatus()) {
+            String bucket = row[1] != null ? ((RequisitionStatus) row[1]).name() : "";
+            actual.merge(counterKey(SCOPE_REQUISITION, (String) row[0], bucket), ((Number) row[2]).longValue(), Long::sum);
+        }
+        for (Object[] row : statusCounterRepository.countVendorPdfsByDepartmentAndStage()) {
+            actual.merge(counterKey(SCOPE_VENDOR_PDF, (String) row[0], (String) row[1]), ((Number) row[2]).longValue(), Long::sum);
+        }
+
+        for (StatusCounter counter : stored) {
+            long expected = actual.getOrDefault(counter.getCounterKey(), 0L);
+            if (counter.getValue() != expected) {
+                counter.setValue(expected);
+            }
+            actual.remove(counter.getCounterKey());
+        }
+        for (Map.Entry<String, Long> entry : actual.entrySet()) {
+            String[] parts = entry.getKey().split("\\|", -1);
+            stored.add(statusCounterRepository.save(new StatusCounter(entry.getKey(), parts[0], parts[1], parts[2], entry.getValue())));
+        }
+
+        Map<String, LongAdder> reloaded = new ConcurrentHashMap<>();
+        for (StatusCounter counter : stored) {
+            LongAdder adder = new LongAdder();
+            adder.add(counter.getValue());
+            reloaded.put(counter.getCounterKey(), adder);
+        }
+        mirror = reloaded;
+    }
+
+    private static String counterKey(String scope, String department, String bucket) {
+        return scope + "|" + (department != null ? department : "") + "|" + (bucket != null ? bucket : "");
+    }
+}
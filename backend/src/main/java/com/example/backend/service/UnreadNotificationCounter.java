@@ -0,0 +1,84 @@
+package com.example.backend.service;
+
+import com.example.backend.repo.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counts served from memory. A user's count is seeded with one indexed COUNT
+ * the first time it is read, then adjusted after each committed insert or mark-read. Deletes drop the entry
+ * so the next read re-seeds it. Entries expire after a short TTL, which bounds drift from writes made on
+ * other nodes or from races with a concurrent seed.
+ */
+@Service
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepository;
+    private final Cache<String, AtomicLong> counts;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     @Value("${notifications.unread.ttl-ms:60000}") long ttlMillis,
+                                     @Value("${notifications.unread.max-users:10000}") long maxUsers) {
+        this.notificationRepository = notificationRepository;
+        this.counts = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .maximumSize(maxUsers)
+            .build();
+    }
+
+    public long getUnreadCount(String userId) {
+        return counts.get(userId, key -> new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(key))).get();
+    }
+
+    // New unread notifications per recipient
+    public void added(Map<String, Long> addedByUser) {
+        afterCommit(() -> addedByUser.forEach(this::adjust));
+    }
+
+    public void markedRead(String userId, long count) {
+        afterCommit(() -> adjust(userId, -count));
+    }
+
+    public void allRead(String userId) {
+        afterCommit(() -> {
+            AtomicLong count = counts.getIfPresent(userId);
+            if (count != null) {
+                count.set(0);
+            }
+        });
+    }
+
+    // Deleted rows may or may not have been read, so the count is re-seeded
+    public void deleted(String userId) {
+        afterCommit(() -> counts.invalidate(userId));
+    }
+
+    private void adjust(String userId, long delta) {
+        // Users without a seeded count pick the change up when they are first read
+        AtomicLong count = counts.getIfPresent(userId);
+        if (count != null) {
+            count.updateAndGet(value -> Math.max(0, value + delta));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.backend.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTML document template, parsed once into static segments (held as UTF-8 bytes and as text) and named slots.
+ *
+ * Syntax (a small Mustache subset):
+ * <ul>
+ *   <li>{@code {{name}}} - value of {@code name}, HTML-escaped; null renders nothing</li>
+ *   <li>{@code {{#name}}...{{/name}}} - rendered once per element when {@code name} is a collection of maps,
+ *       once with that map's values when it is a map, once when it is any other non-false value</li>
+ *   <li>{@code {{^name}}...{{/name}}} - rendered when {@code name} is null, false or empty</li>
+ *   <li>{@code {{! comment }}} - dropped</li>
+ * </ul>
+ * Names inside a section resolve against the section's map first, then the enclosing model.
+ * Compiled templates are immutable and safe to share between threads.
+ */
+public final class DocumentTemplate {
+
+    private final String name;
+    private final Node[] nodes;
+    // Initial capacity for String rendering: the static text plus room for the values
+    private final int sizeHint;
+
+    private DocumentTemplate(String name, Node[] nodes) {
+        this.name = name;
+        this.nodes = nodes;
+        this.sizeHint = staticLength(nodes) + 256;
+    }
+
+    // Loads and compiles a UTF-8 template from the classpath; fails fast when it is missing or malformed
+    public static DocumentTemplate load(String resource) {
+        try (InputStream in = DocumentTemplate.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Template not found on classpath: " + resource);
+            }
+            return compile(resource, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read template " + resource, e);
+        }
+    }
+
+    public static DocumentTemplate compile(String name, String source) {
+        Deque<OpenSection> open = new ArrayDeque<>();
+        List<Node> current = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int tagStart = source.indexOf("{{", position);
+            if (tagStart < 0) {
+                current.add(new Text(source.substring(position)));
+                break;
+            }
+            if (tagStart > position) {
+                current.add(new Text(source.substring(position, tagStart)));
+            }
+            int tagEnd = source.indexOf("}}", tagStart + 2);
+            if (tagEnd < 0) {
+                throw error(name, source, tagStart, "unclosed tag");
+            }
+            String tag = source.substring(tagStart + 2, tagEnd).trim();
+            position = tagEnd + 2;
+            if (tag.isEmpty()) {
+                throw error(name, source, tagStart, "empty tag");
+            }
+            char kind = tag.charAt(0);
+            if (kind == '!') {
+                continue;
+            }
+            if (kind == '#' || kind == '^') {
+                open.push(new OpenSection(slotName(name, source, tagStart, tag.substring(1)), kind == '^', current, tagStart));
+                current = new ArrayList<>();
+            } else if (kind == '/') {
+                String closing = slotName(name, source, tagStart, tag.substring(1));
+                OpenSection section = open.poll();
+                if (section == null || !section.name.equals(closing)) {
+                    throw error(name, source, tagStart, "unexpected {{/" + closing + "}}");
+                }
+                Section node = new Section(section.name, section.inverted, current.toArray(new Node[0]));
+                current = section.enclosing;
+                current.add(node);
+            } else {
+                current.add(new Slot(slotName(name, source, tagStart, tag)));
+            }
+        }
+        if (!open.isEmpty()) {
+            OpenSection section = open.peek();
+            throw error(name, source, section.start, "section " + section.name + " is never closed");
+        }
+        return new DocumentTemplate(name, merge(current));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void render(Map<String, ?> model, TemplateBuffer out) {
+        renderNodes(nodes, new Scope(model, null), out);
+    }
+
+    // For callers that need a String (e.g. mail bodies): renders chars directly, skipping the UTF-8 round trip
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        renderNodes(nodes, new Scope(model, null), out);
+        return out.toString();
+    }
+
+    private static void renderNodes(Node[] nodes, Scope scope, TemplateBuffer out) {
+        for (Node node : nodes) {
+            node.render(scope, out);
+        }
+    }
+
+    private static void renderNodes(Node[] nodes, Scope scope, StringBuilder out) {
+        for (Node node : nodes) {
+            node.render(scope, out);
+        }
+    }
+
+    private static int staticLength(Node[] nodes) {
+        int length = 0;
+        for (Node node : nodes) {
+            if (node instanceof Text t) {
+                length += t.source.length();
+            } else if (node instanceof Section s) {
+                length += staticLength(s.children);
+            }
+        }
+        return length;
+    }
+
+    // Adjacent text runs (e.g. around comments) become one segment
+    private static Node[] merge(List<Node> nodes) {
+        List<Node> merged = new ArrayList<>(nodes.size());
+        StringBuilder text = new StringBuilder();
+        for (Node node : nodes) {
+            if (node instanceof Text t) {
+                text.append(t.source);
+            } else {
+                if (text.length() > 0) {
+                    merged.add(new Text(text.toString()));
+                    text.setLength(0);
+                }
+                merged.add(node instanceof Section s ? new Section(s.name, s.inverted, merge(List.of(s.children))) : node);
+            }
+        }
+        if (text.length() > 0) {
+            merged.add(new Text(text.toString()));
+        }
+        return merged.toArray(new Node[0]);
+    }
+
+    private static String slotName(String template, String source, int at, String name) {
+        String trimmed = name.trim();
+        if (trimmed.isEmpty() || trimmed.chars().anyMatch(Character::isWhitespace)) {
+            throw error(template, source, at, "invalid name '" + name + "'");
+        }
+        return trimmed;
+    }
+
+    private static IllegalArgumentException error(String template, String source, int at, String message) {
+        long line = source.substring(0, at).chars().filter(c -> c == '\n').count() + 1;
+        return new IllegalArgumentException("Template " + template + ", line " + line + ": " + message);
+    }
+
+    private static boolean isFalsy(Object value) {
+        return value == null
+            || Boolean.FALSE.equals(value)
+            || (value instanceof Collection<?> c && c.isEmpty())
+            || (value instanceof CharSequence s && s.length() == 0);
+    }
+
+    private interface Node {
+        void render(Scope scope, TemplateBuffer out);
+
+        void render(Scope scope, StringBuilder out);
+    }
+
+    private static final class Text implements Node {
+        final String source;
+        final byte[] bytes;
+
+        Text(String source) {
+            this.source = source;
+            this.bytes = source.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void render(Scope scope, TemplateBuffer out) {
+            out.write(bytes);
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            out.append(source);
+        }
+    }
+
+    private record Slot(String name) implements Node {
+        @Override
+        public void render(Scope scope, TemplateBuffer out) {
+            Object value = scope.lookup(name);
+            if (value instanceof CharSequence text) {
+                out.writeEscaped(text);
+            } else if (value != null) {
+                out.writeEscaped(value.toString());
+            }
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            Object value = scope.lookup(name);
+            if (value != null) {
+                TemplateBuffer.appendEscaped(value instanceof CharSequence text ? text : value.toString(), out);
+            }
+        }
+    }
+
+    private record Section(String name, boolean inverted, Node[] children) implements Node {
+        @Override
+        public void render(Scope scope, TemplateBuffer out) {
+            for (Scope item : scopes(scope)) {
+                renderNodes(children, item, out);
+            }
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            for (Scope item : scopes(scope)) {
+                renderNodes(children, item, out);
+            }
+        }
+
+        // The scope of each pass over the section body; none when it is not rendered
+        private List<Scope> scopes(Scope scope) {
+            Object value = scope.lookup(name);
+            if (inverted) {
+                return isFalsy(value) ? List.of(scope) : List.of();
+            }
+            if (value instanceof Collection<?> items) {
+                List<Scope> scopes = new ArrayList<>(items.size());
+                for (Object item : items) {
+                    if (!(item instanceof Map<?, ?> values)) {
+                        throw new IllegalArgumentException("Section " + name + " items must be maps");
+                    }
+                    scopes.add(new Scope(values, scope));
+                }
+                return scopes;
+            }
+            if (value instanceof Map<?, ?> values) {
+                return List.of(new Scope(values, scope));
+            }
+            return isFalsy(value) ? List.of() : List.of(scope);
+        }
+    }
+
+    private record Scope(Map<?, ?> values, Scope parent) {
+        Object lookup(String name) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                Object value = scope.values.get(name);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record OpenSection(String name, boolean inverted, List<Node> enclosing, int start) {
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.backend.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -22,8 +29,34 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}") // 0 disables the cache
+    private int claimsCacheMaxSize;
+
+    // Signing key and parser are derived once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Verified claims keyed by SHA-256 of the token, dropped once the token expires
+    private final Map<String, Claims> claimsCache = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(String username, String role, String department, Long userId) {
@@ -69,12 +102,38 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Verifies the token once and serves repeat lookups from the claims cache
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String cacheKey = hashToken(token);
+        Claims cached = claimsCache.get(cacheKey);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            claimsCache.remove(cacheKey);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claimsCacheMaxSize > 0 && !isExpired(claims)) {
+            if (claimsCache.size() >= claimsCacheMaxSize) {
+                evictExpiredClaims();
+            }
+            claimsCache.put(cacheKey, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Parses and verifies the token once, returning its claims,
+     * or null when the token is malformed, tampered with or expired.
+     */
+    public Claims getValidClaims(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            return isExpired(claims) ? null : claims;
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     public Boolean isTokenExpired(String token) {
@@ -87,11 +146,25 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+        return getValidClaims(token) != null;
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.getTime() <= System.currentTimeMillis();
+    }
+
+    private void evictExpiredClaims() {
+        claimsCache.values().removeIf(this::isExpired);
+        // Still full of live tokens: start over rather than grow without bound
+        if (claimsCache.size() >= claimsCacheMaxSize) {
+            claimsCache.clear();
         }
     }
-}
 
+    private static String hashToken(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backend.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable UTF-8 byte buffer that DocumentTemplate renders into. One buffer per thread is kept for reuse:
+ * acquire() hands it out (or a new one while it is in use), close() returns it.
+ *
+ * <pre>
+ * try (TemplateBuffer buffer = TemplateBuffer.acquire()) {
+ *     template.render(model, buffer);
+ *     HtmlConverter.convertToPdf(buffer.asInputStream(), out);
+ * }
+ * </pre>
+ */
+public final class TemplateBuffer implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    // A buffer that grew past this for an unusually large document is not kept
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private static final ThreadLocal<TemplateBuffer> POOL = new ThreadLocal<>();
+
+    // Entities for the ASCII characters that need escaping in HTML text and attribute values
+    private static final String[] ESCAPE_STRINGS = new String[128];
+    private static final byte[][] ESCAPES = new byte[128][];
+    static {
+        ESCAPE_STRINGS['&'] = "&amp;";
+        ESCAPE_STRINGS['<'] = "&lt;";
+        ESCAPE_STRINGS['>'] = "&gt;";
+        ESCAPE_STRINGS['"'] = "&quot;";
+        ESCAPE_STRINGS['\''] = "&#39;";
+        for (int c = 0; c < ESCAPE_STRINGS.length; c++) {
+            if (ESCAPE_STRINGS[c] != null) {
+                ESCAPES[c] = ESCAPE_STRINGS[c].getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+
+    private byte[] bytes;
+    private int size;
+
+    private TemplateBuffer(int capacity) {
+        this.bytes = new byte[capacity];
+    }
+
+    public static TemplateBuffer acquire() {
+        TemplateBuffer buffer = POOL.get();
+        if (buffer == null) {
+            return new TemplateBuffer(INITIAL_CAPACITY);
+        }
+        // Taken out of the pool so a nested render on this thread gets its own buffer
+        POOL.remove();
+        return buffer;
+    }
+
+    // Returns the buffer to this thread's pool; it must not be used afterwards
+    @Override
+    public void close() {
+        size = 0;
+        if (bytes.length <= MAX_RETAINED_CAPACITY) {
+            POOL.set(this);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Reads the rendered bytes without copying; valid until the buffer is closed
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(bytes, 0, size);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    void write(byte[] segment) {
+        ensureCapacity(segment.length);
+        System.arraycopy(segment, 0, bytes, size, segment.length);
+        size += segment.length;
+    }
+
+    // UTF-8 encodes the text straight into the buffer, escaping HTML-special characters
+    void writeEscaped(CharSequence text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                byte[] escape = ESCAPES[c];
+                if (escape != null) {
+                    write(escape);
+                } else {
+                    ensureCapacity(1);
+                    bytes[size++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                bytes[size++] = (byte) (0xC0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                ensureCapacity(4);
+                bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: same replacement String.getBytes(UTF_8) uses
+                ensureCapacity(1);
+                bytes[size++] = '?';
+            } else {
+                ensureCapacity(3);
+                bytes[size++] = (byte) (0xE0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    // Same escaping for DocumentTemplate's String rendering
+    static void appendEscaped(CharSequence text, StringBuilder out) {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80 && ESCAPES[c] != null) {
+                out.append(text, start, i).append(ESCAPE_STRINGS[c]);
+                start = i + 1;
+            }
+        }
+        out.append(text, start, length);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Add structured de-duplication key to notification table
+-- Format: <EVENT_TYPE>:<entity id>:<recipient>, NULL for notifications that are never de-duplicated
+ALTER TABLE notification ADD COLUMN IF NOT EXISTS dedup_key VARCHAR(255);
+
+-- Unique index backs idempotent inserts (INSERT ... ON CONFLICT DO NOTHING)
+-- NULL keys are allowed to repeat, so existing rows are unaffected
+CREATE UNIQUE INDEX IF NOT EXISTS idx_notification_dedup_key ON notification(dedup_key);
@@ -0,0 +1,19 @@
+-- Create budget_reservation table (hold / commit / release ledger for finance approvals)
+CREATE TABLE IF NOT EXISTS budget_reservation (
+    id BIGSERIAL PRIMARY KEY,
+    department VARCHAR(255) NOT NULL,
+    requisition_id BIGINT,
+    amount DECIMAL(15,2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Add indexes for reservation lookups
+CREATE INDEX IF NOT EXISTS idx_budget_reservation_requisition ON budget_reservation(requisition_id);
+CREATE INDEX IF NOT EXISTS idx_budget_reservation_dept_status ON budget_reservation(department, status);
+
+-- Add constraints
+ALTER TABLE budget_reservation ADD CONSTRAINT chk_budget_reservation_amount_positive CHECK (amount >= 0);
+ALTER TABLE budget_reservation ADD CONSTRAINT chk_budget_reservation_status
+    CHECK (status IN ('HELD', 'COMMITTED', 'RELEASED'));
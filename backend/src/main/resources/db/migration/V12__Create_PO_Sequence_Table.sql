@@ -0,0 +1,14 @@
+-- Create po_sequence table (one PO number counter per month, format PO-YYYY-MM-XXXX)
+CREATE TABLE IF NOT EXISTS po_sequence (
+    period_key VARCHAR(7) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+-- Seed the current month from PO numbers already issued so new numbers never collide
+INSERT INTO po_sequence (period_key, next_value)
+SELECT 
+    to_char(CURRENT_DATE, 'YYYY-MM') as period_key,
+    COALESCE(MAX(CAST(substring(po_number FROM 12) AS BIGINT)), 0) + 1 as next_value
+FROM purchase_order
+WHERE po_number ~ ('^PO-' || to_char(CURRENT_DATE, 'YYYY-MM') || '-[0-9]+$')
+ON CONFLICT (period_key) DO NOTHING;
@@ -0,0 +1,3 @@
+-- Keyset index for the stage-filtered vendor PDF work queues
+-- Serves: WHERE approval_stage IN (...) ORDER BY uploaded_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_vendor_pdf_stage_uploaded_at_id ON vendor_pdf(approval_stage, uploaded_at DESC, id DESC);
@@ -0,0 +1,16 @@
+-- Keyset (cursor) pagination indexes
+-- Every cursor page runs: WHERE <filter> AND (ts, id) < (:ts, :id) ORDER BY ts DESC, id DESC LIMIT n
+
+CREATE INDEX IF NOT EXISTS idx_requisition_created_at_id ON requisition(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requisition_dept_created_at_id ON requisition(department, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requisition_created_by_created_at_id ON requisition(created_by, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_purchase_order_created_at_id ON purchase_order(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_purchase_order_dept_created_at_id ON purchase_order(department, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_grn_created_at_id ON grn(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_grn_purchase_order_created_at_id ON grn(purchase_order_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_vendor_pdf_uploaded_at_id ON vendor_pdf(uploaded_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notification_unread_user_timestamp_id ON notification(user_id, timestamp DESC, notification_id DESC) WHERE is_read = false;
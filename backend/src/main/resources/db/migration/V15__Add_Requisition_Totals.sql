@@ -0,0 +1,33 @@
+-- Denormalized requisition totals, maintained by the application whenever items change
+ALTER TABLE requisition ADD COLUMN IF NOT EXISTS total_amount NUMERIC(15,2) DEFAULT 0;
+ALTER TABLE requisition ADD COLUMN IF NOT EXISTS total_quantity INTEGER DEFAULT 0;
+ALTER TABLE requisition ADD COLUMN IF NOT EXISTS item_count INTEGER DEFAULT 0;
+ALTER TABLE requisition ADD COLUMN IF NOT EXISTS items_summary VARCHAR(1000) DEFAULT '';
+
+-- Backfill from existing items
+UPDATE requisition r
+SET total_amount = t.total_amount,
+    total_quantity = t.total_quantity,
+    item_count = t.item_count,
+    items_summary = LEFT(t.items_summary, 1000)
+FROM (
+    SELECT requisition_id,
+           COALESCE(SUM(price * quantity), 0) AS total_amount,
+           COALESCE(SUM(quantity), 0) AS total_quantity,
+           COUNT(*) AS item_count,
+           STRING_AGG(item_name, ', ' ORDER BY id) AS items_summary
+    FROM requisition_items
+    GROUP BY requisition_id
+) t
+WHERE t.requisition_id = r.id;
+
+-- Legacy single-item requisitions have no items: their totals are the requisition's own price x quantity
+UPDATE requisition r
+SET total_amount = COALESCE(r.price * r.quantity, 0),
+    total_quantity = COALESCE(r.quantity, 0),
+    item_count = 0,
+    items_summary = ''
+WHERE NOT EXISTS (SELECT 1 FROM requisition_items i WHERE i.requisition_id = r.id);
+
+-- Finance review filters and sorts pending requisitions by amount
+CREATE INDEX IF NOT EXISTS idx_requisition_status_total_amount ON requisition(status, total_amount DESC);
@@ -0,0 +1,23 @@
+-- Materialized per-(department, status) and per-(department, stage) tallies, maintained on every transition
+CREATE TABLE IF NOT EXISTS status_counter (
+    counter_key VARCHAR(512) PRIMARY KEY,
+    scope VARCHAR(32) NOT NULL,
+    department VARCHAR(255) NOT NULL,
+    bucket VARCHAR(64) NOT NULL,
+    counter_value BIGINT NOT NULL DEFAULT 0
+);
+
+-- Seed from current data; the reconcile job keeps them aligned afterwards
+INSERT INTO status_counter (counter_key, scope, department, bucket, counter_value)
+SELECT 'REQUISITION|' || COALESCE(department, '') || '|' || COALESCE(status, ''),
+       'REQUISITION', COALESCE(department, ''), COALESCE(status, ''), COUNT(*)
+FROM requisition
+GROUP BY department, status
+ON CONFLICT (counter_key) DO NOTHING;
+
+INSERT INTO status_counter (counter_key, scope, department, bucket, counter_value)
+SELECT 'VENDOR_PDF|' || COALESCE(department, '') || '|' || COALESCE(approval_stage, ''),
+       'VENDOR_PDF', COALESCE(department, ''), COALESCE(approval_stage, ''), COUNT(*)
+FROM vendor_pdf
+GROUP BY department, approval_stage
+ON CONFLICT (counter_key) DO NOTHING;
@@ -0,0 +1,19 @@
+-- Outbox for requisition workflow notifications: appended by approval transactions, fanned out by the dispatcher
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(64) NOT NULL,
+    requisition_id BIGINT,
+    requester VARCHAR(255) NOT NULL,
+    args VARCHAR(1000),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    dispatched_at TIMESTAMP WITH TIME ZONE,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000)
+);
+
+-- Dispatcher polls pending events oldest first; dispatched rows drop out of the index
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_pending ON notification_outbox(id) WHERE dispatched_at IS NULL;
+
+-- Template-based notifications: message is rendered from event_type and event_args when read
+ALTER TABLE notification ADD COLUMN IF NOT EXISTS event_type VARCHAR(64);
+ALTER TABLE notification ADD COLUMN IF NOT EXISTS event_args VARCHAR(1000);
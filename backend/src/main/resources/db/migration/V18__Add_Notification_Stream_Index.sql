@@ -0,0 +1,2 @@
+-- Notification stream: a user's notifications after the last id pushed (or the client's Last-Event-ID)
+CREATE INDEX IF NOT EXISTS idx_notification_user_id_notification_id ON notification(user_id, notification_id);
@@ -0,0 +1,21 @@
+-- Outbox for vendor emails: requests insert a row, the email worker composes and sends it with retries
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    email_type VARCHAR(32) NOT NULL,
+    reference_id BIGINT NOT NULL,
+    recipient VARCHAR(320) NOT NULL,
+    vendor_name VARCHAR(255),
+    requested_by VARCHAR(255) NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    sent_at TIMESTAMP WITH TIME ZONE,
+    last_error VARCHAR(1000)
+);
+
+-- Worker polls due pending emails; sent and failed rows drop out of the index
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox(next_attempt_at, id) WHERE status = 'PENDING';
+
+-- Delivery status lookups per PO / requisition
+CREATE INDEX IF NOT EXISTS idx_email_outbox_reference ON email_outbox(email_type, reference_id);
@@ -0,0 +1,100 @@
+package com.example.backend.config;
+
+import com.example.backend.dto.RequisitionSummary;
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionItem;
+import com.example.backend.model.RequisitionStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis cache value encodings on requisition pages: the JSON serializer used so far against Smile, with and
+ * without deflate. summaryPage is a 50-row list page as cached today; entityPage is 50 requisitions with
+ * five items each, the shape list caches held before the summary projection (serialize only).
+ *
+ * Encoded sizes are printed once per trial. Not part of the surefire run; launch main() from the test
+ * classpath after mvn test-compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"json", "smile", "smile-deflate"})
+    public String codec;
+
+    private RedisSerializer<Object> serializer;
+    private List<RequisitionSummary> summaryPage;
+    private List<Requisition> entityPage;
+    private byte[] encodedSummaryPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (codec) {
+            case "json":
+                serializer = CompactRedisSerializer.json();
+                break;
+            case "smile":
+                serializer = new CompactRedisSerializer(-1);
+                break;
+            default:
+                serializer = new CompactRedisSerializer(0);
+        }
+        summaryPage = new ArrayList<>();
+        entityPage = new ArrayList<>();
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Requisition requisition = new Requisition();
+            requisition.setCreatedBy("employee" + (i % 7));
+            requisition.setDepartment(i % 2 == 0 ? "IT" : "Sales");
+            requisition.setStatus(RequisitionStatus.values()[i % RequisitionStatus.values().length]);
+            for (int j = 0; j < 5; j++) {
+                requisition.addItem(new RequisitionItem("Laptop accessory " + i + "-" + j, j + 1, new BigDecimal("1499.00").add(BigDecimal.valueOf(j))));
+            }
+            entityPage.add(requisition);
+            summaryPage.add(new RequisitionSummary((long) i, requisition.getItemNames(), requisition.getCreatedBy(),
+                    requisition.getDepartment(), requisition.getStatus(), i % 3 == 0 ? "itmanager" : null, null,
+                    base.plusSeconds(i * 3600L), requisition.getTotalAmount(), requisition.getTotalQuantity(), requisition.getItemCount()));
+        }
+        encodedSummaryPage = serializer.serialize(new ArrayList<>(summaryPage));
+        System.out.println("codec=" + codec + " summaryPage=" + encodedSummaryPage.length + " bytes, entityPage="
+                + serializer.serialize(new ArrayList<>(entityPage)).length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryPage() {
+        return serializer.serialize(summaryPage);
+    }
+
+    @Benchmark
+    public Object deserializeSummaryPage() {
+        return serializer.deserialize(encodedSummaryPage);
+    }
+
+    @Benchmark
+    public byte[] serializeEntityPage() {
+        return serializer.serialize(entityPage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * L1 fills from L2, serves repeat reads locally and drops entries when another node broadcasts an invalidation.
+ * A ConcurrentMapCacheManager stands in for Redis.
+ */
+class TwoLevelCacheManagerTest {
+
+    @Test
+    void nearCacheReadsThroughAndHonoursRemoteInvalidation() {
+        ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(remote, null, meterRegistry, Duration.ofMinutes(1), 100);
+        Cache cache = manager.getCache("dashboardStats");
+
+        // Written by another node: only L2 has it
+        remote.getCache("dashboardStats").put("user:alice", "v1");
+        assertEquals("v1", cache.get("user:alice").get());
+        assertEquals(1.0, meterRegistry.get("cache.l2.gets").tag("cache", "dashboardStats").tag("result", "hit").counter().count());
+
+        // L2 changes behind this node's back; L1 keeps serving until invalidated
+        remote.getCache("dashboardStats").put("user:alice", "v2");
+        assertEquals("v1", cache.get("user:alice").get());
+        manager.onMessage(message("other-node", "dashboardStats", TwoLevelCacheManager.EVICT, "user:alice"), null);
+        assertEquals("v2", cache.get("user:alice").get());
+
+        cache.put("bob:0:10", "page0");
+        cache.put("bob:1:10", "page1");
+        ((TwoLevelCache) cache).evictByPrefix("bob:");
+        assertNull(cache.get("bob:0:10"));
+        assertNull(remote.getCache("dashboardStats").get("bob:1:10"));
+        assertEquals("v2", cache.get("user:alice").get());
+    }
+
+    private static DefaultMessage message(String node, String cacheName, String operation, String key) {
+        String body = String.join("\n", node, cacheName, operation, key);
+        return new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
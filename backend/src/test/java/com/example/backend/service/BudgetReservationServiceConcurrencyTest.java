@@ -0,0 +1,113 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Budget;
+import com.example.backend.model.BudgetReservation;
+import com.example.backend.repo.BudgetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Multi-threaded harness: many finance approvals race on the same department budget.
+ * The ledger must never overspend, never lose a deduction, and reports approvals/second.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BudgetReservationServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int APPROVALS_PER_THREAD = 50;
+
+    @Autowired
+    private BudgetReservationService budgetReservationService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Test
+    void concurrentHoldsNeverOverspend() throws Exception {
+        String department = "ConcurrencyTest";
+        BigDecimal amount = new BigDecimal("100.00");
+        // Enough budget for only half of the attempted approvals
+        BigDecimal initial = amount.multiply(BigDecimal.valueOf(THREADS * APPROVALS_PER_THREAD / 2));
+
+        Budget budget = new Budget();
+        budget.setDepartment(department);
+        budget.setTotalBudget(initial);
+        budget.setRemainingBudget(initial);
+        budgetRepository.save(budget);
+
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < APPROVALS_PER_THREAD; i++) {
+                    try {
+                        BudgetReservation held = budgetReservationService.hold(department, null, amount);
+                        budgetReservationService.commit(held.getId());
+                        committed.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        BigDecimal remaining = budgetReservationService.getRemainingBudget(department);
+        int attempts = THREADS * APPROVALS_PER_THREAD;
+        System.out.printf("Budget ledger: %d approvals (%d committed, %d refused) on %d threads in %d ms, %.0f approvals/s%n",
+                attempts, committed.get(), refused.get(), THREADS, elapsedNanos / 1_000_000,
+                attempts / (elapsedNanos / 1_000_000_000.0));
+
+        assertEquals(attempts, committed.get() + refused.get());
+        assertEquals(attempts / 2, committed.get());
+        assertEquals(0, remaining.signum());
+    }
+
+    @Test
+    void releaseReturnsHeldAmount() {
+        String department = "ReleaseTest";
+        BigDecimal initial = new BigDecimal("500.00");
+
+        Budget budget = new Budget();
+        budget.setDepartment(department);
+        budget.setTotalBudget(initial);
+        budget.setRemainingBudget(initial);
+        budgetRepository.save(budget);
+
+        BudgetReservation held = budgetReservationService.hold(department, null, new BigDecimal("200.00"));
+        assertEquals(0, new BigDecimal("300.00").compareTo(budgetReservationService.getRemainingBudget(department)));
+
+        budgetReservationService.release(held.getId());
+        assertEquals(0, initial.compareTo(budgetReservationService.getRemainingBudget(department)));
+    }
+}
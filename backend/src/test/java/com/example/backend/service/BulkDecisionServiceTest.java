@@ -0,0 +1,194 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BulkDecisionResult;
+import com.example.backend.model.Budget;
+import com.example.backend.model.BudgetReservationStatus;
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionItem;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.ApprovalRepository;
+import com.example.backend.repo.BudgetRepository;
+import com.example.backend.repo.BudgetReservationRepository;
+import com.example.backend.repo.RequisitionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk decisions at each stage: one deduction per department on finance approval, per-item results for what does
+ * not fit the budget or is not pending at that stage.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkDecisionServiceTest {
+
+    @Autowired
+    private BulkDecisionService bulkDecisionService;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetReservationRepository reservationRepository;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private StatusCounterService statusCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void financeApprovalChargesEachDepartmentOnceAndReportsPerItem() {
+        String sales = "bulk-sales-" + UUID.randomUUID();
+        String hr = "bulk-hr-" + UUID.randomUUID();
+        budget(sales, "1000.00");
+        budget(hr, "500.00");
+
+        Requisition salesA = requisition(sales, "400.00", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        Requisition salesTooBig = requisition(sales, "700.00", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        Requisition salesB = requisition(sales, "600.00", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        Requisition hrA = requisition(hr, "250.00", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        Requisition notPending = requisition(hr, "10.00", RequisitionStatus.PENDING_IT_APPROVAL);
+        requisition(sales, "1.00", RequisitionStatus.APPROVED);
+        requisition(hr, "1.00", RequisitionStatus.APPROVED);
+        // Counter rows for the new departments exist before the transition adjusts them
+        statusCounterService.reconcile();
+
+        List<BulkDecisionResult> results = bulkDecisionService.financeDecisions(
+            List.of(salesA.getId(), salesTooBig.getId(), salesB.getId(), hrA.getId(), notPending.getId(), -1L),
+            "joshi", "APPROVE", "quarter end");
+
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).success());
+        assertEquals(RequisitionStatus.APPROVED, results.get(0).status());
+        assertFalse(results.get(1).success());
+        assertEquals("Insufficient budget", results.get(1).message());
+        assertTrue(results.get(2).success());
+        assertTrue(results.get(3).success());
+        assertFalse(results.get(4).success());
+        assertEquals(RequisitionStatus.PENDING_IT_APPROVAL, results.get(4).status());
+        assertFalse(results.get(5).success());
+        assertEquals("Requisition not found", results.get(5).message());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(budgetRepository.findRemainingBudgetByDepartment(sales).orElseThrow()));
+        assertEquals(0, new BigDecimal("250.00").compareTo(budgetRepository.findRemainingBudgetByDepartment(hr).orElseThrow()));
+        assertEquals(2, reservationRepository.findByDepartmentAndStatus(sales, BudgetReservationStatus.COMMITTED).size());
+
+        Requisition approved = requisitionRepository.findById(salesB.getId()).orElseThrow();
+        assertEquals(RequisitionStatus.APPROVED, approved.getStatus());
+        assertEquals("joshi", approved.getApprovedByFinance());
+        assertEquals(RequisitionStatus.PENDING_FINANCE_APPROVAL, requisitionRepository.findById(salesTooBig.getId()).orElseThrow().getStatus());
+        assertEquals(1, approvalRepository.findByRequisitionId(hrA.getId()).size());
+        assertEquals(0, approvalRepository.findByRequisitionId(salesTooBig.getId()).size());
+        assertEquals(3, statusCounterService.countRequisitions(sales, RequisitionStatus.APPROVED));
+        assertEquals(1, statusCounterService.countRequisitions(sales, RequisitionStatus.PENDING_FINANCE_APPROVAL));
+    }
+
+    @Test
+    void departmentAndItDecisionsMoveOnlyRequisitionsPendingAtThatStage() {
+        String department = "bulk-ops-" + UUID.randomUUID();
+        Requisition first = requisition(department, "100.00", RequisitionStatus.PENDING_DEPARTMENT_APPROVAL);
+        Requisition second = requisition(department, "200.00", RequisitionStatus.PENDING_DEPARTMENT_APPROVAL);
+        Requisition alreadyWithIt = requisition(department, "300.00", RequisitionStatus.PENDING_IT_APPROVAL);
+        // Counter rows for every status this test moves requisitions into
+        requisition(department, "1.00", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        requisition(department, "1.00", RequisitionStatus.SENT_BACK);
+        statusCounterService.reconcile();
+
+        List<BulkDecisionResult> byDepartment = bulkDecisionService.departmentDecisions(
+            List.of(first.getId(), second.getId(), alreadyWithIt.getId()), "manager", "approve", null);
+
+        assertTrue(byDepartment.get(0).success());
+        assertEquals(RequisitionStatus.PENDING_IT_APPROVAL, byDepartment.get(0).status());
+        assertTrue(byDepartment.get(1).success());
+        assertFalse(byDepartment.get(2).success());
+        assertEquals(RequisitionStatus.PENDING_IT_APPROVAL, byDepartment.get(2).status());
+        assertEquals(3, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_IT_APPROVAL));
+        assertEquals(0, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_DEPARTMENT_APPROVAL));
+
+        List<BulkDecisionResult> byIt = bulkDecisionService.itDecisions(
+            List.of(first.getId(), alreadyWithIt.getId()), "it-manager", "APPROVE", "standard kit");
+        List<BulkDecisionResult> sentBack = bulkDecisionService.itDecisions(
+            List.of(second.getId(), first.getId()), "it-manager", "SENT_BACK", "wrong model");
+
+        assertTrue(byIt.get(0).success());
+        assertTrue(byIt.get(1).success());
+        assertEquals(RequisitionStatus.PENDING_FINANCE_APPROVAL, byIt.get(1).status());
+        assertTrue(sentBack.get(0).success());
+        assertEquals(RequisitionStatus.SENT_BACK, sentBack.get(0).status());
+        assertFalse(sentBack.get(1).success());
+
+        Requisition approved = requisitionRepository.findById(first.getId()).orElseThrow();
+        assertEquals(RequisitionStatus.PENDING_FINANCE_APPROVAL, approved.getStatus());
+        assertEquals("it-manager", approved.getApprovedByIt());
+        assertEquals(RequisitionStatus.SENT_BACK, requisitionRepository.findById(second.getId()).orElseThrow().getStatus());
+        assertEquals(2, approvalRepository.findByRequisitionId(first.getId()).size());
+        assertEquals(3, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_FINANCE_APPROVAL));
+        assertEquals(2, statusCounterService.countRequisitions(department, RequisitionStatus.SENT_BACK));
+    }
+
+    @Test
+    void financeApprovalOverBudgetChargesNothingAndChargesMissingTotalsFromItems() {
+        String tight = "bulk-tight-" + UUID.randomUUID();
+        String legacyTotals = "bulk-old-" + UUID.randomUUID();
+        budget(tight, "100.00");
+        budget(legacyTotals, "5000.00");
+
+        Requisition tooBig = requisition(tight, "150.00", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        Requisition alsoTooBig = requisition(tight, "100.01", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        Requisition unknownTotals = requisition(legacyTotals, "1200.00", RequisitionStatus.PENDING_FINANCE_APPROVAL);
+        // A row written before the total columns existed: it must be charged its items, not fail on a missing price
+        jdbcTemplate.update("UPDATE requisition SET total_amount = NULL, total_quantity = NULL, item_count = NULL, "
+            + "items_summary = NULL WHERE id = ?", unknownTotals.getId());
+        requisition(legacyTotals, "1.00", RequisitionStatus.APPROVED);
+        statusCounterService.reconcile();
+
+        List<BulkDecisionResult> results = bulkDecisionService.financeDecisions(
+            List.of(tooBig.getId(), alsoTooBig.getId(), unknownTotals.getId()), "joshi", "APPROVE", null);
+
+        assertFalse(results.get(0).success());
+        assertEquals("Insufficient budget", results.get(0).message());
+        assertFalse(results.get(1).success());
+        assertEquals("Insufficient budget", results.get(1).message());
+        assertTrue(results.get(2).success());
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(budgetRepository.findRemainingBudgetByDepartment(tight).orElseThrow()));
+        assertTrue(reservationRepository.findByDepartmentAndStatus(tight, BudgetReservationStatus.COMMITTED).isEmpty());
+        assertEquals(RequisitionStatus.PENDING_FINANCE_APPROVAL, requisitionRepository.findById(tooBig.getId()).orElseThrow().getStatus());
+        assertEquals(2, statusCounterService.countRequisitions(tight, RequisitionStatus.PENDING_FINANCE_APPROVAL));
+        assertEquals(0, new BigDecimal("3800.00").compareTo(budgetRepository.findRemainingBudgetByDepartment(legacyTotals).orElseThrow()));
+    }
+
+    private void budget(String department, String amount) {
+        Budget budget = new Budget();
+        budget.setDepartment(department);
+        budget.setTotalBudget(new BigDecimal(amount));
+        budget.setRemainingBudget(new BigDecimal(amount));
+        budgetRepository.save(budget);
+    }
+
+    private Requisition requisition(String department, String price, RequisitionStatus status) {
+        Requisition requisition = new Requisition();
+        requisition.setCreatedBy("bulk-requester");
+        requisition.setDepartment(department);
+        requisition.setStatus(status);
+        requisition.addItem(new RequisitionItem("Chair", 1, new BigDecimal(price)));
+        return requisitionRepository.save(requisition);
+    }
+}
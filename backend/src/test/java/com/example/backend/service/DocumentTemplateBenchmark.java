@@ -0,0 +1,380 @@
+package com.example.backend.service;
+
+import com.example.backend.model.LineItem;
+import com.example.backend.model.PurchaseOrder;
+import com.example.backend.util.TemplateBuffer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Document HTML generation: the StringBuilder code used so far (legacy*, copied here unchanged apart from
+ * reading the stylesheet once) against the precompiled templates. Both PO variants parse the line items JSON
+ * and format amounts; the template variants also escape every value. *Bytes measures rendering into the
+ * pooled buffer as PurchaseOrderPdfService does, *String the String copy mail bodies need.
+ *
+ * Not part of the surefire run; launch main() from the test classpath after mvn test-compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentTemplateBenchmark {
+
+    @Param({"5", "50"})
+    public int lineItemCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PurchaseOrderPdfService pdfService;
+    private EmailService emailService;
+    private PurchaseOrder po;
+    private String css;
+
+    @Setup
+    public void setUp() throws IOException {
+        pdfService = new PurchaseOrderPdfService(new PdfRenderEngine(new SimpleMeterRegistry(), 1));
+        emailService = new EmailService();
+        po = purchaseOrder(lineItemCount);
+        // The legacy stylesheet was a constant; it now lives in the template
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("documents/purchase-order.html")) {
+            String template = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            css = template.substring(template.indexOf("<style>") + 7, template.indexOf("</style>"));
+        }
+    }
+
+    @Benchmark
+    public String legacyPurchaseOrderString() {
+        return legacyPurchaseOrderHtml(po);
+    }
+
+    @Benchmark
+    public byte[] legacyPurchaseOrderBytes() {
+        // What HtmlConverter ends up with: the String encoded to UTF-8
+        return legacyPurchaseOrderHtml(po).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void templatePurchaseOrderBytes(Blackhole bh) {
+        try (TemplateBuffer html = TemplateBuffer.acquire()) {
+            PurchaseOrderPdfService.PURCHASE_ORDER_TEMPLATE.render(pdfService.purchaseOrderModel(po), html);
+            bh.consume(html.size());
+        }
+    }
+
+    @Benchmark
+    public String templatePurchaseOrderString() {
+        return PurchaseOrderPdfService.PURCHASE_ORDER_TEMPLATE.render(pdfService.purchaseOrderModel(po));
+    }
+
+    @Benchmark
+    public String legacyEmailBody() {
+        return legacyEmailBody(po.getVendorName(), po);
+    }
+
+    @Benchmark
+    public String templateEmailBody() {
+        return emailService.createEmailBody(po.getVendorName(), po);
+    }
+
+    private static PurchaseOrder purchaseOrder(int lineItemCount) throws IOException {
+        List<LineItem> lineItems = new ArrayList<>();
+        for (int i = 1; i <= lineItemCount; i++) {
+            LineItem item = new LineItem();
+            item.setSrNo(i);
+            item.setQuantity(String.valueOf(i * 2));
+            item.setUnit("Nos");
+            item.setDescription("Industrial shelving rack, 5 tier & powder coated #" + i);
+            item.setUnitPrice(new BigDecimal("12500.00"));
+            item.setAmount(new BigDecimal(25000L * i));
+            lineItems.add(item);
+        }
+        PurchaseOrder po = new PurchaseOrder();
+        po.setPoNumber("MJW/2025-26/0042");
+        po.setPoDate(LocalDate.of(2025, 9, 1));
+        po.setBillToCompany("M J Warehousing Pvt. Ltd.");
+        po.setBillToAddress("Harichand Melaram Complex, Village Mandoli, Delhi - 110093");
+        po.setBillToPAN("AAACM1234F");
+        po.setBillToGSTIN("07AAACM1234F1Z5");
+        po.setVendorName("Sharma Storage Solutions");
+        po.setVendorAddress("Plot 17, Industrial Area Phase II, Ghaziabad");
+        po.setVendorContactPerson("R. Sharma");
+        po.setVendorMobileNo("9810000000");
+        po.setShipToAddress("Warehouse 3, Mandoli, Delhi");
+        po.setScopeOfOrder("Racking for warehouse 3");
+        po.setShippingMethod("Road");
+        po.setShippingTerms("FOR destination");
+        po.setDateOfCompletion("30-Sep-25");
+        po.setLineItemsJson(new ObjectMapper().writeValueAsString(lineItems));
+        po.setFreightCharges(new BigDecimal("5000.00"));
+        po.setGstRate(new BigDecimal("18"));
+        po.setGstAmount(new BigDecimal("45000.00"));
+        po.setTotalAmount(new BigDecimal("300000.00"));
+        po.setPaymentTerms("30 days");
+        return po;
+    }
+
+    private String legacyPurchaseOrderHtml(PurchaseOrder po) {
+        List<LineItem> lineItems = parseLineItems(po.getLineItemsJson());
+        
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>");
+        html.append("<html><head>");
+        html.append("<meta charset='UTF-8'>");
+        html.append("<style>");
+        html.append(css);
+        html.append("</style>");
+        html.append("</head><body>");
+        
+        // Header
+        html.append("<div class='header'>");
+        html.append("<h1 class='title'>PURCHASE ORDER</h1>");
+        html.append("</div>");
+        
+        // Main content
+        html.append("<div class='main-content'>");
+        
+        // Left column - Bill To and Vendor
+        html.append("<div class='left-column'>");
+        
+        // Bill To
+        html.append("<div class='section'>");
+        html.append("<h3>BILL TO:</h3>");
+        html.append("<div class='address'>").append(po.getBillToCompany()).append("</div>");
+        html.append("<div class='address'>").append(po.getBillToAddress()).append("</div>");
+        html.append("<div><strong>PAN</strong> ").append(po.getBillToPAN()).append("</div>");
+        html.append("<div><strong>GSTIN</strong> ").append(po.getBillToGSTIN()).append("</div>");
+        html.append("</div>");
+        
+        // Vendor
+        html.append("<div class='section'>");
+        html.append("<h3>VENDOR:</h3>");
+        html.append("<div class='address'>").append(po.getVendorName()).append("</div>");
+        html.append("<div class='address'>").append(po.getVendorAddress()).append("</div>");
+        html.append("</div>");
+        
+        html.append("</div>");
+        
+        // Right column - PO Info, Date, and Ship To
+        html.append("<div class='right-column'>");
+        
+        // PO Number and Date
+        html.append("<div class='section'>");
+        html.append("<div><strong>P.O. NO.</strong> ").append(po.getPoNumber()).append("</div>");
+        html.append("<div><strong>DATE</strong> ").append(formatDate(po.getPoDate())).append("</div>");
+        html.append("</div>");
+        
+        // Ship To
+        html.append("<div class='section'>");
+        html.append("<h3>Ship To</h3>");
+        html.append("<div class='address'>").append(po.getShipToAddress()).append("</div>");
+        html.append("</div>");
+        
+        // Contact Person
+        html.append("<div class='section'>");
+        html.append("<div><strong>Contact Person</strong> ").append(po.getVendorContactPerson()).append("</div>");
+        html.append("<div><strong>Mobile No.</strong> ").append(po.getVendorMobileNo()).append("</div>");
+        html.append("</div>");
+        
+        html.append("</div>");
+        
+        html.append("</div>");
+        
+        // Scope of Order
+        html.append("<div class='scope-section'>");
+        html.append("<h3>Scope of Order: ").append(po.getScopeOfOrder()).append("</h3>");
+        html.append("</div>");
+        
+        // First table: Shipping details (3 columns)
+        html.append("<div class='shipping-table'>");
+        html.append("<table class='shipping-info'>");
+        html.append("<tr>");
+        html.append("<td><strong>SHIPPING METHOD</strong></td>");
+        html.append("<td><strong>SHIPPING TERMS</strong></td>");
+        html.append("<td><strong>DATE OF COMPLETION</strong></td>");
+        html.append("</tr>");
+        html.append("<tr>");
+        html.append("<td>").append(po.getShippingMethod()).append("</td>");
+        html.append("<td>").append(po.getShippingTerms()).append("</td>");
+        html.append("<td>").append(po.getDateOfCompletion()).append("</td>");
+        html.append("</tr>");
+        html.append("</table>");
+        html.append("</div>");
+        
+        // Second table: Line items (5 columns)
+        html.append("<div class='line-items-table'>");
+        html.append("<table class='line-items-info'>");
+        html.append("<tr>");
+        html.append("<td><strong>Sr. No.</strong></td>");
+        html.append("<td><strong>QTY/UNIT</strong></td>");
+        html.append("<td><strong>DESCRIPTION</strong></td>");
+        html.append("<td><strong>UNIT PRICE</strong></td>");
+        html.append("<td><strong>AMOUNT (Rs.)</strong></td>");
+        html.append("</tr>");
+        
+        // Line items
+        for (int i = 0; i < lineItems.size(); i++) {
+            LineItem item = lineItems.get(i);
+            html.append("<tr>");
+            html.append("<td>").append(item.getSrNo()).append("</td>");
+            html.append("<td>").append(item.getQuantity()).append(" ").append(item.getUnit()).append("</td>");
+            html.append("<td>").append(item.getDescription()).append("</td>");
+            html.append("<td>").append(formatCurrency(item.getUnitPrice())).append("</td>");
+            html.append("<td>").append(formatCurrency(item.getAmount())).append("</td>");
+            html.append("</tr>");
+        }
+        
+        // Freight charges row
+        html.append("<tr>");
+        html.append("<td></td>");
+        html.append("<td></td>");
+        html.append("<td>Freight Charges</td>");
+        html.append("<td></td>");
+        html.append("<td>").append(formatCurrency(po.getFreightCharges())).append("</td>");
+        html.append("</tr>");
+        
+        // GST row
+        html.append("<tr>");
+        html.append("<td></td>");
+        html.append("<td></td>");
+        html.append("<td>Add + GST @ ").append(po.getGstRate()).append("%</td>");
+        html.append("<td></td>");
+        html.append("<td>").append(formatCurrency(po.getGstAmount())).append("</td>");
+        html.append("</tr>");
+        
+        html.append("</table>");
+        html.append("</div>");
+        
+        // Terms & Conditions
+        html.append("<div class='terms-section'>");
+        html.append("<h3>Terms & Conditions</h3>");
+        html.append("<div class='terms-grid'>");
+        html.append("<div><strong>Taxes:</strong> Included in above</div>");
+        html.append("<div><strong>Freight:</strong> Included in above</div>");
+        html.append("<div><strong>Payment Terms:</strong> ").append(po.getPaymentTerms() != null ? po.getPaymentTerms() : "").append("</div>");
+        html.append("<div><strong>Contact Person:</strong> ").append(po.getVendorContactPerson()).append("</div>");
+        html.append("<div><strong>Warranty:</strong> ").append(po.getWarranty() != null ? po.getWarranty() : "NA").append("</div>");
+        html.append("</div>");
+        html.append("</div>");
+        
+        // Total Amount
+        html.append("<div class='total-section'>");
+        html.append("<div class='total-box'>");
+        html.append("<div class='total-label'>Total Amount</div>");
+        html.append("<div class='total-value'>").append(formatCurrency(po.getTotalAmount())).append("</div>");
+        html.append("</div>");
+        html.append("</div>");
+        
+        // Footer
+        html.append("<div class='footer'>");
+        html.append("<div class='authorized'>Authorized by</div>");
+        html.append("<div class='date'>").append(formatDate(LocalDate.now())).append(" Date</div>");
+        html.append("</div>");
+        
+        html.append("</body></html>");
+        
+        return html.toString();
+    }
+
+    private List<LineItem> parseLineItems(String lineItemsJson) {
+        try {
+            if (lineItemsJson == null || lineItemsJson.trim().isEmpty()) {
+                return List.of();
+            }
+            return objectMapper.readValue(lineItemsJson, new TypeReference<List<LineItem>>() {});
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    private static String formatDate(LocalDate date) {
+        if (date == null) return "";
+        return date.format(DateTimeFormatter.ofPattern("dd-MMM-yy"));
+    }
+
+    private static String formatCurrency(BigDecimal amount) {
+        if (amount == null) return "0.00";
+        return String.format("%,.2f", amount);
+    }
+
+    private static String legacyEmailBody(String vendorName, PurchaseOrder po) {
+        StringBuilder body = new StringBuilder();
+        body.append("<html><body>");
+        body.append("<div style='font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto;'>");
+        
+        // Header
+        body.append("<div style='background-color: #17331F; color: white; padding: 20px; text-align: center;'>");
+        body.append("<h1 style='margin: 0;'>Purchase Order</h1>");
+        body.append("<p style='margin: 5px 0 0 0;'>M J Warehousing Pvt. Ltd.</p>");
+        body.append("</div>");
+        
+        // Content
+        body.append("<div style='padding: 20px; background-color: #f9f9f9;'>");
+        body.append("<p>Dear ").append(vendorName).append(",</p>");
+        body.append("<p>We are pleased to place the following purchase order with your company:</p>");
+        
+        // PO Details
+        body.append("<div style='background-color: white; padding: 15px; border-left: 4px solid #17331F; margin: 15px 0;'>");
+        body.append("<h3 style='color: #17331F; margin-top: 0;'>Order Details</h3>");
+        body.append("<p><strong>PO Number:</strong> ").append(po.getPoNumber()).append("</p>");
+        body.append("<p><strong>Order Date:</strong> ").append(po.getPoDate()).append("</p>");
+        body.append("<p><strong>Scope of Order:</strong> ").append(po.getScopeOfOrder()).append("</p>");
+        body.append("<p><strong>Total Amount:</strong> ₹").append(po.getTotalAmount()).append("</p>");
+        body.append("</div>");
+        
+        // Instructions
+        body.append("<div style='background-color: #e8f5e8; padding: 15px; border-radius: 5px; margin: 15px 0;'>");
+        body.append("<h4 style='color: #17331F; margin-top: 0;'>Next Steps:</h4>");
+        body.append("<ul>");
+        body.append("<li>Please review the attached Purchase Order PDF</li>");
+        body.append("<li>Confirm acceptance by replying to this email</li>");
+        body.append("<li>Provide delivery timeline as per the order requirements</li>");
+        body.append("<li>Contact us if you have any questions</li>");
+        body.append("</ul>");
+        body.append("</div>");
+        
+        // Contact Information
+        body.append("<div style='background-color: white; padding: 15px; border: 1px solid #ddd; margin: 15px 0;'>");
+        body.append("<h4 style='color: #17331F; margin-top: 0;'>Contact Information</h4>");
+        body.append("<p><strong>Company:</strong> M J Warehousing Pvt. Ltd.</p>");
+        body.append("<p><strong>Address:</strong> Harichand Melaram Complex, Village Mandoli, Delhi - 110093</p>");
+        body.append("</div>");
+        
+        // Footer
+        body.append("<div style='text-align: center; padding: 20px; color: #666; font-size: 12px;'>");
+        body.append("<p>Thank you for your business!</p>");
+        body.append("<p>This is an automated message. Please do not reply to this email.</p>");
+        body.append("</div>");
+        
+        body.append("</div>");
+        body.append("</div>");
+        body.append("</body></html>");
+        
+        return body.toString();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DocumentTemplateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.backend.service;
+
+import com.example.backend.model.EmailStatus;
+import com.example.backend.model.EmailType;
+import com.example.backend.model.OutboundEmail;
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionItem;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.OutboundEmailRepository;
+import com.example.backend.repo.RequisitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Queued emails go out over one SMTP connection once the enqueueing transaction commits; a rejected recipient
+ * stays pending for a later retry.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxServiceTest {
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private OutboundEmailRepository emailRepository;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmailService emailService;
+
+    private SmtpStandIn smtp;
+
+    @BeforeEach
+    void startSmtp() throws IOException {
+        smtp = new SmtpStandIn();
+        ((JavaMailSenderImpl) mailSender).setHost("localhost");
+        ((JavaMailSenderImpl) mailSender).setPort(smtp.port());
+    }
+
+    @AfterEach
+    void stopSmtp() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void sendsQueuedEmailsOverOneConnectionAndRetriesRejectedRecipient() throws Exception {
+        Requisition requisition = new Requisition();
+        requisition.setCreatedBy("email-requester");
+        requisition.setDepartment("Sales");
+        requisition.setStatus(RequisitionStatus.PENDING_IT_APPROVAL);
+        requisition.addItem(new RequisitionItem("Chair", 4, new BigDecimal("2500.00")));
+        requisition.addItem(new RequisitionItem("Desk", 1, new BigDecimal("9000.00")));
+        Long requisitionId = requisitionRepository.save(requisition).getId();
+
+        List<OutboundEmail> queued = new TransactionTemplate(transactionManager).execute(status -> List.of(
+            emailOutboxService.enqueue(EmailType.REQUISITION_INQUIRY, requisitionId, "one@vendor.test", "Vendor One", "shambhu"),
+            emailOutboxService.enqueue(EmailType.REQUISITION_INQUIRY, requisitionId, "bounce@vendor.test", "Vendor Two", "shambhu"),
+            emailOutboxService.enqueue(EmailType.REQUISITION_INQUIRY, requisitionId, "three@vendor.test", "Vendor Three", "shambhu")));
+
+        OutboundEmail first = awaitSettled(queued.get(0).getId());
+        OutboundEmail bounced = awaitSettled(queued.get(1).getId());
+        OutboundEmail third = awaitSettled(queued.get(2).getId());
+
+        assertEquals(EmailStatus.SENT, first.getStatus());
+        assertNotNull(first.getSentAt());
+        assertEquals(EmailStatus.SENT, third.getStatus());
+        assertEquals(1, smtp.connections.get());
+        assertEquals(2, smtp.messages.size());
+        assertTrue(smtp.messages.get(0).contains("Product Requirement Inquiry - Chair, Desk"));
+
+        assertEquals(EmailStatus.PENDING, bounced.getStatus());
+        assertEquals(1, bounced.getAttempts());
+        assertNotNull(bounced.getLastError());
+        assertTrue(bounced.getNextAttemptAt().isAfter(Instant.now()));
+
+        assertEquals(2, emailOutboxService.getEmails(EmailType.REQUISITION_INQUIRY, requisitionId).stream()
+            .filter(email -> email.getStatus() == EmailStatus.SENT).count());
+    }
+
+    @Test
+    void composesMissingTotalsFromItemsAndKeepsAttemptsWhenComposeFails() throws Exception {
+        Requisition multiItem = new Requisition();
+        multiItem.setCreatedBy("email-requester");
+        multiItem.setDepartment("Sales");
+        multiItem.setStatus(RequisitionStatus.PENDING_IT_APPROVAL);
+        multiItem.addItem(new RequisitionItem("Lamp", 2, new BigDecimal("1500.00")));
+        Long multiItemId = requisitionRepository.save(multiItem).getId();
+        // Totals as an older instance left them
+        jdbcTemplate.update("UPDATE requisition SET total_amount = NULL, total_quantity = NULL, item_count = NULL, "
+            + "items_summary = NULL WHERE id = ?", multiItemId);
+
+        // Legacy requisition with no amount: the body cannot be composed
+        Requisition broken = new Requisition();
+        broken.setCreatedBy("email-requester");
+        broken.setDepartment("Sales");
+        broken.setStatus(RequisitionStatus.PENDING_IT_APPROVAL);
+        broken.setItemName("Mystery");
+        Long brokenId = requisitionRepository.save(broken).getId();
+
+        List<OutboundEmail> queued = new TransactionTemplate(transactionManager).execute(status -> List.of(
+            emailOutboxService.enqueue(EmailType.REQUISITION_INQUIRY, multiItemId, "one@vendor.test", "Vendor One", "shambhu"),
+            emailOutboxService.enqueue(EmailType.REQUISITION_INQUIRY, brokenId, "two@vendor.test", "Vendor Two", "shambhu")));
+
+        assertEquals(EmailStatus.SENT, awaitSettled(queued.get(0).getId()).getStatus());
+        assertTrue(smtp.messages.get(0).contains("Product Requirement Inquiry - Lamp"));
+        assertTrue(emailService.createRequisitionEmailBody("Vendor One",
+            requisitionRepository.findWithItemsById(multiItemId).orElseThrow()).contains("₹3000.00"));
+
+        OutboundEmail notComposed = awaitSettled(queued.get(1).getId());
+        assertEquals(EmailStatus.PENDING, notComposed.getStatus());
+        assertEquals(0, notComposed.getAttempts());
+        assertTrue(notComposed.getLastError().startsWith("Compose failed"));
+        assertTrue(notComposed.getNextAttemptAt().isAfter(Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    void rejectsInvalidAddressAndBacksOffExponentially() {
+        assertThrows(IllegalArgumentException.class, () ->
+            emailOutboxService.enqueue(EmailType.PURCHASE_ORDER, 1L, "not an address", "Vendor", "joshi"));
+
+        assertEquals(30_000L, emailOutboxService.retryDelayMs(1));
+        assertEquals(120_000L, emailOutboxService.retryDelayMs(3));
+        assertEquals(3_600_000L, emailOutboxService.retryDelayMs(20));
+    }
+
+    // Waits until the worker has recorded an outcome (sent, or the failed attempt's retry time)
+    private OutboundEmail awaitSettled(Long id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            OutboundEmail email = emailRepository.findById(id).orElseThrow();
+            if (email.getStatus() != EmailStatus.PENDING || email.getLastError() != null) {
+                return email;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Email " + id + " was not processed");
+    }
+
+    // Minimal SMTP server: accepts everything except recipients named "bounce", counts connections and messages
+    private static class SmtpStandIn implements AutoCloseable {
+        private final ServerSocket server = new ServerSocket(0);
+        final AtomicInteger connections = new AtomicInteger();
+        final List<String> messages = new CopyOnWriteArrayList<>();
+
+        SmtpStandIn() throws IOException {
+            Thread acceptor = new Thread(this::accept, "smtp-stand-in");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    connections.incrementAndGet();
+                    converse(socket);
+                } catch (IOException e) {
+                    // Server closed or client went away
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            reply(out, "220 localhost SMTP stand-in");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "RCPT" -> reply(out, line.toLowerCase().contains("bounce@") ? "550 No such user" : "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        String dataLine;
+                        while ((dataLine = in.readLine()) != null && !dataLine.equals(".")) {
+                            data.append(dataLine).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 Queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationEvent;
+import com.example.backend.model.NotificationTemplate;
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionItem;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.NotificationEventRepository;
+import com.example.backend.repo.NotificationRepository;
+import com.example.backend.repo.RequisitionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Decisions leave an outbox event behind; the dispatcher fans it out and messages render on read.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationOutboxServiceTest {
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private NotificationEventRepository eventRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void approvalEventFansOutToRequesterAndNextStage() {
+        Requisition requisition = new Requisition();
+        requisition.setCreatedBy("outbox-requester");
+        requisition.setDepartment("IT");
+        requisition.setStatus(RequisitionStatus.PENDING_IT_APPROVAL);
+        requisition.addItem(new RequisitionItem("Monitor", 2, new BigDecimal("12000.00")));
+        Requisition saved = requisitionRepository.save(requisition);
+
+        NotificationEvent event = new TransactionTemplate(transactionManager).execute(status ->
+            notificationOutboxService.append(NotificationTemplate.DEPARTMENT_APPROVED, saved));
+        assertNull(eventRepository.findById(event.getId()).orElseThrow().getDispatchedAt());
+        assertEquals(0, notificationRepository.findByUserIdAndIsReadFalse("outbox-requester").size());
+
+        notificationOutboxService.dispatchPending();
+
+        assertNotNull(eventRepository.findById(event.getId()).orElseThrow().getDispatchedAt());
+        List<Notification> requester = notificationRepository.findByUserIdAndIsReadFalse("outbox-requester");
+        assertEquals(1, requester.size());
+        assertEquals("Your PR #" + saved.getId() + " for 1 items (Monitor) has been approved by Department and sent to IT",
+            requester.get(0).getMessage());
+        assertEquals(1, notificationRepository.findByUserIdOrderByTimestampDesc(NotificationOutboxService.IT_MANAGER).stream()
+            .filter(n -> n.getMessage().startsWith("PR #" + saved.getId() + " from outbox-requester (IT)"))
+            .count());
+
+        // Already dispatched events are not delivered twice
+        notificationOutboxService.dispatchPending();
+        assertEquals(1, notificationRepository.findByUserIdAndIsReadFalse("outbox-requester").size());
+    }
+}
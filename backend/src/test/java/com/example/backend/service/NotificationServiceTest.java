@@ -0,0 +1,67 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Notification;
+import com.example.backend.repo.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk operations only touch the caller's rows and keep the cached unread count in step.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void bulkOperationsKeepUnreadCountExact() {
+        String user = "bulk-user";
+        Notification first = save(user);
+        Notification second = save(user);
+        Notification third = save(user);
+        Notification foreign = save("bulk-other");
+        assertEquals(3, notificationService.getUnreadCount(user));
+
+        // Seeded count now follows inserts reported by writers
+        save(user);
+        notificationStreamService.notificationAdded(user);
+        assertEquals(4, notificationService.getUnreadCount(user));
+
+        assertEquals(2, notificationService.markRead(user, List.of(first.getNotificationId(), second.getNotificationId(), foreign.getNotificationId())));
+        assertEquals(2, notificationService.getUnreadCount(user));
+        assertEquals(1, notificationService.getUnreadCount("bulk-other"));
+
+        assertEquals(1, notificationService.deleteByIds(user, List.of(third.getNotificationId(), foreign.getNotificationId())));
+        assertEquals(1, notificationService.getUnreadCount(user));
+        assertTrue(notificationRepository.existsById(foreign.getNotificationId()));
+
+        assertEquals(1, notificationService.markAllRead(user));
+        assertEquals(0, notificationService.getUnreadCount(user));
+
+        assertEquals(3, notificationService.deleteOlderThan(user, Duration.ZERO));
+        assertEquals(0, notificationRepository.findByUserIdOrderByTimestampDesc(user).size());
+    }
+
+    private Notification save(String user) {
+        Notification notification = new Notification();
+        notification.setUserId(user);
+        notification.setMessage("bulk test");
+        return notificationRepository.save(notification);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Notification;
+import com.example.backend.repo.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Open streams receive notifications inserted after they connect; a reconnect with Last-Event-ID replays the gap.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationStreamServiceTest {
+
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void pushesNewNotificationsAndResumesAfterLastEventId() throws Exception {
+        String user = "stream-user";
+        Notification before = save(user, "before connect");
+
+        CompletableFuture<List<String>> live = notificationStreamService.subscribe(user, null)
+            .filter(event -> event.data() != null)
+            .map(event -> event.data().getMessage())
+            .take(2)
+            .collectList()
+            .toFuture();
+        save(user, "first");
+        save(user, "second");
+        notificationStreamService.notificationAdded(user);
+        assertEquals(List.of("first", "second"), live.get(10, TimeUnit.SECONDS));
+        assertEquals(0, notificationStreamService.getOpenStreamCount());
+
+        // Reconnect after "before": both later notifications are replayed from the database
+        List<String> replayed = notificationStreamService.subscribe(user, before.getNotificationId())
+            .filter(event -> event.data() != null)
+            .map(event -> event.data().getMessage())
+            .take(2)
+            .collectList()
+            .block(Duration.ofSeconds(10));
+        assertEquals(List.of("first", "second"), replayed);
+    }
+
+    private Notification save(String user, String message) {
+        Notification notification = new Notification();
+        notification.setUserId(user);
+        notification.setMessage(message);
+        return notificationRepository.save(notification);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.service;
+
+import com.example.backend.model.VendorPdf;
+import com.example.backend.repo.VendorPdfRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Walks a keyset scroll page by page: every row must appear exactly once, newest first,
+ * including rows that share the same timestamp.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaginationServiceKeysetTest {
+
+    @Autowired
+    private PaginationService paginationService;
+
+    @Autowired
+    private VendorPdfRepository vendorPdfRepository;
+
+    @Test
+    void scrollVisitsEveryRowOnceAcrossTimestampTies() {
+        String department = "KeysetTest";
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            VendorPdf pdf = new VendorPdf();
+            pdf.setFileName("keyset-" + i + ".pdf");
+            pdf.setDepartment(department);
+            // Groups of three rows share a timestamp, so only the id can break the tie
+            pdf.setUploadedAt(base.plusSeconds(i / 3));
+            expected.add(vendorPdfRepository.save(pdf).getId());
+        }
+        expected.sort((a, b) -> Long.compare(b, a));
+
+        Specification<VendorPdf> filter = (root, query, cb) -> cb.equal(root.get("department"), department);
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Slice<VendorPdf> slice = paginationService.scroll(vendorPdfRepository, filter, "uploadedAt", cursor, 5);
+            slice.getContent().forEach(pdf -> seen.add(pdf.getId()));
+            cursor = paginationService.nextCursor(slice, VendorPdf::getUploadedAt, VendorPdf::getId);
+            pages++;
+            if (cursor == null) {
+                assertFalse(slice.hasNext());
+            }
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(5, pages);
+        assertNull(paginationService.decodeCursor(null));
+        assertThrows(IllegalArgumentException.class, () -> paginationService.decodeCursor("not-a-cursor"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conversions share the prepared contexts, never run more than slots at once, queue for a slot when all are busy,
+ * and are recorded in the histograms.
+ */
+class PdfRenderEngineTest {
+
+    private static final String HTML = "<html><head><meta charset='UTF-8'></head><body><h1>PO ₹ 1,234.00</h1>"
+        + "<table><tr><td>Rack</td><td>2</td></tr></table></body></html>";
+
+    @Test
+    void rendersConcurrentRequestsThroughBoundedSlots() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PdfRenderEngine engine = new PdfRenderEngine(registry, 2);
+
+        // Each conversion holds its slot until the gate opens, so the ones waiting for a slot can be observed
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger converting = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> renders = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                renders.add(pool.submit(() -> engine.render("test", new GatedHtml(gate, converting))));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (converting.get() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            // Four callers, two slots: the other two stay queued however long the first two take
+            Thread.sleep(200);
+            assertEquals(2, converting.get());
+            gate.countDown();
+
+            for (Future<byte[]> render : renders) {
+                byte[] pdf = render.get();
+                assertTrue(new String(pdf, 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF-"));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(registry.get("pdf.render.wait").tags("document", "test").timer().max(TimeUnit.MILLISECONDS) >= 200);
+        assertEquals(6, registry.get("pdf.render.duration").tags("document", "test", "outcome", "success").timer().count());
+        assertEquals(6, registry.get("pdf.render.wait").tags("document", "test").timer().count());
+        assertEquals(6, registry.get("pdf.render.bytes").tags("document", "test").summary().count());
+        assertTrue(registry.get("pdf.render.bytes").summary().totalAmount() > 0);
+    }
+
+    // HTML input that counts the conversions that started reading it and blocks on the first read until the gate opens
+    private static class GatedHtml extends InputStream {
+        private final InputStream html = new ByteArrayInputStream(HTML.getBytes(StandardCharsets.UTF_8));
+        private final CountDownLatch gate;
+        private final AtomicInteger converting;
+        private boolean started;
+
+        GatedHtml(CountDownLatch gate, AtomicInteger converting) {
+            this.gate = gate;
+            this.converting = converting;
+        }
+
+        @Override
+        public int read() throws IOException {
+            start();
+            return html.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            start();
+            return html.read(b, off, len);
+        }
+
+        private void start() throws IOException {
+            if (started) {
+                return;
+            }
+            started = true;
+            converting.incrementAndGet();
+            try {
+                if (!gate.await(10, TimeUnit.SECONDS)) {
+                    throw new IOException("Gate never opened");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.RequisitionImportReport;
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.NotificationRepository;
+import com.example.backend.repo.RequisitionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports write valid requisitions with their items and totals, report bad rows by line, and leave one
+ * summary notification per manager.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RequisitionImportServiceTest {
+
+    @Autowired
+    private RequisitionImportService requisitionImportService;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private StatusCounterService statusCounterService;
+
+    @Test
+    void csvImportWritesValidRequisitionsAndReportsBadRows() throws Exception {
+        String department = "Import-" + UUID.randomUUID().toString().substring(0, 8);
+        String user = "import-user-" + department;
+        seedCounter(department);
+
+        String csv = String.join("\n",
+            "ref,department,item_name,quantity,price",
+            "A," + department + ",\"Desk, standing\",2,15000.50",
+            "A," + department + ",Chair,4,4999",
+            "B,,Monitor,1,12000",
+            "C," + department + ",Keyboard,x,900",
+            "C," + department + ",Mouse,1,450",
+            "D," + department + ",\"Cable,3,10",
+            "A," + department + ",Lamp,1,700");
+
+        RequisitionImportReport report = requisitionImportService.importRequisitions(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), RequisitionImportService.Format.CSV, user, department);
+
+        assertEquals(2, report.imported());
+        assertEquals(3, report.failed());
+        assertEquals(List.of(5L, 7L, 8L), report.errors().stream().map(RequisitionImportReport.RowError::line).toList());
+        assertEquals("Invalid quantity: x", report.errors().get(0).message());
+
+        List<Requisition> imported = requisitionRepository.findByCreatedByOrderByCreatedAtDesc(user, Pageable.unpaged()).getContent();
+        assertEquals(2, imported.size());
+        Requisition desks = imported.stream().filter(r -> r.getItemCount() == 2).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("49997.00").compareTo(desks.getTotalAmount()));
+        assertEquals("Desk, standing, Chair", desks.getItemNames());
+        assertEquals(RequisitionStatus.PENDING_DEPARTMENT_APPROVAL, desks.getStatus());
+        assertEquals(2, requisitionRepository.findWithItemsById(desks.getId()).orElseThrow().getItems().size());
+        assertEquals(3, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_DEPARTMENT_APPROVAL));
+
+        assertEquals(1, notificationRepository.findByUserIdOrderByTimestampDesc(ProcureService.getDepartmentManager(department)).stream()
+            .filter(n -> n.getMessage().equals("2 new PRs imported by " + user + " (" + department + ": 2), total ₹61997.00, need Department approval"))
+            .count());
+    }
+
+    @Test
+    void ndjsonImportReportsInvalidLines() throws Exception {
+        String department = "Import-" + UUID.randomUUID().toString().substring(0, 8);
+        String user = "import-user-" + department;
+        seedCounter(department);
+
+        String ndjson = String.join("\n",
+            "{\"ref\": \"n1\", \"items\": [{\"itemName\": \"Tablet\", \"quantity\": 3, \"price\": 18999.99}]}",
+            "{\"ref\": \"n2\", \"items\": []}",
+            "not json",
+            "{\"ref\": \"n3\", \"items\": [{\"itemName\": \"Pen\", \"quantity\": 10, \"price\": 0.255}]}");
+
+        RequisitionImportReport report = requisitionImportService.importRequisitions(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), RequisitionImportService.Format.NDJSON, user, department);
+
+        assertEquals(1, report.imported());
+        assertEquals(3, report.failed());
+        assertEquals("Requisition has no items", report.errors().get(0).message());
+        assertTrue(report.errors().get(1).message().startsWith("Invalid JSON"));
+        assertEquals("n3", report.errors().get(2).ref());
+        assertEquals(0, new BigDecimal("56999.97").compareTo(
+            requisitionRepository.findByCreatedByOrderByCreatedAtDesc(user).get(0).getTotalAmount()));
+    }
+
+    // Counter rows are created on PostgreSQL with ON CONFLICT; on H2 they have to exist before the import adjusts them
+    private void seedCounter(String department) {
+        Requisition requisition = new Requisition();
+        requisition.setCreatedBy("import-seed");
+        requisition.setDepartment(department);
+        requisition.setStatus(RequisitionStatus.PENDING_DEPARTMENT_APPROVAL);
+        requisitionRepository.save(requisition);
+        statusCounterService.reconcile();
+    }
+}
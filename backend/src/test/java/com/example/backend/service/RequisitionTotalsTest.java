@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionItem;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.RequisitionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rows whose stored totals are NULL (written before the columns existed) keep their real totals through an update.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RequisitionTotalsTest {
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void multiItemRowWithMissingTotalsSurvivesAnUpdate() {
+        Requisition requisition = new Requisition();
+        requisition.setCreatedBy("totals-test");
+        requisition.setDepartment("Totals");
+        requisition.setStatus(RequisitionStatus.PENDING_IT_APPROVAL);
+        requisition.addItem(new RequisitionItem("Chair", 4, new BigDecimal("2500.00")));
+        requisition.addItem(new RequisitionItem("Desk", 1, new BigDecimal("9000.00")));
+        Long id = requisitionRepository.save(requisition).getId();
+        clearTotals(id);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Requisition loaded = requisitionRepository.findById(id).orElseThrow();
+            loaded.setStatus(RequisitionStatus.PENDING_FINANCE_APPROVAL);
+            requisitionRepository.save(loaded);
+        });
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT total_amount, total_quantity, item_count FROM requisition WHERE id = ?", id);
+        assertEquals(0, new BigDecimal("19000.00").compareTo((BigDecimal) row.get("TOTAL_AMOUNT")));
+        assertEquals(5, ((Number) row.get("TOTAL_QUANTITY")).intValue());
+        assertEquals(2, ((Number) row.get("ITEM_COUNT")).intValue());
+
+        clearTotals(id);
+        transaction.executeWithoutResult(status -> {
+            Requisition loaded = requisitionRepository.findById(id).orElseThrow();
+            assertFalse(loaded.isLegacySingleItem());
+            assertEquals(0, new BigDecimal("19000.00").compareTo(ProcureService.requestAmount(loaded)));
+        });
+    }
+
+    @Test
+    void legacyRowWithMissingTotalsIsChargedItsOwnPrice() {
+        Requisition requisition = new Requisition();
+        requisition.setCreatedBy("totals-test");
+        requisition.setDepartment("Totals");
+        requisition.setStatus(RequisitionStatus.PENDING_IT_APPROVAL);
+        requisition.setItemName("Monitor");
+        requisition.setQuantity(3);
+        requisition.setPrice(new BigDecimal("12000.00"));
+        Long id = requisitionRepository.save(requisition).getId();
+        clearTotals(id);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Requisition loaded = requisitionRepository.findById(id).orElseThrow();
+            assertTrue(loaded.isLegacySingleItem());
+            assertEquals(0, new BigDecimal("36000.00").compareTo(ProcureService.requestAmount(loaded)));
+            assertEquals(0, loaded.getItemCount());
+        });
+    }
+
+    // What ddl-auto=update leaves on rows that existed before the total columns were added
+    private void clearTotals(Long id) {
+        jdbcTemplate.update("UPDATE requisition SET total_amount = NULL, total_quantity = NULL, item_count = NULL, "
+            + "items_summary = NULL WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Requisition;
+import com.example.backend.model.RequisitionStatus;
+import com.example.backend.repo.RequisitionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counters follow committed transitions and the reconcile pass repairs writes that bypassed them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StatusCounterServiceTest {
+
+    @Autowired
+    private StatusCounterService statusCounterService;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Test
+    void transitionsAndReconcileKeepTalliesExact() {
+        String department = "CounterTest";
+        // Written straight to the repository, so only reconcile can account for them
+        save(department, RequisitionStatus.PENDING_IT_APPROVAL);
+        save(department, RequisitionStatus.PENDING_IT_APPROVAL);
+        save(department, RequisitionStatus.APPROVED);
+        assertEquals(0, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_IT_APPROVAL));
+
+        statusCounterService.reconcile();
+        assertEquals(2, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_IT_APPROVAL));
+        assertEquals(1, statusCounterService.countRequisitions(department, RequisitionStatus.APPROVED));
+
+        statusCounterService.requisitionMoved(department, RequisitionStatus.PENDING_IT_APPROVAL, RequisitionStatus.APPROVED);
+        assertEquals(1, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_IT_APPROVAL));
+        assertEquals(2, statusCounterService.countRequisitions(department, RequisitionStatus.APPROVED));
+
+        // The move above was not backed by a real status change, so reconcile restores the true tallies
+        statusCounterService.reconcile();
+        assertEquals(2, statusCounterService.countRequisitions(department, RequisitionStatus.PENDING_IT_APPROVAL));
+        assertEquals(1, statusCounterService.countRequisitions(department, RequisitionStatus.APPROVED));
+    }
+
+    private void save(String department, RequisitionStatus status) {
+        Requisition requisition = new Requisition();
+        requisition.setCreatedBy("counter-test");
+        requisition.setDepartment(department);
+        requisition.setStatus(status);
+        requisitionRepository.save(requisition);
+    }
+}
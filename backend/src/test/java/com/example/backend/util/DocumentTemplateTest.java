@@ -0,0 +1,83 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Slots are escaped and UTF-8 encoded (the byte path matches String.getBytes), sections repeat and nest,
+ * malformed templates fail at compile time.
+ */
+class DocumentTemplateTest {
+
+    @Test
+    void rendersEscapedSlotsAndSections() {
+        DocumentTemplate template = DocumentTemplate.compile("test",
+            "{{! header }}<h1>{{title}}</h1><ul>{{#rows}}<li>{{name}} of {{title}}: ₹{{amount}}</li>{{/rows}}</ul>"
+                + "{{^rows}}<p>none</p>{{/rows}}{{#note}}<p>{{note}}</p>{{/note}}{{missing}}");
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", "Tom & Jerry's <Order>");
+        model.put("rows", List.of(Map.of("name", "Chair \"XL\"", "amount", 10), Map.of("name", "Désk 🪑", "amount", 2.5)));
+        assertEquals("<h1>Tom &amp; Jerry&#39;s &lt;Order&gt;</h1><ul>"
+                + "<li>Chair &quot;XL&quot; of Tom &amp; Jerry&#39;s &lt;Order&gt;: ₹10</li>"
+                + "<li>Désk 🪑 of Tom &amp; Jerry&#39;s &lt;Order&gt;: ₹2.5</li></ul>",
+            template.render(model));
+
+        assertEquals("<h1></h1><ul></ul><p>none</p><p>x</p>", template.render(Map.of("rows", List.of(), "note", "x")));
+    }
+
+    @Test
+    void encodesBufferOutputLikeStringGetBytes() {
+        DocumentTemplate template = DocumentTemplate.compile("test",
+            "<p>{{one}}|{{two}}|{{three}}|{{four}}|{{lone}}|{{lowFirst}}</p>{{#rows}}<i>{{name}}</i>{{/rows}}");
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("one", "plain & <ascii> \"'");
+        model.put("two", "Désk ©ß");
+        model.put("three", "₹ 1,234 – 中文");
+        model.put("four", "🪑 chair 𝄞");
+        model.put("lone", "a\uD83Db");
+        model.put("lowFirst", "\uDE00x\uD83D");
+        model.put("rows", List.of(Map.of("name", "Ünïcödé 😀"), Map.of("name", 42)));
+
+        try (TemplateBuffer buffer = TemplateBuffer.acquire()) {
+            template.render(model, buffer);
+            byte[] expected = template.render(model).getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, buffer.toByteArray());
+            assertEquals(expected.length, buffer.size());
+        }
+    }
+
+    @Test
+    void rejectsMalformedTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> DocumentTemplate.compile("t", "<p>{{name</p>"));
+        assertThrows(IllegalArgumentException.class, () -> DocumentTemplate.compile("t", "{{#rows}}<li>"));
+        IllegalArgumentException mismatched = assertThrows(IllegalArgumentException.class,
+            () -> DocumentTemplate.compile("t", "{{#rows}}\n{{/cols}}"));
+        assertTrue(mismatched.getMessage().contains("line 2"));
+    }
+
+    @Test
+    void reusesThreadBufferOnceReleased() {
+        TemplateBuffer first = TemplateBuffer.acquire();
+        TemplateBuffer nested = TemplateBuffer.acquire();
+        assertNotSame(first, nested);
+        nested.close();
+        first.close();
+        try (TemplateBuffer again = TemplateBuffer.acquire()) {
+            assertSame(first, again);
+            assertEquals(0, again.size());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost of JwtAuthenticationFilter.
+ *
+ * legacyFivePasses reproduces the old filter: validateToken plus four extract* calls,
+ * each deriving a new HMAC key and parser. The other benchmarks use the claims pipeline.
+ *
+ * Not part of the surefire run; launch main() from the test classpath after mvn test-compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey123456789012345678901234567890";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil(10000);
+        // Cache disabled: each call pays exactly one signature verification
+        uncachedJwtUtil = newJwtUtil(0);
+        token = jwtUtil.generateToken("benchmark", "EMPLOYEE", "IT", 42L);
+    }
+
+    private static JwtUtil newJwtUtil(int cacheSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", 86400000L);
+        ReflectionTestUtils.setField(util, "claimsCacheMaxSize", cacheSize);
+        util.init();
+        return util;
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public void legacyFivePasses(Blackhole bh) {
+        bh.consume(legacyParse(token).getExpiration());
+        bh.consume(legacyParse(token).getSubject());
+        bh.consume(legacyParse(token).get("role", String.class));
+        bh.consume(legacyParse(token).get("department", String.class));
+        bh.consume(legacyParse(token).get("userId", Long.class));
+    }
+
+    @Benchmark
+    public void singleParse(Blackhole bh) {
+        consumeClaims(uncachedJwtUtil.getValidClaims(token), bh);
+    }
+
+    @Benchmark
+    public void cachedClaims(Blackhole bh) {
+        consumeClaims(jwtUtil.getValidClaims(token), bh);
+    }
+
+    private static void consumeClaims(Claims claims, Blackhole bh) {
+        bh.consume(claims.getSubject());
+        bh.consume(claims.get("role", String.class));
+        bh.consume(claims.get("department", String.class));
+        bh.consume(claims.get("userId", Long.class));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
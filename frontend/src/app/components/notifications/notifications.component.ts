@@ -1,4 +1,5 @@
-import { Component, signal, OnInit } from '@angular/core';
+import { Component, signal, OnInit, OnDestroy } from '@angular/core';
+import { Subscription } from 'rxjs';
 import { CommonModule } from '@angular/common';
 import { RouterModule } from '@angular/router';
 import { ApiService, Notification } from '../../services/api.service';
@@ -12,9 +13,10 @@ import { AlertService } from '../../services/alert.service';
   templateUrl: './notifications.component.html',
   styleUrls: ['./notifications.component.css']
 })
-export class NotificationsComponent implements OnInit {
+export class NotificationsComponent implements OnInit, OnDestroy {
   protected readonly notifications = signal<Notification[]>([]);
   protected readonly loading = signal<boolean>(true);
+  private streamSubscription?: Subscription;
 
   constructor(
     private apiService: ApiService,
@@ -24,6 +26,16 @@ export class NotificationsComponent implements OnInit {
 
   ngOnInit() {
     this.loadNotifications();
+    // New notifications are pushed by the server instead of re-fetching the list
+    this.streamSubscription = this.apiService.streamNotifications().subscribe(notification => {
+      if (!this.notifications().some(n => n.notificationId === notification.notificationId)) {
+        this.notifications.update(list => [notification, ...list]);
+      }
+    });
+  }
+
+  ngOnDestroy() {
+    this.streamSubscription?.unsubscribe();
   }
 
   private loadNotifications() {
@@ -65,8 +77,26 @@ export class NotificationsComponent implements OnInit {
   }
 
   markAsRead(notification: Notification) {
-    // TODO: Implement mark as read functionality if needed
-    console.log('Mark as read:', notification);
+    this.apiService.markNotificationsRead([notification.notificationId]).subscribe({
+      next: (response) => {
+        if (response.success) {
+          // The list shows unread notifications only
+          this.notifications.update(list => list.filter(n => n.notificationId !== notification.notificationId));
+        }
+      },
+      error: (error) => console.error('Error marking notification as read:', error)
+    });
+  }
+
+  markAllAsRead() {
+    this.apiService.markNotificationsRead().subscribe({
+      next: (response) => {
+        if (response.success) {
+          this.notifications.set([]);
+        }
+      },
+      error: (error) => console.error('Error marking notifications as read:', error)
+    });
   }
 
   deleteNotification(notification: Notification) {
@@ -2,7 +2,7 @@ import { Component, signal, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { RouterModule, Router } from '@angular/router';
 import { AuthService } from '../../services/auth.service';
-import { ApiService, Notification } from '../../services/api.service';
+import { ApiService } from '../../services/api.service';
 
 @Component({
   selector: 'app-sidebar',
@@ -12,7 +12,7 @@ import { ApiService, Notification } from '../../services/api.service';
   styleUrls: ['./sidebar.component.css']
 })
 export class SidebarComponent implements OnInit {
-  protected readonly notifications = signal<Notification[]>([]);
+  protected readonly unreadCount = signal<number>(0);
 
               menuItems = [
                 {
@@ -75,29 +75,12 @@ export class SidebarComponent implements OnInit {
     this.loadNotifications();
   }
 
+  // Badge only needs the count, not the list
   private loadNotifications() {
-    this.apiService.getNotifications().subscribe({
+    this.apiService.getUnreadNotificationCount().subscribe({
       next: (response) => {
         if (response.success) {
-          let allNotifications = response.notifications || [];
-          
-          // Filter notifications based on user role
-          if (this.authService.isEmployee()) {
-            // For employees, only show notifications related to their requisitions and PDFs
-            const currentUser = this.authService.getCurrentUser();
-            allNotifications = allNotifications.filter((notification: Notification) => {
-              return notification.message.includes(currentUser?.username || '') ||
-                notification.message.includes('requisition') ||
-                notification.message.includes('approval') ||
-                notification.message.includes('PDF') ||
-                notification.message.includes('pdf') ||
-                notification.message.includes('rejected') ||
-                notification.message.includes('approved');
-            });
-          }
-          // For managers/admins, show all notifications (no filtering)
-          
-          this.notifications.set(allNotifications);
+          this.unreadCount.set(response.unreadCount);
         }
       },
       error: (error) => {
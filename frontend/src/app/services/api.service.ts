@@ -164,9 +164,15 @@ export class ApiService {
   }
 
   // Requisition methods
-  getRequisitions(): Observable<any> {
-    const authParams = this.getAuthParams();
-    return this.http.get<any>(`${this.baseUrl}/requisitions`, { params: authParams });
+  // Newest page first; pass the response's nextCursor to load the next one
+  getRequisitions(cursor?: string, size?: number): Observable<any> {
+    return this.http.get<any>(`${this.baseUrl}/requisitions`, { params: this.withCursor(this.getAuthParams(), cursor, size) });
+  }
+
+  private withCursor(params: HttpParams, cursor?: string, size?: number): HttpParams {
+    if (cursor) params = params.set('cursor', cursor);
+    if (size) params = params.set('size', size.toString());
+    return params;
   }
 
   createRequisition(request: CreateRequisitionRequest): Observable<any> {
@@ -225,6 +231,19 @@ export class ApiService {
     return this.http.post<any>(`${this.baseUrl}/requisitions/${id}/finance-decision`, null, { params });
   }
 
+  // Bulk import from a CSV or NDJSON file; the file is sent as the raw body so the server can stream it
+  importRequisitions(file: File): Observable<any> {
+    const params = this.getAuthParams();
+    const contentType = file.name.toLowerCase().endsWith('.csv') ? 'text/csv' : 'application/x-ndjson';
+    return this.http.post<any>(`${this.baseUrl}/requisitions/import`, file, { params, headers: { 'Content-Type': contentType } });
+  }
+
+  // Bulk decisions: one call for many requisitions, per-requisition outcome in response.results
+  makeBulkDecision(stage: 'department' | 'it' | 'finance', ids: number[], decision: string, comments?: string): Observable<any> {
+    const params = this.getAuthParams();
+    return this.http.post<any>(`${this.baseUrl}/requisitions/bulk/${stage}-decision`, { ids, decision, comments }, { params });
+  }
+
   // Notification methods
   getNotifications(): Observable<any> {
     const authParams = this.getAuthParams();
@@ -238,6 +257,42 @@ export class ApiService {
     return this.http.delete<any>(`${this.baseUrl}/notifications/${notificationId}`, { params: authParams });
   }
 
+  getUnreadNotificationCount(): Observable<any> {
+    const authParams = this.getAuthParams();
+    return this.http.get<any>(`${this.baseUrl}/notifications/unread-count`, { params: authParams });
+  }
+
+  // Without ids every notification of the user is marked read
+  markNotificationsRead(ids?: number[]): Observable<any> {
+    let params = this.getAuthParams();
+    if (ids && ids.length > 0) {
+      params = params.set('ids', ids.join(','));
+    }
+    return this.http.post<any>(`${this.baseUrl}/notifications/read`, null, { params });
+  }
+
+  deleteNotifications(ids: number[]): Observable<any> {
+    const params = this.getAuthParams().set('ids', ids.join(','));
+    return this.http.delete<any>(`${this.baseUrl}/notifications`, { params });
+  }
+
+  deleteNotificationsOlderThan(days: number): Observable<any> {
+    const params = this.getAuthParams().set('days', days.toString());
+    return this.http.delete<any>(`${this.baseUrl}/notifications/older-than`, { params });
+  }
+
+  // Live notifications over server-sent events; EventSource reconnects on its own and resumes after the last id
+  streamNotifications(): Observable<Notification> {
+    const authParams = this.getAuthParams();
+    return new Observable<Notification>(subscriber => {
+      const source = new EventSource(`${this.baseUrl}/notifications/stream?${authParams.toString()}`);
+      source.addEventListener('notification', event => {
+        subscriber.next(JSON.parse((event as MessageEvent).data));
+      });
+      return () => source.close();
+    });
+  }
+
   // Budget methods
   getBudgets(): Observable<any> {
     const authParams = this.getAuthParams();
@@ -344,9 +399,9 @@ export class ApiService {
     return this.http.post<any>(`${this.baseUrl}/po/create`, null, { params });
   }
 
-  getPurchaseOrders(): Observable<any> {
-    const authParams = this.getAuthParams();
-    return this.http.get<any>(`${this.baseUrl}/po/list`, { params: authParams });
+  // Newest page first; pass the response's nextCursor to load the next one
+  getPurchaseOrders(cursor?: string, size?: number): Observable<any> {
+    return this.http.get<any>(`${this.baseUrl}/po/list`, { params: this.withCursor(this.getAuthParams(), cursor, size) });
   }
 
   getPurchaseOrderById(id: number): Observable<any> {
@@ -416,6 +471,17 @@ export class ApiService {
     return this.http.post<any>(`${this.baseUrl}/requisitions/${requisitionId}/send-email`, null, { params });
   }
 
+  // Vendor emails are queued: send-email returns an emailId whose delivery status is read here
+  getEmailStatus(emailId: number): Observable<any> {
+    const params = this.getAuthParams();
+    return this.http.get<any>(`${this.baseUrl}/emails/${emailId}`, { params });
+  }
+
+  getEmailsFor(type: 'PURCHASE_ORDER' | 'REQUISITION_INQUIRY', referenceId: number): Observable<any> {
+    const params = this.getAuthParams().set('type', type).set('referenceId', referenceId.toString());
+    return this.http.get<any>(`${this.baseUrl}/emails`, { params });
+  }
+
   updateRequisition(requisitionId: number, request: CreateRequisitionWithItemsRequest): Observable<any> {
     const authParams = this.getAuthParams();
     console.log('DEBUG: Update requisition - requisitionId:', requisitionId);
@@ -725,8 +791,8 @@ export class ApiService {
     return this.http.post<any>(`${this.baseUrl}/grn/receive`, request, { params: authParams });
     }
 
-  getGrnHistory(poId?: number): Observable<any> {
-    let params = this.getAuthParams();
+  getGrnHistory(poId?: number, cursor?: string, size?: number): Observable<any> {
+    let params = this.withCursor(this.getAuthParams(), cursor, size);
     if (poId) params = params.set('poId', poId.toString());
     return this.http.get<any>(`${this.baseUrl}/grn/history`, { params });
   }